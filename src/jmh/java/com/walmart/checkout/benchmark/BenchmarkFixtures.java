@@ -0,0 +1,154 @@
+package com.walmart.checkout.benchmark;
+
+import com.walmart.checkout.model.CartItem;
+import com.walmart.checkout.model.PaymentMethod;
+import com.walmart.checkout.model.Product;
+import com.walmart.checkout.model.Promotion;
+import com.walmart.checkout.model.ShoppingCart;
+import com.walmart.checkout.service.CheckoutJournal;
+import com.walmart.checkout.service.CheckoutMetrics;
+import com.walmart.checkout.service.CheckoutService;
+import com.walmart.checkout.service.DiscountService;
+import com.walmart.checkout.service.PaymentService;
+import com.walmart.checkout.service.ProductService;
+import com.walmart.checkout.service.PromotionService;
+import com.walmart.checkout.service.UlidIdGenerator;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+// Datos sintéticos deterministas y cableado de servicios sin contexto Spring
+final class BenchmarkFixtures {
+    
+    static final long SEED = 20240131L;
+    
+    private BenchmarkFixtures() {
+    }
+    
+    static int categoryCount(int catalogSize) {
+        return Math.max(1, Math.min(1000, catalogSize / 50));
+    }
+    
+    static List<Product> products(int catalogSize) {
+        Random random = new Random(SEED);
+        int categories = categoryCount(catalogSize);
+        List<Product> products = new ArrayList<>(catalogSize);
+        
+        for (int i = 0; i < catalogSize; i++) {
+            products.add(Product.builder()
+                    .id(String.format("sku-%07d", i))
+                    .name("Producto " + i)
+                    .price(BigDecimal.valueOf(1_000 + random.nextInt(1_000_000)))
+                    .category("cat-" + (i % categories))
+                    .description("Producto sintético " + i)
+                    .eligibleForPromotions(true)
+                    .build());
+        }
+        return products;
+    }
+    
+    static List<Promotion> promotions(int promotionCount, List<Product> catalog) {
+        Random random = new Random(SEED + 1);
+        int categories = categoryCount(catalog.size());
+        List<Promotion> promotions = new ArrayList<>(promotionCount);
+        
+        for (int i = 0; i < promotionCount; i++) {
+            Promotion.PromotionBuilder promotion = Promotion.builder()
+                    .promotionId(String.format("BENCH%06d", i))
+                    .name("Promoción " + i)
+                    .description("Promoción sintética " + i)
+                    .active(true);
+            
+            // Mezcla aproximada de una campaña real: mayoría por categoría y por SKU
+            int shape = i % 20;
+            if (shape < 8) {
+                promotion.type(Promotion.PromotionType.PERCENTAGE_DISCOUNT)
+                        .discountPercentage(BigDecimal.valueOf(5 + random.nextInt(30)))
+                        .applicableCategories(Collections.singletonList("cat-" + random.nextInt(categories)));
+            } else if (shape < 14) {
+                promotion.type(Promotion.PromotionType.FIXED_AMOUNT_DISCOUNT)
+                        .fixedDiscountAmount(BigDecimal.valueOf(500 + random.nextInt(20_000)))
+                        .applicableProductIds(Collections.singletonList(randomProduct(catalog, random)));
+            } else if (shape < 17) {
+                promotion.type(Promotion.PromotionType.BUY_X_GET_Y_FREE)
+                        .requiredQuantity(2 + random.nextInt(3))
+                        .freeQuantity(1)
+                        .applicableProductIds(Collections.singletonList(randomProduct(catalog, random)));
+            } else if (shape < 19) {
+                promotion.type(Promotion.PromotionType.PERCENTAGE_DISCOUNT)
+                        .discountPercentage(BigDecimal.valueOf(10 + random.nextInt(40)))
+                        .applicableProductIds(Collections.singletonList(randomProduct(catalog, random)));
+            } else {
+                long threshold = 10_000L + random.nextInt(5_000_000);
+                promotion.type(Promotion.PromotionType.MINIMUM_PURCHASE)
+                        .minimumPurchase(BigDecimal.valueOf(threshold))
+                        .fixedDiscountAmount(BigDecimal.valueOf(threshold / 20));
+            }
+            promotions.add(promotion.build());
+        }
+        return promotions;
+    }
+    
+    static ShoppingCart cart(int cartSize, List<Product> catalog, long seed) {
+        Random random = new Random(seed);
+        List<CartItem> items = new ArrayList<>(cartSize);
+        
+        for (int i = 0; i < cartSize; i++) {
+            items.add(CartItem.builder()
+                    .product(catalog.get(random.nextInt(catalog.size())))
+                    .quantity(1 + random.nextInt(5))
+                    .build());
+        }
+        return ShoppingCart.builder()
+                .cartId("bench-cart-" + seed)
+                .items(items)
+                .paymentMethod(PaymentMethod.DEBIT)
+                .build();
+    }
+    
+    static PromotionService promotionService(List<Promotion> promotions) {
+        PromotionService promotionService = new PromotionService();
+        promotionService.loadPromotions(promotions);
+        return promotionService;
+    }
+    
+    static DiscountService discountService(PromotionService promotionService) {
+        DiscountService discountService = new DiscountService();
+        ReflectionTestUtils.setField(discountService, "promotionService", promotionService);
+        return discountService;
+    }
+    
+    static CheckoutService checkoutService(DiscountService discountService) {
+        // Un registro compuesto sin registros hijos entrega medidores no-op
+        return checkoutService(discountService, new CheckoutMetrics(new CompositeMeterRegistry()));
+    }
+    
+    static CheckoutService checkoutService(DiscountService discountService, CheckoutMetrics checkoutMetrics) {
+        CheckoutService checkoutService = new CheckoutService();
+        ReflectionTestUtils.setField(checkoutService, "discountService", discountService);
+        ReflectionTestUtils.setField(checkoutService, "paymentService", new InstantPaymentService());
+        ReflectionTestUtils.setField(checkoutService, "productService", new ProductService());
+        ReflectionTestUtils.setField(checkoutService, "checkoutMetrics", checkoutMetrics);
+        ReflectionTestUtils.setField(checkoutService, "checkoutJournal", new CheckoutJournal());
+        ReflectionTestUtils.setField(checkoutService, "idGenerator", new UlidIdGenerator(0));
+        return checkoutService;
+    }
+    
+    private static String randomProduct(List<Product> catalog, Random random) {
+        return catalog.get(random.nextInt(catalog.size())).getId();
+    }
+    
+    // Pago sin latencia simulada: el benchmark mide solo el cálculo de precios
+    static final class InstantPaymentService extends PaymentService {
+        
+        @Override
+        public String processPayment(long amount, PaymentMethod paymentMethod) {
+            return "CONFIRMED";
+        }
+    }
+}
\ No newline at end of file
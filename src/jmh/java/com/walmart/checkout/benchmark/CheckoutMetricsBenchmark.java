@@ -0,0 +1,78 @@
+package com.walmart.checkout.benchmark;
+
+import com.walmart.checkout.model.CheckoutResult;
+import com.walmart.checkout.model.Product;
+import com.walmart.checkout.model.ShoppingCart;
+import com.walmart.checkout.service.CheckoutMetrics;
+import com.walmart.checkout.service.CheckoutService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Costo de la instrumentación por checkout: comparar "noop" contra los registros reales
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CheckoutMetricsBenchmark {
+    
+    @Param({"noop", "simple", "prometheus"})
+    private String registry;
+    
+    @Param({"1", "100"})
+    private int cartSize;
+    
+    private CheckoutMetrics checkoutMetrics;
+    private CheckoutService checkoutService;
+    private ShoppingCart cart;
+    
+    @Setup
+    public void setUp() {
+        checkoutMetrics = new CheckoutMetrics(meterRegistry(registry));
+        
+        List<Product> catalog = BenchmarkFixtures.products(1000);
+        checkoutService = BenchmarkFixtures.checkoutService(BenchmarkFixtures.discountService(
+                BenchmarkFixtures.promotionService(BenchmarkFixtures.promotions(1000, catalog))), checkoutMetrics);
+        cart = BenchmarkFixtures.cart(cartSize, catalog, BenchmarkFixtures.SEED);
+    }
+    
+    @Benchmark
+    public CheckoutResult processCheckout() {
+        return checkoutService.processCheckout(cart);
+    }
+    
+    // Una medición de etapa aislada: lectura del reloj + actualización del timer
+    @Benchmark
+    public void recordStage() {
+        checkoutMetrics.record(CheckoutMetrics.Stage.SUMMARY, checkoutMetrics.start());
+    }
+    
+    private static MeterRegistry meterRegistry(String registry) {
+        switch (registry) {
+            case "simple":
+                return new SimpleMeterRegistry();
+            case "prometheus":
+                return new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+            default:
+                return new CompositeMeterRegistry();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,70 @@
+package com.walmart.checkout.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.walmart.checkout.model.CheckoutResult;
+import com.walmart.checkout.model.Product;
+import com.walmart.checkout.service.CheckoutService;
+import com.walmart.checkout.service.CompactCheckoutWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serialización de la respuesta: CheckoutResult completo con ObjectMapper vs la vista compacta
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CheckoutResponseBenchmark {
+    
+    @Param({"1", "100"})
+    private int cartSize;
+    
+    private ObjectMapper objectMapper;
+    private CompactCheckoutWriter compactCheckoutWriter;
+    private EnumSet<CompactCheckoutWriter.Field> compactFields;
+    private CheckoutService checkoutService;
+    private CheckoutResult result;
+    
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        compactCheckoutWriter = new CompactCheckoutWriter(objectMapper);
+        compactFields = CompactCheckoutWriter.selectFields("compact", null);
+        
+        List<Product> catalog = BenchmarkFixtures.products(1000);
+        checkoutService = BenchmarkFixtures.checkoutService(BenchmarkFixtures.discountService(
+                BenchmarkFixtures.promotionService(BenchmarkFixtures.promotions(1000, catalog))));
+        result = checkoutService.processCheckout(BenchmarkFixtures.cart(cartSize, catalog, BenchmarkFixtures.SEED));
+    }
+    
+    @TearDown
+    public void tearDown() {
+        checkoutService.shutdown();
+    }
+    
+    @Benchmark
+    public byte[] fullResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(result);
+    }
+    
+    @Benchmark
+    public byte[] compactResponse() {
+        return compactCheckoutWriter.write(result, compactFields);
+    }
+}
\ No newline at end of file
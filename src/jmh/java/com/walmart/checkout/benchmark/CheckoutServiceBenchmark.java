@@ -0,0 +1,67 @@
+package com.walmart.checkout.benchmark;
+
+import com.walmart.checkout.model.CheckoutResult;
+import com.walmart.checkout.model.Product;
+import com.walmart.checkout.model.ShoppingCart;
+import com.walmart.checkout.service.CheckoutService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CheckoutServiceBenchmark {
+    
+    @Param({"1", "100", "10000"})
+    private int cartSize;
+    
+    @Param({"4", "1000", "100000"})
+    private int promotionCount;
+    
+    @Param({"1000", "100000"})
+    private int catalogSize;
+    
+    // Integer.MAX_VALUE fuerza el cálculo serial para comparar con el paralelo
+    @Param({"2000", "2147483647"})
+    private int parallelPricingThreshold;
+    
+    private CheckoutService checkoutService;
+    private ShoppingCart cart;
+    
+    @Setup
+    public void setUp() {
+        List<Product> catalog = BenchmarkFixtures.products(catalogSize);
+        checkoutService = BenchmarkFixtures.checkoutService(BenchmarkFixtures.discountService(
+                BenchmarkFixtures.promotionService(BenchmarkFixtures.promotions(promotionCount, catalog))));
+        ReflectionTestUtils.setField(checkoutService, "parallelPricingThreshold", parallelPricingThreshold);
+        cart = BenchmarkFixtures.cart(cartSize, catalog, BenchmarkFixtures.SEED);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        checkoutService.shutdown();
+    }
+    
+    // Checkout completo con el pago reemplazado por una respuesta inmediata
+    @Benchmark
+    public CheckoutResult processCheckout() {
+        return checkoutService.processCheckout(cart);
+    }
+}
\ No newline at end of file
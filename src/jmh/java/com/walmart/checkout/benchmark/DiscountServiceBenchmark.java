@@ -0,0 +1,72 @@
+package com.walmart.checkout.benchmark;
+
+import com.walmart.checkout.model.AppliedDiscount;
+import com.walmart.checkout.model.CartItem;
+import com.walmart.checkout.model.Money;
+import com.walmart.checkout.model.Product;
+import com.walmart.checkout.model.ShoppingCart;
+import com.walmart.checkout.service.DiscountService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DiscountServiceBenchmark {
+    
+    @Param({"1", "100", "10000"})
+    private int cartSize;
+    
+    @Param({"4", "1000", "100000"})
+    private int promotionCount;
+    
+    @Param({"1000", "100000"})
+    private int catalogSize;
+    
+    private DiscountService discountService;
+    private List<CartItem> items;
+    private long subtotal;
+    
+    @Setup
+    public void setUp() {
+        List<Product> catalog = BenchmarkFixtures.products(catalogSize);
+        discountService = BenchmarkFixtures.discountService(
+                BenchmarkFixtures.promotionService(BenchmarkFixtures.promotions(promotionCount, catalog)));
+        
+        ShoppingCart cart = BenchmarkFixtures.cart(cartSize, catalog, BenchmarkFixtures.SEED);
+        items = cart.getItems();
+        subtotal = Money.ZERO;
+        for (CartItem item : items) {
+            subtotal = Money.add(subtotal, item.calculateSubtotal());
+        }
+    }
+    
+    // Una operación = descuentos de producto para todas las líneas del carrito
+    @Benchmark
+    public void calculateProductDiscounts(Blackhole blackhole) {
+        for (CartItem item : items) {
+            blackhole.consume(discountService.calculateProductDiscounts(item));
+        }
+    }
+    
+    @Benchmark
+    public AppliedDiscount calculateMinimumPurchaseDiscount() {
+        return discountService.calculateMinimumPurchaseDiscount(subtotal);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.walmart.checkout.benchmark;
+
+import com.walmart.checkout.service.IdGenerator;
+import com.walmart.checkout.service.UlidIdGenerator;
+import com.walmart.checkout.service.UuidIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Un generador compartido por todos los hilos, como el bean de la aplicación
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class IdGeneratorBenchmark {
+    
+    @Param({"uuid", "ulid"})
+    private String generator;
+    
+    private IdGenerator idGenerator;
+    
+    @Setup
+    public void setUp() {
+        idGenerator = "uuid".equals(generator) ? new UuidIdGenerator() : new UlidIdGenerator(1);
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public String threads01() {
+        return idGenerator.nextId();
+    }
+    
+    @Benchmark
+    @Threads(4)
+    public String threads04() {
+        return idGenerator.nextId();
+    }
+    
+    @Benchmark
+    @Threads(16)
+    public String threads16() {
+        return idGenerator.nextId();
+    }
+    
+    @Benchmark
+    @Threads(64)
+    public String threads64() {
+        return idGenerator.nextId();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.walmart.checkout.benchmark;
+
+import com.walmart.checkout.model.Product;
+import com.walmart.checkout.service.MappedProductCatalog;
+import com.walmart.checkout.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProductCatalogBenchmark {
+    
+    private static final int LOOKUPS = 1024;
+    
+    @Param({"heap", "mapped"})
+    private String backend;
+    
+    @Param({"1000", "1000000"})
+    private int catalogSize;
+    
+    private ProductService productService;
+    private Path catalogFile;
+    private String[] productIds;
+    private int next;
+    
+    @Setup
+    public void setUp() throws IOException {
+        List<Product> catalog = BenchmarkFixtures.products(catalogSize);
+        if ("mapped".equals(backend)) {
+            catalogFile = Files.createTempFile("catalog-bench", ".bin");
+            MappedProductCatalog.write(catalog, catalogFile);
+            productService = new ProductService(catalogFile.toString());
+        } else {
+            productService = new ProductService();
+            productService.loadProducts(catalog);
+        }
+        
+        Random random = new Random(BenchmarkFixtures.SEED);
+        productIds = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            productIds[i] = catalog.get(random.nextInt(catalog.size())).getId();
+        }
+    }
+    
+    @TearDown
+    public void tearDown() throws IOException {
+        if (catalogFile != null) {
+            Files.deleteIfExists(catalogFile);
+        }
+    }
+    
+    @Benchmark
+    public Optional<Product> findById() {
+        int i = next++ & (LOOKUPS - 1);
+        return productService.findById(productIds[i]);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.walmart.checkout.benchmark;
+
+import com.walmart.checkout.model.CheckoutResult;
+import com.walmart.checkout.model.Product;
+import com.walmart.checkout.model.Promotion;
+import com.walmart.checkout.model.ShoppingCart;
+import com.walmart.checkout.service.CheckoutService;
+import com.walmart.checkout.service.DiscountService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Latencia del checkout cuando las promociones solapadas tienen grupos de exclusividad
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PromotionOptimizerBenchmark {
+    
+    @Param({"100"})
+    private int cartSize;
+    
+    @Param({"100", "1000"})
+    private int promotionCount;
+    
+    // Grupos distintos en la campaña; cada promoción toma dos al azar (0 = todas se suman, sin optimizador)
+    @Param({"0", "8", "64"})
+    private int groupCount;
+    
+    // 0 = solo la solución voraz
+    @Param({"0", "500", "2000"})
+    private long budgetMicros;
+    
+    private CheckoutService checkoutService;
+    private ShoppingCart cart;
+    
+    @Setup
+    public void setUp() {
+        List<Product> catalog = BenchmarkFixtures.products(1000);
+        List<Promotion> promotions = BenchmarkFixtures.promotions(promotionCount, catalog);
+        Random random = new Random(BenchmarkFixtures.SEED + 2);
+        for (int i = 0; i < promotions.size() && groupCount > 0; i++) {
+            Promotion promotion = promotions.get(i);
+            List<String> groups = new ArrayList<>(2);
+            groups.add("group-" + random.nextInt(groupCount));
+            groups.add("group-" + random.nextInt(groupCount));
+            promotion.setExclusivityGroups(groups);
+        }
+        
+        DiscountService discountService = BenchmarkFixtures.discountService(BenchmarkFixtures.promotionService(promotions));
+        ReflectionTestUtils.setField(discountService, "optimizerBudget", Duration.ofNanos(budgetMicros * 1_000));
+        checkoutService = BenchmarkFixtures.checkoutService(discountService);
+        cart = BenchmarkFixtures.cart(cartSize, catalog, BenchmarkFixtures.SEED);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        checkoutService.shutdown();
+    }
+    
+    @Benchmark
+    public CheckoutResult processCheckout() {
+        return checkoutService.processCheckout(cart);
+    }
+}
\ No newline at end of file
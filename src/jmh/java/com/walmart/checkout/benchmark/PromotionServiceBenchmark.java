@@ -0,0 +1,63 @@
+package com.walmart.checkout.benchmark;
+
+import com.walmart.checkout.model.Product;
+import com.walmart.checkout.model.Promotion;
+import com.walmart.checkout.service.PromotionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PromotionServiceBenchmark {
+    
+    private static final int LOOKUPS = 1024;
+    
+    @Param({"4", "1000", "100000"})
+    private int promotionCount;
+    
+    @Param({"1000", "100000"})
+    private int catalogSize;
+    
+    private PromotionService promotionService;
+    private String[] productIds;
+    private String[] categories;
+    private int next;
+    
+    @Setup
+    public void setUp() {
+        List<Product> catalog = BenchmarkFixtures.products(catalogSize);
+        promotionService = BenchmarkFixtures.promotionService(BenchmarkFixtures.promotions(promotionCount, catalog));
+        
+        Random random = new Random(BenchmarkFixtures.SEED);
+        productIds = new String[LOOKUPS];
+        categories = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            Product product = catalog.get(random.nextInt(catalog.size()));
+            productIds[i] = product.getId();
+            categories[i] = product.getCategory();
+        }
+    }
+    
+    @Benchmark
+    public List<Promotion> getApplicablePromotions() {
+        int i = next++ & (LOOKUPS - 1);
+        return promotionService.getApplicablePromotions(productIds[i], categories[i]);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.walmart.checkout.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.walmart.checkout.model.CartItem;
+import com.walmart.checkout.model.CartItemRequest;
+import com.walmart.checkout.model.CheckoutResult;
+import com.walmart.checkout.model.Product;
+import com.walmart.checkout.model.ShoppingCart;
+import com.walmart.checkout.model.ShoppingCartRequest;
+import com.walmart.checkout.service.CheckoutService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// JSON vs CBOR vs Smile para ShoppingCartRequest y CheckoutResult; el tamaño de cada payload se imprime en el setup
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SerializationFormatBenchmark {
+    
+    @Param({"json", "cbor", "smile"})
+    private String format;
+    
+    @Param({"1", "100"})
+    private int cartSize;
+    
+    private ObjectMapper mapper;
+    private CheckoutService checkoutService;
+    private ShoppingCartRequest request;
+    private CheckoutResult result;
+    private byte[] requestBytes;
+    private byte[] resultBytes;
+    
+    @Setup
+    public void setUp() throws Exception {
+        mapper = objectMapper(format);
+        
+        List<Product> catalog = BenchmarkFixtures.products(1000);
+        checkoutService = BenchmarkFixtures.checkoutService(BenchmarkFixtures.discountService(
+                BenchmarkFixtures.promotionService(BenchmarkFixtures.promotions(1000, catalog))));
+        ShoppingCart cart = BenchmarkFixtures.cart(cartSize, catalog, BenchmarkFixtures.SEED);
+        request = request(cart);
+        result = checkoutService.processCheckout(cart);
+        
+        requestBytes = mapper.writeValueAsBytes(request);
+        resultBytes = mapper.writeValueAsBytes(result);
+        System.out.printf("%n%s cartSize=%d: ShoppingCartRequest %d bytes, CheckoutResult %d bytes%n",
+                format, cartSize, requestBytes.length, resultBytes.length);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        checkoutService.shutdown();
+    }
+    
+    @Benchmark
+    public byte[] writeRequest() throws Exception {
+        return mapper.writeValueAsBytes(request);
+    }
+    
+    @Benchmark
+    public ShoppingCartRequest readRequest() throws Exception {
+        return mapper.readValue(requestBytes, ShoppingCartRequest.class);
+    }
+    
+    @Benchmark
+    public byte[] writeResult() throws Exception {
+        return mapper.writeValueAsBytes(result);
+    }
+    
+    @Benchmark
+    public CheckoutResult readResult() throws Exception {
+        return mapper.readValue(resultBytes, CheckoutResult.class);
+    }
+    
+    // Misma configuración que los conversores HTTP de la aplicación
+    private static ObjectMapper objectMapper(String format) {
+        switch (format) {
+            case "cbor":
+                return Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+            case "smile":
+                return Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+            default:
+                return Jackson2ObjectMapperBuilder.json().build();
+        }
+    }
+    
+    private static ShoppingCartRequest request(ShoppingCart cart) {
+        List<CartItemRequest> items = new ArrayList<>(cart.getItems().size());
+        for (CartItem item : cart.getItems()) {
+            items.add(new CartItemRequest(item.getProduct().getId(), item.getQuantity()));
+        }
+        return new ShoppingCartRequest(cart.getCartId(), items, null, cart.getPaymentMethod());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,112 @@
+package com.walmart.checkout.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.walmart.checkout.model.CartItemRequest;
+import com.walmart.checkout.model.PaymentMethod;
+import com.walmart.checkout.model.ShoppingCartRequest;
+import com.walmart.checkout.service.ProductService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Carritos a enviar. Se generan todos antes de empezar para que la
+ * serialización o el azar no agreguen trabajo al generador de carga.
+ */
+final class CartSource {
+    
+    private final List<ShoppingCartRequest> carts;
+    
+    private CartSource(List<ShoppingCartRequest> carts) {
+        if (carts.isEmpty()) {
+            throw new IllegalArgumentException("No carts to replay");
+        }
+        this.carts = carts;
+    }
+    
+    /**
+     * Lee archivos con un {@code ShoppingCartRequest} por archivo
+     * ({@code test-request.json}) o uno por línea ({@code .jsonl}/{@code .ndjson},
+     * el mismo formato que {@code /process-batch}).
+     */
+    static CartSource replay(List<Path> files, boolean keepCartIds, ObjectMapper objectMapper) throws IOException {
+        List<ShoppingCartRequest> carts = new ArrayList<>();
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+                try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    String line;
+                    int lineNumber = 0;
+                    while ((line = reader.readLine()) != null) {
+                        lineNumber++;
+                        if (!line.isBlank()) {
+                            carts.add(read(objectMapper, line, file + ":" + lineNumber, keepCartIds));
+                        }
+                    }
+                }
+            } else {
+                carts.add(read(objectMapper, Files.readString(file, StandardCharsets.UTF_8), file.toString(), keepCartIds));
+            }
+        }
+        return new CartSource(carts);
+    }
+    
+    /**
+     * Genera carritos con SKUs del catálogo de {@link ProductService}; con
+     * una semilla fija la secuencia es la misma entre ejecuciones.
+     */
+    static CartSource synthetic(ProductService productService, int count, int minItems, int maxItems, long seed) {
+        List<String> skus = new ArrayList<>(productService.getAllProducts().keySet());
+        if (skus.isEmpty()) {
+            throw new IllegalArgumentException("Product catalog is empty");
+        }
+        if (minItems < 1 || maxItems < minItems) {
+            throw new IllegalArgumentException("Invalid cart size range " + minItems + ".." + maxItems);
+        }
+        
+        SplittableRandom random = new SplittableRandom(seed);
+        PaymentMethod[] paymentMethods = PaymentMethod.values();
+        List<ShoppingCartRequest> carts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int itemCount = random.nextInt(minItems, maxItems + 1);
+            List<CartItemRequest> items = new ArrayList<>(itemCount);
+            for (int j = 0; j < itemCount; j++) {
+                items.add(new CartItemRequest(skus.get(random.nextInt(skus.size())), 1 + random.nextInt(5)));
+            }
+            // Sin cartId: cada envío es un checkout nuevo y no un reintento idempotente
+            carts.add(new ShoppingCartRequest(null, items, null, paymentMethods[random.nextInt(paymentMethods.length)]));
+        }
+        return new CartSource(carts);
+    }
+    
+    int size() {
+        return carts.size();
+    }
+    
+    // Recorre los carritos en ciclo
+    ShoppingCartRequest get(long sequence) {
+        return carts.get((int) (sequence % carts.size()));
+    }
+    
+    private static ShoppingCartRequest read(ObjectMapper objectMapper, String json, String origin, boolean keepCartIds)
+            throws IOException {
+        ShoppingCartRequest request;
+        try {
+            request = objectMapper.readValue(json, ShoppingCartRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IOException("Invalid ShoppingCartRequest in " + origin + ": " + e.getOriginalMessage(), e);
+        }
+        // Con el mismo cartId el servicio devolvería el resultado guardado por idempotencia
+        if (!keepCartIds) {
+            request.setCartId(null);
+        }
+        return request;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.walmart.checkout.loadtest;
+
+import com.walmart.checkout.model.ShoppingCartRequest;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Destino de la carga: una instancia remota por HTTP o el
+ * {@code CheckoutService} levantado en el mismo proceso.
+ */
+interface CheckoutTarget extends AutoCloseable {
+    
+    /**
+     * Envía un checkout. El futuro nunca termina de forma excepcional: los
+     * errores se informan como un {@link Outcome} fallido.
+     */
+    CompletableFuture<Outcome> send(ShoppingCartRequest request);
+    
+    @Override
+    void close();
+    
+    final class Outcome {
+        
+        private final String label;
+        private final boolean success;
+        
+        private Outcome(String label, boolean success) {
+            this.label = label;
+            this.success = success;
+        }
+        
+        static Outcome success(String label) {
+            return new Outcome(label, true);
+        }
+        
+        static Outcome failure(String label) {
+            return new Outcome(label, false);
+        }
+        
+        static Outcome failure(Throwable error) {
+            Throwable cause = error;
+            while (cause.getCause() != null && (cause instanceof CompletionException
+                    || cause instanceof ExecutionException)) {
+                cause = cause.getCause();
+            }
+            return new Outcome(cause.getClass().getSimpleName(), false);
+        }
+        
+        String getLabel() {
+            return label;
+        }
+        
+        boolean isSuccess() {
+            return success;
+        }
+    }
+}
\ No newline at end of file
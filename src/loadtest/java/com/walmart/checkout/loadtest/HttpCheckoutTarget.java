@@ -0,0 +1,65 @@
+package com.walmart.checkout.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.walmart.checkout.model.ShoppingCartRequest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// POST /api/v1/checkout/process contra una instancia en ejecución
+final class HttpCheckoutTarget implements CheckoutTarget {
+    
+    private static final String PROCESS_PATH = "/api/v1/checkout/process";
+    
+    private final ObjectMapper objectMapper;
+    private final URI uri;
+    private final Duration timeout;
+    private final ExecutorService executor;
+    private final HttpClient client;
+    
+    HttpCheckoutTarget(String baseUrl, Duration timeout, int concurrency, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.uri = URI.create(baseUrl.replaceAll("/+$", "") + PROCESS_PATH);
+        this.timeout = timeout;
+        this.executor = Executors.newFixedThreadPool(Math.max(2, Math.min(concurrency, Runtime.getRuntime().availableProcessors())));
+        this.client = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(timeout)
+                .build();
+    }
+    
+    @Override
+    public CompletableFuture<Outcome> send(ShoppingCartRequest request) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(request);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.completedFuture(Outcome.failure(e));
+        }
+        
+        HttpRequest httpRequest = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        return client.sendAsync(httpRequest, HttpResponse.BodyHandlers.discarding())
+                .handle((response, e) -> e != null ? Outcome.failure(e) : outcome(response.statusCode()));
+    }
+    
+    private static Outcome outcome(int status) {
+        String label = "HTTP " + status;
+        return status >= 200 && status < 300 ? Outcome.success(label) : Outcome.failure(label);
+    }
+    
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
\ No newline at end of file
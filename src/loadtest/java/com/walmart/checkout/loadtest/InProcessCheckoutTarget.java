@@ -0,0 +1,56 @@
+package com.walmart.checkout.loadtest;
+
+import com.walmart.checkout.CheckoutServiceApplication;
+import com.walmart.checkout.model.ShoppingCartRequest;
+import com.walmart.checkout.service.CheckoutService;
+import com.walmart.checkout.service.ProductService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Levanta la aplicación sin servidor web y llama directamente a
+ * {@link CheckoutService}, con los mismos beans (pagos, journal, métricas)
+ * que en producción. Mide el servicio sin el costo de HTTP.
+ */
+final class InProcessCheckoutTarget implements CheckoutTarget {
+    
+    private final ConfigurableApplicationContext context;
+    private final CheckoutService checkoutService;
+    private final ExecutorService workers;
+    
+    InProcessCheckoutTarget(int concurrency, String[] applicationArgs) {
+        // Con devtools en el classpath el reinicio relanzaría LoadTest.main con los argumentos de la aplicación
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        this.context = new SpringApplicationBuilder(CheckoutServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(applicationArgs);
+        this.checkoutService = context.getBean(CheckoutService.class);
+        // El cálculo de precios corre en el hilo que llama: el generador no debe hacerlo
+        this.workers = Executors.newFixedThreadPool(concurrency);
+    }
+    
+    ProductService getProductService() {
+        return context.getBean(ProductService.class);
+    }
+    
+    @Override
+    public CompletableFuture<Outcome> send(ShoppingCartRequest request) {
+        return CompletableFuture
+                .supplyAsync(() -> checkoutService.processCheckoutAsync(checkoutService.convertToShoppingCart(request), false), workers)
+                .thenCompose(Function.identity())
+                // FAILED o PENDING son respuestas válidas del servicio: se reportan por separado
+                .handle((result, e) -> e == null ? Outcome.success(result.getPaymentStatus()) : Outcome.failure(e));
+    }
+    
+    @Override
+    public void close() {
+        workers.shutdownNow();
+        context.close();
+    }
+}
\ No newline at end of file
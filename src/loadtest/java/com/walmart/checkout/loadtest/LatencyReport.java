@@ -0,0 +1,107 @@
+package com.walmart.checkout.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencias en microsegundos con HdrHistogram. La latencia corregida se mide
+ * desde el instante en que el request debía salir según la tasa fija, así
+ * que incluye la espera cuando el servicio (o el límite de concurrencia)
+ * atrasa los envíos; la no corregida se mide desde el envío real y sirve para
+ * ver cuánto esconde la omisión coordinada.
+ */
+final class LatencyReport {
+    
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    
+    private final Recorder correctedRecorder = new Recorder(3);
+    private final Recorder uncorrectedRecorder = new Recorder(3);
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+    private final LongAdder errors = new LongAdder();
+    
+    // Solo los usa el hilo que reporta
+    private final Histogram corrected = new Histogram(3);
+    private final Histogram uncorrected = new Histogram(3);
+    private Histogram correctedInterval;
+    
+    void record(long intendedNanos, long sentNanos, long completedNanos, CheckoutTarget.Outcome outcome) {
+        correctedRecorder.recordValue(TimeUnit.NANOSECONDS.toMicros(completedNanos - intendedNanos));
+        uncorrectedRecorder.recordValue(TimeUnit.NANOSECONDS.toMicros(completedNanos - sentNanos));
+        outcomes.computeIfAbsent(outcome.getLabel(), label -> new LongAdder()).increment();
+        if (!outcome.isSuccess()) {
+            errors.increment();
+        }
+    }
+    
+    // Acumula lo registrado desde la última llamada; devuelve el histograma corregido del intervalo
+    synchronized Histogram collect() {
+        correctedInterval = correctedRecorder.getIntervalHistogram(correctedInterval);
+        corrected.add(correctedInterval);
+        uncorrected.add(uncorrectedRecorder.getIntervalHistogram());
+        return correctedInterval;
+    }
+    
+    long getCount() {
+        return corrected.getTotalCount();
+    }
+    
+    long getErrors() {
+        return errors.sum();
+    }
+    
+    double getErrorRate() {
+        return getCount() == 0 ? 0 : 100.0 * getErrors() / getCount();
+    }
+    
+    double getCorrectedPercentileMillis(double percentile) {
+        return corrected.getValueAtPercentile(percentile) / 1000.0;
+    }
+    
+    void printInterval(PrintStream out, long elapsedSeconds, Histogram interval, double seconds) {
+        out.printf("[%4ds] %8.1f req/s  p50 %9.3f ms  p99 %9.3f ms  max %9.3f ms  errors %d%n",
+                elapsedSeconds, interval.getTotalCount() / seconds,
+                interval.getValueAtPercentile(50) / 1000.0,
+                interval.getValueAtPercentile(99) / 1000.0,
+                interval.getMaxValue() / 1000.0,
+                errors.sum());
+    }
+    
+    void printSummary(PrintStream out, double measuredSeconds) {
+        out.printf("%nCompleted %d requests in %.1f s (%.1f req/s), errors %d (%.2f%%)%n",
+                getCount(), measuredSeconds, getCount() / measuredSeconds, getErrors(), getErrorRate());
+        out.println("Outcomes: " + new TreeMap<>(outcomes));
+        
+        out.printf("%-24s", "Latency (ms)");
+        for (double percentile : PERCENTILES) {
+            out.printf("%11s", "p" + (percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile)));
+        }
+        out.printf("%11s%n", "max");
+        printRow(out, "corrected (intended)", corrected);
+        printRow(out, "uncorrected (sent)", uncorrected);
+    }
+    
+    void writePercentiles(Path file) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, "UTF-8")) {
+            // Formato de HdrHistogram (valores en ms), apto para el plotter de percentiles
+            corrected.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+    
+    private static void printRow(PrintStream out, String label, Histogram histogram) {
+        out.printf("%-24s", label);
+        for (double percentile : PERCENTILES) {
+            out.printf("%11.3f", histogram.getValueAtPercentile(percentile) / 1000.0);
+        }
+        out.printf("%11.3f%n", histogram.getMaxValue() / 1000.0);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,148 @@
+package com.walmart.checkout.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.walmart.checkout.model.ShoppingCartRequest;
+import com.walmart.checkout.service.ProductService;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generador de carga de modelo abierto: los checkouts salen a una tasa fija
+ * sin esperar las respuestas anteriores, hasta {@code --concurrency} en vuelo.
+ * Si el servicio se atrasa, los envíos se atrasan con él pero la latencia se
+ * sigue midiendo desde el instante programado (corrección de omisión coordinada).
+ *
+ * <pre>
+ * ./mvnw -Ploadtest test-compile exec:exec -Dloadtest.args="--target=http://localhost:8080 --rate=500 --duration=2m"
+ * ./mvnw -Ploadtest test-compile exec:exec -Dloadtest.args="--target=in-process --carts=test-request.json,simple-test.json"
+ * </pre>
+ */
+public final class LoadTest {
+    
+    private LoadTest() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+        
+        ObjectMapper objectMapper = new ObjectMapper();
+        boolean passed;
+        try (CheckoutTarget target = target(options, objectMapper)) {
+            CartSource carts = cartSource(options, target, objectMapper);
+            passed = passes(options, run(options, target, carts));
+        }
+        System.exit(passed ? 0 : 1);
+    }
+    
+    private static CheckoutTarget target(LoadTestOptions options, ObjectMapper objectMapper) {
+        if (options.isInProcess()) {
+            return new InProcessCheckoutTarget(options.concurrency, options.applicationArgs.toArray(new String[0]));
+        }
+        return new HttpCheckoutTarget(options.target, options.timeout, options.concurrency, objectMapper);
+    }
+    
+    private static CartSource cartSource(LoadTestOptions options, CheckoutTarget target, ObjectMapper objectMapper)
+            throws Exception {
+        if (!options.carts.isEmpty()) {
+            return CartSource.replay(options.carts, options.keepCartIds, objectMapper);
+        }
+        // En proceso se usa el catálogo de la aplicación; contra HTTP, el por defecto o --catalog-file
+        ProductService productService = target instanceof InProcessCheckoutTarget
+                ? ((InProcessCheckoutTarget) target).getProductService()
+                : new ProductService(options.catalogFile);
+        return CartSource.synthetic(productService, options.syntheticCarts, options.minItems, options.maxItems, options.seed);
+    }
+    
+    private static LatencyReport run(LoadTestOptions options, CheckoutTarget target, CartSource carts)
+            throws InterruptedException {
+        double nanosPerRequest = TimeUnit.SECONDS.toNanos(1) / options.rate;
+        long warmupNanos = options.warmup.toNanos();
+        long totalNanos = warmupNanos + options.duration.toNanos();
+        long total = (long) Math.ceil(totalNanos / nanosPerRequest);
+        
+        System.out.printf("Target %s: %.1f req/s for %s after %s warmup, up to %d in flight, %d distinct carts%n",
+                options.target, options.rate, options.duration, options.warmup, options.concurrency, carts.size());
+        
+        LatencyReport report = new LatencyReport();
+        Semaphore inFlight = new Semaphore(options.concurrency);
+        long start = System.nanoTime();
+        long measureStart = start + warmupNanos;
+        
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        long intervalNanos = options.reportInterval.toNanos();
+        reporter.scheduleAtFixedRate(() -> {
+            Histogram interval = report.collect();
+            long elapsed = System.nanoTime() - start;
+            if (elapsed > warmupNanos + intervalNanos / 2) {
+                report.printInterval(System.out, TimeUnit.NANOSECONDS.toSeconds(elapsed), interval,
+                        intervalNanos / 1e9);
+            }
+        }, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        
+        for (long i = 0; i < total; i++) {
+            long intended = start + (long) (i * nanosPerRequest);
+            for (long wait = intended - System.nanoTime(); wait > 0; wait = intended - System.nanoTime()) {
+                LockSupport.parkNanos(wait);
+            }
+            // Con el límite lleno el envío se atrasa; la latencia corregida lo incluye
+            inFlight.acquire();
+            
+            ShoppingCartRequest cart = carts.get(i);
+            long sent = System.nanoTime();
+            target.send(cart).thenAccept(outcome -> {
+                long completed = System.nanoTime();
+                if (intended >= measureStart) {
+                    report.record(intended, sent, completed, outcome);
+                }
+                inFlight.release();
+            });
+        }
+        
+        // Espera las respuestas pendientes antes del resumen
+        if (!inFlight.tryAcquire(options.concurrency, options.timeout.toNanos() * 2, TimeUnit.NANOSECONDS)) {
+            System.out.println("Some requests did not complete; they are left out of the report");
+        }
+        double measuredSeconds = (System.nanoTime() - measureStart) / 1e9;
+        reporter.shutdownNow();
+        report.collect();
+        
+        report.printSummary(System.out, measuredSeconds);
+        if (options.histogramOutput != null) {
+            try {
+                report.writePercentiles(options.histogramOutput);
+                System.out.println("Percentile distribution written to " + options.histogramOutput);
+            } catch (IOException e) {
+                System.err.println("Could not write " + options.histogramOutput + ": " + e.getMessage());
+            }
+        }
+        return report;
+    }
+    
+    // Umbrales opcionales para validar un release: el proceso termina con código 1 si no se cumplen
+    private static boolean passes(LoadTestOptions options, LatencyReport report) {
+        boolean passes = true;
+        if (options.maxErrorRate >= 0 && report.getErrorRate() > options.maxErrorRate) {
+            System.out.printf("FAIL: error rate %.2f%% above %.2f%%%n", report.getErrorRate(), options.maxErrorRate);
+            passes = false;
+        }
+        double p99 = report.getCorrectedPercentileMillis(99);
+        if (options.maxP99Millis >= 0 && p99 > options.maxP99Millis) {
+            System.out.printf("FAIL: corrected p99 %.3f ms above %.3f ms%n", p99, options.maxP99Millis);
+            passes = false;
+        }
+        return passes;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,124 @@
+package com.walmart.checkout.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Opciones de línea de comandos ({@code --nombre=valor}). Las opciones
+ * {@code --checkout.*}, {@code --spring.*} y {@code --logging.*} se pasan a la
+ * aplicación cuando el destino es {@code in-process}.
+ */
+final class LoadTestOptions {
+    
+    static final String IN_PROCESS = "in-process";
+    
+    String target = "http://localhost:8080";
+    double rate = 100;
+    Duration duration = Duration.ofSeconds(60);
+    Duration warmup = Duration.ofSeconds(10);
+    int concurrency = 64;
+    Duration timeout = Duration.ofSeconds(10);
+    List<Path> carts = new ArrayList<>();
+    boolean keepCartIds;
+    int syntheticCarts = 10_000;
+    int minItems = 1;
+    int maxItems = 10;
+    long seed = 42;
+    String catalogFile = "";
+    Duration reportInterval = Duration.ofSeconds(5);
+    Path histogramOutput;
+    double maxErrorRate = -1;
+    double maxP99Millis = -1;
+    List<String> applicationArgs = new ArrayList<>();
+    
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Expected --option=value but got " + arg);
+            }
+            String name = separator < 0 ? arg.substring(2) : arg.substring(2, separator);
+            String value = separator < 0 ? "true" : arg.substring(separator + 1);
+            
+            switch (name) {
+                case "target":
+                    options.target = value;
+                    break;
+                case "rate":
+                    options.rate = Double.parseDouble(value);
+                    break;
+                case "duration":
+                    options.duration = DurationStyle.detectAndParse(value);
+                    break;
+                case "warmup":
+                    options.warmup = DurationStyle.detectAndParse(value);
+                    break;
+                case "concurrency":
+                    options.concurrency = Integer.parseInt(value);
+                    break;
+                case "timeout":
+                    options.timeout = DurationStyle.detectAndParse(value);
+                    break;
+                case "carts":
+                    for (String file : value.split(",")) {
+                        options.carts.add(Paths.get(file.trim()));
+                    }
+                    break;
+                case "keep-cart-ids":
+                    options.keepCartIds = Boolean.parseBoolean(value);
+                    break;
+                case "synthetic-carts":
+                    options.syntheticCarts = Integer.parseInt(value);
+                    break;
+                case "min-items":
+                    options.minItems = Integer.parseInt(value);
+                    break;
+                case "max-items":
+                    options.maxItems = Integer.parseInt(value);
+                    break;
+                case "seed":
+                    options.seed = Long.parseLong(value);
+                    break;
+                case "catalog-file":
+                    options.catalogFile = value;
+                    break;
+                case "report-interval":
+                    options.reportInterval = DurationStyle.detectAndParse(value);
+                    break;
+                case "histogram-output":
+                    options.histogramOutput = Paths.get(value);
+                    break;
+                case "max-error-rate":
+                    options.maxErrorRate = Double.parseDouble(value);
+                    break;
+                case "max-p99":
+                    options.maxP99Millis = DurationStyle.detectAndParse(value).toNanos() / 1e6;
+                    break;
+                default:
+                    if (name.startsWith("checkout.") || name.startsWith("spring.") || name.startsWith("logging.")) {
+                        options.applicationArgs.add(arg);
+                        break;
+                    }
+                    throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        
+        if (options.rate <= 0 || options.concurrency < 1) {
+            throw new IllegalArgumentException("--rate and --concurrency must be positive");
+        }
+        if (options.duration.isZero() || options.duration.isNegative() || options.warmup.isNegative()) {
+            throw new IllegalArgumentException("--duration must be positive and --warmup not negative");
+        }
+        return options;
+    }
+    
+    boolean isInProcess() {
+        return IN_PROCESS.equals(target);
+    }
+}
\ No newline at end of file
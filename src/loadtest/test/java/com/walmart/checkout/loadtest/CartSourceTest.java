@@ -0,0 +1,126 @@
+package com.walmart.checkout.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.walmart.checkout.model.CartItemRequest;
+import com.walmart.checkout.model.PaymentMethod;
+import com.walmart.checkout.model.ShoppingCartRequest;
+import com.walmart.checkout.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CartSourceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testReplayReadsJsonAndJsonlFilesSkippingBlankLines() throws IOException {
+        // Dado
+        Path single = Files.writeString(directory.resolve("cart.json"),
+                "{\"cartId\":\"cart-1\",\"items\":[{\"sku\":\"p-001\",\"quantity\":1}],\"paymentMethod\":\"DEBIT\"}");
+        Path lines = Files.writeString(directory.resolve("carts.jsonl"),
+                "{\"cartId\":\"cart-2\",\"items\":[{\"sku\":\"p-010\",\"quantity\":2}],\"paymentMethod\":\"CASH\"}\n"
+                        + "\n"
+                        + "   \n"
+                        + "{\"items\":[{\"sku\":\"p-003\",\"quantity\":3}],\"paymentMethod\":\"CREDIT_CARD\"}\n");
+
+        // Cuando
+        CartSource source = CartSource.replay(Arrays.asList(single, lines), false, objectMapper);
+
+        // Entonces: tres carritos en orden de archivo y de línea, sin cartId
+        assertEquals(3, source.size());
+        assertEquals("p-001", source.get(0).getItems().get(0).getSku());
+        assertEquals("p-010", source.get(1).getItems().get(0).getSku());
+        assertEquals(PaymentMethod.CREDIT_CARD, source.get(2).getPaymentMethod());
+        for (int i = 0; i < source.size(); i++) {
+            assertNull(source.get(i).getCartId());
+        }
+        // Recorre los carritos en ciclo
+        assertSame(source.get(0), source.get(3));
+    }
+
+    @Test
+    void testReplayKeepsCartIdsWhenAsked() throws IOException {
+        Path lines = Files.writeString(directory.resolve("carts.ndjson"),
+                "{\"cartId\":\"cart-2\",\"items\":[{\"sku\":\"p-010\",\"quantity\":2}],\"paymentMethod\":\"CASH\"}\n");
+
+        CartSource source = CartSource.replay(Collections.singletonList(lines), true, objectMapper);
+
+        assertEquals("cart-2", source.get(0).getCartId());
+    }
+
+    @Test
+    void testReplayReportsFileAndLineOfInvalidJson() throws IOException {
+        Path lines = Files.writeString(directory.resolve("carts.jsonl"),
+                "{\"items\":[{\"sku\":\"p-010\",\"quantity\":2}],\"paymentMethod\":\"CASH\"}\n{not json\n");
+
+        IOException error = assertThrows(IOException.class,
+                () -> CartSource.replay(Collections.singletonList(lines), false, objectMapper));
+
+        assertTrue(error.getMessage().contains("carts.jsonl:2"), error.getMessage());
+    }
+
+    @Test
+    void testReplayRejectsFilesWithoutCarts() throws IOException {
+        Path empty = Files.writeString(directory.resolve("empty.jsonl"), "\n\n");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> CartSource.replay(Collections.singletonList(empty), false, objectMapper));
+    }
+
+    @Test
+    void testSyntheticCartsAreDeterministicForASeed() {
+        // Dado
+        ProductService productService = new ProductService();
+
+        // Cuando
+        CartSource first = CartSource.synthetic(productService, 50, 2, 4, 42);
+        CartSource second = CartSource.synthetic(productService, 50, 2, 4, 42);
+        CartSource otherSeed = CartSource.synthetic(productService, 50, 2, 4, 43);
+
+        // Entonces
+        assertEquals(50, first.size());
+        assertEquals(describe(first), describe(second));
+        assertNotEquals(describe(first), describe(otherSeed));
+        for (int i = 0; i < first.size(); i++) {
+            ShoppingCartRequest cart = first.get(i);
+            assertNull(cart.getCartId());
+            assertTrue(cart.getItems().size() >= 2 && cart.getItems().size() <= 4);
+            for (CartItemRequest item : cart.getItems()) {
+                assertTrue(productService.findById(item.getSku()).isPresent());
+            }
+        }
+    }
+
+    @Test
+    void testSyntheticRejectsInvalidCartSizes() {
+        ProductService productService = new ProductService();
+
+        assertThrows(IllegalArgumentException.class, () -> CartSource.synthetic(productService, 10, 0, 4, 42));
+        assertThrows(IllegalArgumentException.class, () -> CartSource.synthetic(productService, 10, 5, 4, 42));
+    }
+
+    private static List<String> describe(CartSource source) {
+        List<String> carts = new ArrayList<>();
+        for (int i = 0; i < source.size(); i++) {
+            StringBuilder cart = new StringBuilder(source.get(i).getPaymentMethod().name());
+            for (CartItemRequest item : source.get(i).getItems()) {
+                cart.append(' ').append(item.getSku()).append('x').append(item.getQuantity());
+            }
+            carts.add(cart.toString());
+        }
+        return carts;
+    }
+}
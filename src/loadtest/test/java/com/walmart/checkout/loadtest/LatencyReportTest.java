@@ -0,0 +1,72 @@
+package com.walmart.checkout.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyReportTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void testCorrectedLatencyIncludesTheDelayBeforeSending() {
+        // Dado: el request debía salir en 0, salió en 40 ms y respondió en 50 ms
+        LatencyReport report = new LatencyReport();
+
+        // Cuando
+        report.record(0, 40 * MS, 50 * MS, CheckoutTarget.Outcome.success("200"));
+        Histogram interval = report.collect();
+
+        // Entonces: corregida 50 ms, no corregida 10 ms
+        assertEquals(1, interval.getTotalCount());
+        assertEquals(1, report.getCount());
+        assertEquals(50.0, report.getCorrectedPercentileMillis(99), 0.05);
+        String summary = summary(report);
+        assertTrue(summary.matches("(?s).*corrected \\(intended\\)\\s+50\\.0\\d\\d.*"), summary);
+        assertTrue(summary.matches("(?s).*uncorrected \\(sent\\)\\s+10\\.0\\d\\d.*"), summary);
+    }
+
+    @Test
+    void testCollectAccumulatesIntervalsAndCountsErrors() {
+        LatencyReport report = new LatencyReport();
+        report.record(0, 0, 2 * MS, CheckoutTarget.Outcome.success("200"));
+        report.record(0, 0, 4 * MS, CheckoutTarget.Outcome.failure("503"));
+        assertEquals(2, report.collect().getTotalCount());
+
+        report.record(0, 0, 6 * MS, CheckoutTarget.Outcome.failure(
+                new CompletionException(new ConnectException("refused"))));
+        Histogram interval = report.collect();
+
+        // El intervalo solo tiene lo nuevo; el total acumula todo
+        assertEquals(1, interval.getTotalCount());
+        assertEquals(3, report.getCount());
+        assertEquals(2, report.getErrors());
+        assertEquals(200.0 / 3, report.getErrorRate(), 1e-9);
+        String summary = summary(report);
+        assertTrue(summary.contains("ConnectException=1"), summary);
+        assertTrue(summary.contains("503=1"), summary);
+    }
+
+    @Test
+    void testEmptyReportHasNoErrorRate() {
+        LatencyReport report = new LatencyReport();
+        report.collect();
+
+        assertEquals(0, report.getCount());
+        assertEquals(0, report.getErrorRate());
+    }
+
+    private static String summary(LatencyReport report) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        report.printSummary(new PrintStream(buffer, true, StandardCharsets.UTF_8), 1.0);
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,75 @@
+package com.walmart.checkout.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadTestOptionsTest {
+
+    @Test
+    void testDefaults() {
+        // Cuando
+        LoadTestOptions options = LoadTestOptions.parse(new String[0]);
+
+        // Entonces
+        assertEquals("http://localhost:8080", options.target);
+        assertEquals(100, options.rate);
+        assertEquals(Duration.ofSeconds(60), options.duration);
+        assertEquals(Duration.ofSeconds(10), options.warmup);
+        assertEquals(64, options.concurrency);
+        assertTrue(options.carts.isEmpty());
+        assertEquals(42, options.seed);
+        assertEquals(-1, options.maxP99Millis);
+        assertFalse(options.isInProcess());
+    }
+
+    @Test
+    void testParsesOptionsAndPassesApplicationProperties() {
+        // Cuando
+        LoadTestOptions options = LoadTestOptions.parse(new String[]{
+                "--target=in-process", "--rate=500", "--duration=2m", "--warmup=0s",
+                "--carts=a.json, b.jsonl", "--keep-cart-ids", "--max-p99=250ms",
+                "--checkout.payment.simulator.seed=7"});
+
+        // Entonces
+        assertTrue(options.isInProcess());
+        assertEquals(500, options.rate);
+        assertEquals(Duration.ofMinutes(2), options.duration);
+        assertEquals(Duration.ZERO, options.warmup);
+        assertEquals(Arrays.asList(Paths.get("a.json"), Paths.get("b.jsonl")), options.carts);
+        assertTrue(options.keepCartIds);
+        assertEquals(250.0, options.maxP99Millis, 1e-9);
+        assertEquals(Collections.singletonList("--checkout.payment.simulator.seed=7"), options.applicationArgs);
+    }
+
+    @Test
+    void testMaxP99AcceptsSubMillisecondDurations() {
+        LoadTestOptions options = LoadTestOptions.parse(new String[]{"--max-p99=1500us"});
+
+        assertEquals(1.5, options.maxP99Millis, 1e-9);
+    }
+
+    @Test
+    void testRejectsUnknownOptionsAndPositionalArguments() {
+        IllegalArgumentException unknown = assertThrows(IllegalArgumentException.class,
+                () -> LoadTestOptions.parse(new String[]{"--rates=10"}));
+        assertTrue(unknown.getMessage().contains("--rates"));
+
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse(new String[]{"rate=10"}));
+    }
+
+    @Test
+    void testValidatesRateConcurrencyAndDurations() {
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse(new String[]{"--rate=0"}));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse(new String[]{"--rate=-5"}));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse(new String[]{"--concurrency=0"}));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse(new String[]{"--duration=0s"}));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse(new String[]{"--warmup=-1s"}));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse(new String[]{"--duration=soon"}));
+    }
+}
@@ -0,0 +1,31 @@
+package com.walmart.checkout.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Conversores CBOR ({@code application/cbor}) y Smile
+ * ({@code application/x-jackson-smile}) para la negociación de contenido.
+ * Parten del mismo {@link Jackson2ObjectMapperBuilder} que el JSON, así que
+ * los modelos se serializan igual en los tres formatos. JSON sigue siendo la
+ * respuesta cuando el cliente no pide un formato binario.
+ */
+@Configuration
+public class BinaryFormatConfig {
+
+    // El builder de Spring Boot es prototype: cada conversor recibe una instancia nueva
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
\ No newline at end of file
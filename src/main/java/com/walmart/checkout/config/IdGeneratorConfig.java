@@ -0,0 +1,25 @@
+package com.walmart.checkout.config;
+
+import com.walmart.checkout.service.IdGenerator;
+import com.walmart.checkout.service.UlidIdGenerator;
+import com.walmart.checkout.service.UuidIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdGeneratorConfig {
+
+    @Bean
+    public IdGenerator idGenerator(@Value("${checkout.id.generator:ulid}") String generator,
+                                   @Value("${checkout.id.node-id:-1}") int nodeId) {
+        switch (generator.toLowerCase()) {
+            case "ulid":
+                return new UlidIdGenerator(nodeId < 0 ? UlidIdGenerator.randomNodeId() : nodeId);
+            case "uuid":
+                return new UuidIdGenerator();
+            default:
+                throw new IllegalArgumentException("Unknown checkout.id.generator " + generator + " (expected ulid or uuid)");
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,107 @@
+package com.walmart.checkout.config;
+
+import com.walmart.checkout.model.PaymentMethod;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Perfiles del simulador local de pagos ({@code checkout.payment.simulator.*}).
+ * {@code defaults} aplica a todos los métodos de pago; una entrada en
+ * {@code methods} solo cambia los campos que define y hereda el resto de
+ * {@code defaults}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "checkout.payment.simulator")
+public class PaymentSimulatorProperties {
+    
+    // Con semilla los resultados se repiten entre ejecuciones si el orden de los lotes es el mismo
+    private Long seed;
+    private Profile defaults = Profile.standard();
+    private Map<PaymentMethod, Profile> methods = new EnumMap<>(PaymentMethod.class);
+    
+    public Profile profile(PaymentMethod method) {
+        Profile override = methods.get(method);
+        return override != null ? override.inheriting(defaults) : defaults;
+    }
+    
+    // Los campos nulos se heredan de defaults
+    @Data
+    public static class Profile {
+        
+        private Latency latency = new Latency();
+        // Probabilidad de que el adquirente rechace un pago (FAILED)
+        private Double failureRate;
+        // Probabilidad de que un viaje no tenga respuesta; sus pagos quedan PENDING tras timeout-duration
+        private Double timeoutRate;
+        private Duration timeoutDuration;
+        // Viajes simultáneos al adquirente; los demás esperan su turno (0 = sin límite)
+        private Integer maxConcurrentRequests;
+        
+        // Perfil por defecto: 100 ms fijos y 95% de aprobación
+        public static Profile standard() {
+            Profile profile = new Profile();
+            profile.latency = Latency.standard();
+            profile.failureRate = 0.05;
+            profile.timeoutRate = 0.0;
+            profile.timeoutDuration = Duration.ofSeconds(30);
+            profile.maxConcurrentRequests = 0;
+            return profile;
+        }
+        
+        Profile inheriting(Profile base) {
+            Profile profile = new Profile();
+            profile.latency = latency != null ? latency.inheriting(base.latency) : base.latency;
+            profile.failureRate = failureRate != null ? failureRate : base.failureRate;
+            profile.timeoutRate = timeoutRate != null ? timeoutRate : base.timeoutRate;
+            profile.timeoutDuration = timeoutDuration != null ? timeoutDuration : base.timeoutDuration;
+            profile.maxConcurrentRequests = maxConcurrentRequests != null ? maxConcurrentRequests : base.maxConcurrentRequests;
+            return profile;
+        }
+    }
+    
+    @Data
+    public static class Latency {
+        
+        public enum Type {
+            FIXED, LOG_NORMAL, BIMODAL
+        }
+        
+        private Type type;
+        // Valor fijo, o mediana de la log-normal
+        private Duration median;
+        // Dispersión de la log-normal: el p99 queda en median * e^(2,33 * sigma)
+        private Double sigma;
+        // Bimodal: con esta probabilidad el viaje sigue una segunda log-normal centrada en tail-median
+        private Double tailProbability;
+        private Duration tailMedian;
+        private Duration max;
+        
+        public static Latency standard() {
+            Latency latency = new Latency();
+            latency.type = Type.FIXED;
+            latency.median = Duration.ofMillis(100);
+            latency.sigma = 0.25;
+            latency.tailProbability = 0.01;
+            latency.tailMedian = Duration.ofSeconds(1);
+            latency.max = Duration.ofSeconds(30);
+            return latency;
+        }
+        
+        Latency inheriting(Latency base) {
+            Latency latency = new Latency();
+            latency.type = type != null ? type : base.type;
+            latency.median = median != null ? median : base.median;
+            latency.sigma = sigma != null ? sigma : base.sigma;
+            latency.tailProbability = tailProbability != null ? tailProbability : base.tailProbability;
+            latency.tailMedian = tailMedian != null ? tailMedian : base.tailMedian;
+            latency.max = max != null ? max : base.max;
+            return latency;
+        }
+    }
+}
\ No newline at end of file
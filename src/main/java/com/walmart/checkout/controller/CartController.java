@@ -0,0 +1,99 @@
+package com.walmart.checkout.controller;
+
+import com.walmart.checkout.model.CartItemRequest;
+import com.walmart.checkout.model.PaymentMethod;
+import com.walmart.checkout.model.ShoppingCart;
+import com.walmart.checkout.model.ShoppingCartRequest;
+import com.walmart.checkout.service.CartSessionService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+@RestController
+@RequestMapping("/api/v1/carts")
+@Api(value = "Carts", description = "Server-side cart sessions priced incrementally")
+public class CartController {
+    
+    @Autowired
+    private CartSessionService cartSessionService;
+    
+    @PostMapping
+    @ApiOperation(value = "Create cart", notes = "Create a cart session with an optional initial set of items. Sessions expire checkout.cart.ttl after they were last read or changed")
+    @ApiResponses(value = {
+        @ApiResponse(code = 201, message = "Cart created"),
+        @ApiResponse(code = 400, message = "Invalid cart data")
+    })
+    public ResponseEntity<?> createCart(@RequestBody ShoppingCartRequest cartRequest) {
+        try {
+            ShoppingCart cart = cartSessionService.create(cartRequest.getPaymentMethod(), cartRequest.getItems());
+            return ResponseEntity.status(HttpStatus.CREATED).body(cart);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid request: " + e.getMessage());
+        } catch (ArithmeticException e) {
+            // Montos que no caben en los totales del carrito
+            return ResponseEntity.badRequest().body("Invalid request: cart amounts are too large");
+        }
+    }
+    
+    @GetMapping("/{cartId}")
+    @ApiOperation(value = "Get cart", notes = "Lines and totals of the cart session")
+    public ResponseEntity<?> getCart(@PathVariable String cartId) {
+        return respond(() -> cartSessionService.get(cartId));
+    }
+    
+    @PostMapping("/{cartId}/items")
+    @ApiOperation(value = "Add item", notes = "Add the quantity to the SKU's line, creating it if needed. Only that line and the cart-level discounts are re-priced")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "Item added"),
+        @ApiResponse(code = 400, message = "Invalid SKU or quantity"),
+        @ApiResponse(code = 404, message = "Cart not found or expired")
+    })
+    public ResponseEntity<?> addItem(@PathVariable String cartId, @RequestBody CartItemRequest item) {
+        return respond(() -> cartSessionService.addItem(cartId, item.getSku(), item.getQuantity()));
+    }
+    
+    @PutMapping("/{cartId}/items/{sku}")
+    @ApiOperation(value = "Update item quantity", notes = "Set the quantity of the SKU's line; 0 removes it")
+    public ResponseEntity<?> updateItem(@PathVariable String cartId, @PathVariable String sku,
+                                        @RequestParam Integer quantity) {
+        return respond(() -> cartSessionService.updateItem(cartId, sku, quantity));
+    }
+    
+    @DeleteMapping("/{cartId}/items/{sku}")
+    @ApiOperation(value = "Remove item", notes = "Remove the SKU's line from the cart")
+    public ResponseEntity<?> removeItem(@PathVariable String cartId, @PathVariable String sku) {
+        return respond(() -> cartSessionService.removeItem(cartId, sku));
+    }
+    
+    @PutMapping("/{cartId}/payment-method")
+    @ApiOperation(value = "Change payment method", notes = "Only the cart-level payment method discount is recalculated")
+    public ResponseEntity<?> changePaymentMethod(@PathVariable String cartId, @RequestParam PaymentMethod paymentMethod) {
+        return respond(() -> cartSessionService.changePaymentMethod(cartId, paymentMethod));
+    }
+    
+    @DeleteMapping("/{cartId}")
+    @ApiOperation(value = "Delete cart", notes = "Discard the cart session")
+    public ResponseEntity<Void> deleteCart(@PathVariable String cartId) {
+        return cartSessionService.delete(cartId) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+    
+    private ResponseEntity<?> respond(Supplier<Optional<ShoppingCart>> operation) {
+        try {
+            Optional<ShoppingCart> cart = operation.get();
+            return cart.isPresent() ? ResponseEntity.ok(cart.get()) : ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid request: " + e.getMessage());
+        } catch (ArithmeticException e) {
+            // Montos que no caben en los totales del carrito
+            return ResponseEntity.badRequest().body("Invalid request: cart amounts are too large");
+        }
+    }
+}
\ No newline at end of file
@@ -1,25 +1,43 @@
 package com.walmart.checkout.controller;
 
 import com.walmart.checkout.model.*;
+import com.walmart.checkout.service.BatchCheckoutService;
+import com.walmart.checkout.service.CatalogSnapshot;
+import com.walmart.checkout.service.CatalogSnapshotService;
+import com.walmart.checkout.service.CheckoutIdempotencyService;
+import com.walmart.checkout.service.CheckoutQuoteService;
 import com.walmart.checkout.service.CheckoutService;
+import com.walmart.checkout.service.CompactCheckoutWriter;
+import com.walmart.checkout.service.IdGenerator;
 import com.walmart.checkout.service.ProductService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.validation.FieldError;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.List;
-import java.util.ArrayList;
-import java.util.UUID;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/v1/checkout")
@@ -32,124 +50,310 @@ public class CheckoutController {
     @Autowired
     private ProductService productService;
     
+    @Autowired
+    private BatchCheckoutService batchCheckoutService;
+    
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+    
+    @Autowired
+    private CheckoutIdempotencyService checkoutIdempotencyService;
+    
+    @Autowired
+    private CheckoutQuoteService checkoutQuoteService;
+    
+    @Autowired
+    private CompactCheckoutWriter compactCheckoutWriter;
+    
+    @Autowired
+    private IdGenerator idGenerator;
+    
     @PostMapping("/process")
-    @ApiOperation(value = "Process checkout", notes = "Process shopping cart checkout with discounts and payment")
+    @ApiOperation(value = "Process checkout", notes = "Process shopping cart checkout with discounts and payment. Pass summary=true to include the text receipt summary. Pass view=compact (or fields=a,b,c) for a compact response that references products by SKU, in the format negotiated through Accept. Retries with the same Idempotency-Key header (or cartId) and the same cart return the original result, with the summary added or dropped as the retry asks; a different cart under the same key is rejected with 422")
     @ApiResponses(value = {
         @ApiResponse(code = 200, message = "Checkout processed successfully"),
         @ApiResponse(code = 400, message = "Invalid cart data"),
-        @ApiResponse(code = 404, message = "Product not found")
+        @ApiResponse(code = 404, message = "Product not found"),
+        @ApiResponse(code = 406, message = "Compact view requested in a format that is not supported"),
+        @ApiResponse(code = 422, message = "Idempotency-Key (or cartId) already used for a different cart")
     })
-    public ResponseEntity<?> processCheckout(@Valid @RequestBody ShoppingCartRequest cartRequest) {
+    public CompletableFuture<ResponseEntity<?>> processCheckout(@Valid @RequestBody ShoppingCartRequest cartRequest,
+                                                               @RequestParam(defaultValue = "false") boolean summary,
+                                                               @RequestParam(required = false) String view,
+                                                               @RequestParam(required = false) String fields,
+                                                               @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                               @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         try {
-            // Convertir ShoppingCartRequest a ShoppingCart
-            ShoppingCart cart = convertToShoppingCart(cartRequest);
-            
-            // Establecer metadatos del carrito
-            if (cart.getCartId() == null || cart.getCartId().isEmpty()) {
-                cart.setCartId(UUID.randomUUID().toString());
+            EnumSet<CompactCheckoutWriter.Field> compactFields = CompactCheckoutWriter.selectFields(view, fields);
+            MediaType compactType = compactFields != null ? compactMediaType(accept) : null;
+            if (compactFields != null && compactType == null) {
+                return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build());
             }
             
-            CheckoutResult result = checkoutService.processCheckout(cart);
-            return ResponseEntity.ok(result);
+            // Los reintentos con la misma clave (o el mismo cartId) reutilizan el checkout original
+            String key = CheckoutIdempotencyService.idempotencyKey(idempotencyKey, cartRequest.getCartId());
             
+            return toResponse(checkoutIdempotencyService.execute(key, cartRequest, () -> {
+                // Convertir ShoppingCartRequest a ShoppingCart
+                ShoppingCart cart = checkoutService.convertToShoppingCart(cartRequest);
+                
+                // Establecer metadatos del carrito
+                if (cart.getCartId() == null || cart.getCartId().isEmpty()) {
+                    cart.setCartId(idGenerator.nextId());
+                }
+                
+                return checkoutService.processCheckoutAsync(cart, summary);
+            }).thenApply(result -> checkoutService.withSummary(result, summary)), compactFields, compactType);
+        
+        } catch (CheckoutIdempotencyService.IdempotencyConflictException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.unprocessableEntity().body(e.getMessage()));
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest()
-                    .body("Invalid request: " + e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body("Invalid request: " + e.getMessage()));
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Error processing checkout: " + e.getMessage());
+            return CompletableFuture.completedFuture(checkoutError(e));
+        }
+    }
+    
+    @PostMapping("/quote")
+    @ApiOperation(value = "Quote cart", notes = "Price the cart with all discounts without processing payment. Identical carts are served from a cache until promotions or the catalog change")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "Cart priced successfully"),
+        @ApiResponse(code = 400, message = "Invalid cart data")
+    })
+    public ResponseEntity<?> quoteCheckout(@Valid @RequestBody ShoppingCartRequest cartRequest) {
+        try {
+            return ResponseEntity.ok(checkoutQuoteService.quote(cartRequest));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid request: " + e.getMessage());
         }
     }
     
     @PostMapping("/process-legacy")
-    @ApiOperation(value = "Process checkout (Legacy format)", notes = "Process shopping cart checkout with legacy format for web UI compatibility")
+    @ApiOperation(value = "Process checkout (Legacy format)", notes = "Process shopping cart checkout with legacy format for web UI compatibility. Pass summary=true to include the text receipt summary and view=compact (or fields=a,b,c) for a compact response in the format negotiated through Accept")
     @ApiResponses(value = {
         @ApiResponse(code = 200, message = "Checkout processed successfully"),
         @ApiResponse(code = 400, message = "Invalid cart data"),
-        @ApiResponse(code = 404, message = "Product not found")
+        @ApiResponse(code = 404, message = "Product not found"),
+        @ApiResponse(code = 406, message = "Compact view requested in a format that is not supported")
     })
-    public ResponseEntity<?> processCheckoutLegacy(@Valid @RequestBody ShoppingCart cart) {
+    public CompletableFuture<ResponseEntity<?>> processCheckoutLegacy(@Valid @RequestBody ShoppingCart cart,
+                                                                     @RequestParam(defaultValue = "false") boolean summary,
+                                                                     @RequestParam(required = false) String view,
+                                                                     @RequestParam(required = false) String fields,
+                                                                     @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         try {
+            EnumSet<CompactCheckoutWriter.Field> compactFields = CompactCheckoutWriter.selectFields(view, fields);
+            MediaType compactType = compactFields != null ? compactMediaType(accept) : null;
+            if (compactFields != null && compactType == null) {
+                return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build());
+            }
+            
             // Establecer metadatos del carrito
             if (cart.getCartId() == null || cart.getCartId().isEmpty()) {
-                cart.setCartId(UUID.randomUUID().toString());
+                cart.setCartId(idGenerator.nextId());
             }
             
             // Validar que los productos existan y asegurar datos completos del producto
             for (CartItem item : cart.getItems()) {
                 String productId = item.getProduct().getId();
-                if (productService.findById(productId).isEmpty()) {
-                    return ResponseEntity.badRequest()
-                            .body("Product not found: " + productId);
+                Optional<Product> fullProduct = productService.findById(productId);
+                if (fullProduct.isEmpty()) {
+                    return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                            .body("Product not found: " + productId));
                 }
                 
                 // Asegurar que tengamos los datos completos del producto
-                Product fullProduct = productService.findById(productId).get();
-                item.setProduct(fullProduct);
+                item.setProduct(fullProduct.get());
             }
             
-            CheckoutResult result = checkoutService.processCheckout(cart);
-            return ResponseEntity.ok(result);
-            
+            return toResponse(checkoutService.processCheckoutAsync(cart, summary), compactFields, compactType);
+        
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body("Invalid request: " + e.getMessage()));
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Error processing checkout: " + e.getMessage());
+            return CompletableFuture.completedFuture(checkoutError(e));
         }
     }
     
-    private ShoppingCart convertToShoppingCart(ShoppingCartRequest request) {
-        List<CartItem> cartItems = new ArrayList<>();
-        
-        // Convertir cada CartItemRequest a CartItem
-        for (CartItemRequest itemRequest : request.getItems()) {
-            // Encontrar producto por SKU
-            Product product = productService.findById(itemRequest.getSku())
-                    .orElseThrow(() -> new IllegalArgumentException("Product not found with SKU: " + itemRequest.getSku()));
-            
-            // Crear CartItem con datos completos del producto
-            CartItem cartItem = CartItem.builder()
-                    .product(product)
-                    .quantity(itemRequest.getQuantity())
-                    .build();
-                    
-            cartItems.add(cartItem);
-        }
-        
-        return ShoppingCart.builder()
-                .cartId(request.getCartId())
-                .items(cartItems)
-                .paymentMethod(request.getPaymentMethod())
-                .shippingAddress(request.getShippingAddress())
-                .build();
+    @PostMapping(value = "/process-batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @ApiOperation(value = "Process checkout batch", notes = "Process newline-delimited ShoppingCartRequest objects, streaming one result or error record per line as each cart completes")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "Batch streamed; each record carries its line number and status")
+    })
+    public void processCheckoutBatch(InputStream requestBody, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        batchCheckoutService.processBatch(requestBody, response.getOutputStream());
+    }
+    
+    private CompletableFuture<ResponseEntity<?>> toResponse(CompletableFuture<CheckoutResult> checkout,
+                                                          EnumSet<CompactCheckoutWriter.Field> compactFields,
+                                                          MediaType compactType) {
+        // La respuesta se escribe cuando termina el pago (respuesta asíncrona del servlet)
+        return checkout
+                .<ResponseEntity<?>>thenApply(result -> compactFields == null
+                        ? ResponseEntity.ok(result)
+                        : ResponseEntity.ok()
+                                .contentType(compactType)
+                                .body(compactCheckoutWriter.write(result, compactFields, compactType)))
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    // Un duplicado concurrente recibe el mismo error de validación que la solicitud original
+                    if (cause instanceof IllegalArgumentException) {
+                        return ResponseEntity.badRequest().body("Invalid request: " + cause.getMessage());
+                    }
+                    return checkoutError(cause);
+                });
+    }
+    
+    private ResponseEntity<?> checkoutError(Throwable e) {
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error processing checkout: " + e.getMessage());
     }
     
     @GetMapping("/payment-methods")
-    @ApiOperation(value = "Get available payment methods", notes = "Retrieve all available payment methods with their discount percentages")
-    public ResponseEntity<List<Map<String, Object>>> getPaymentMethods() {
-        List<Map<String, Object>> methods = new ArrayList<>();
-        
-        for (PaymentMethod method : PaymentMethod.values()) {
-            Map<String, Object> methodInfo = new HashMap<>();
-            methodInfo.put("name", method.name());
-            methodInfo.put("displayName", method.getDisplayName());
-            methodInfo.put("discountPercentage", method.getDiscountPercentage());
-            methods.add(methodInfo);
-        }
-        
-        return ResponseEntity.ok(methods);
+    @ApiOperation(value = "Get available payment methods", notes = "Retrieve all available payment methods with their discount percentages", response = Map.class, responseContainer = "List")
+    public ResponseEntity<byte[]> getPaymentMethods(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                    @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return catalogResponse(CatalogSnapshotService.CatalogView.PAYMENT_METHODS, accept, acceptEncoding);
     }
     
     @GetMapping("/products")
-    @ApiOperation(value = "Get available products", notes = "Retrieve all products available for purchase")
-    public ResponseEntity<Map<String, Product>> getProducts() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    @ApiOperation(value = "Get available products", notes = "Retrieve all products available for purchase", response = Product.class, responseContainer = "Map")
+    public ResponseEntity<byte[]> getProducts(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                              @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return catalogResponse(CatalogSnapshotService.CatalogView.PRODUCTS, accept, acceptEncoding);
     }
     
     @GetMapping("/products/grouped")
-    @ApiOperation(value = "Get products grouped by category", notes = "Retrieve all products grouped by their categories")
-    public ResponseEntity<Map<String, List<Product>>> getProductsGroupedByCategory() {
-        Map<String, List<Product>> groupedProducts = productService.getProductsGroupedByCategory();
-        return ResponseEntity.ok(groupedProducts);
+    @ApiOperation(value = "Get products grouped by category", notes = "Retrieve all products grouped by their categories", response = Product.class, responseContainer = "Map")
+    public ResponseEntity<byte[]> getProductsGroupedByCategory(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                               @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return catalogResponse(CatalogSnapshotService.CatalogView.PRODUCTS_GROUPED, accept, acceptEncoding);
+    }
+    
+    private ResponseEntity<byte[]> catalogResponse(CatalogSnapshotService.CatalogView view, String accept, String acceptEncoding) {
+        CatalogSnapshotService.CatalogFormat format = catalogFormat(accept);
+        if (format == null) {
+            return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
+        }
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot(view, format);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        
+        // Spring responde 304 automáticamente si If-None-Match coincide con el ETag
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.eTag(snapshot.getGzipEtag())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(snapshot.getGzipBody());
+        }
+        return response.eTag(snapshot.getEtag()).body(snapshot.getBody());
+    }
+    
+    // Primer formato aceptado según especificidad y calidad; JSON sin Accept, null si no admite ninguno (406)
+    private CatalogSnapshotService.CatalogFormat catalogFormat(String accept) {
+        List<MediaType> acceptedTypes = acceptedTypes(accept);
+        if (acceptedTypes == null) {
+            return CatalogSnapshotService.CatalogFormat.JSON;
+        }
+        List<MediaType> available = new ArrayList<>();
+        for (CatalogSnapshotService.CatalogFormat format : CatalogSnapshotService.CatalogFormat.values()) {
+            if (catalogSnapshotService.supports(format)) {
+                available.add(format.getMediaType());
+            }
+        }
+        MediaType mediaType = negotiate(acceptedTypes, available);
+        if (mediaType == null) {
+            return null;
+        }
+        for (CatalogSnapshotService.CatalogFormat format : CatalogSnapshotService.CatalogFormat.values()) {
+            if (format.getMediaType().equals(mediaType)) {
+                return format;
+            }
+        }
+        return null;
+    }
+    
+    // Gzip solo si Accept-Encoding lo admite con calidad mayor a 0 (gzip, x-gzip o *)
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQuality = gzipQuality == null ? quality : Math.max(gzipQuality, quality);
+            } else if (coding.equals("*")) {
+                wildcardQuality = quality;
+            }
+        }
+        // Una mención explícita de gzip prevalece sobre el comodín
+        double quality = gzipQuality != null ? gzipQuality : wildcardQuality != null ? wildcardQuality : 0;
+        return quality > 0;
+    }
+    
+    // Formato de la vista compacta; null si Accept no admite ninguno (la respuesta es 406)
+    private MediaType compactMediaType(String accept) {
+        List<MediaType> available = compactCheckoutWriter.getMediaTypes();
+        List<MediaType> acceptedTypes = acceptedTypes(accept);
+        return acceptedTypes == null ? available.get(0) : negotiate(acceptedTypes, available);
+    }
+    
+    // Primer tipo disponible que Accept admite; un tipo rechazado con q=0 no se elige aunque lo cubra un comodín
+    private static MediaType negotiate(List<MediaType> acceptedTypes, List<MediaType> available) {
+        for (MediaType acceptedType : acceptedTypes) {
+            if (acceptedType.getQualityValue() == 0) {
+                continue;
+            }
+            for (MediaType mediaType : available) {
+                if (acceptedType.includes(mediaType) && quality(acceptedTypes, mediaType) > 0) {
+                    return mediaType;
+                }
+            }
+        }
+        return null;
+    }
+    
+    // Calidad del rango más específico que incluye el tipo (la lista ya viene ordenada por especificidad)
+    private static double quality(List<MediaType> acceptedTypes, MediaType mediaType) {
+        for (MediaType acceptedType : acceptedTypes) {
+            if (acceptedType.includes(mediaType)) {
+                return acceptedType.getQualityValue();
+            }
+        }
+        return 0;
+    }
+    
+    // Tipos del header Accept por especificidad y calidad; null si falta o no se puede interpretar
+    private static List<MediaType> acceptedTypes(String accept) {
+        if (accept == null || accept.isEmpty()) {
+            return null;
+        }
+        try {
+            List<MediaType> acceptedTypes = MediaType.parseMediaTypes(accept);
+            MediaType.sortBySpecificityAndQuality(acceptedTypes);
+            return acceptedTypes;
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
     }
     
     @ExceptionHandler(MethodArgumentNotValidException.class)
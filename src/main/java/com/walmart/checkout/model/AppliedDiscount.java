@@ -1,5 +1,8 @@
 package com.walmart.checkout.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -11,12 +14,32 @@ import java.math.BigDecimal;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonPropertyOrder({"discountId", "discountName", "discountType", "discountAmount", "description", "applicableItem"})
 public class AppliedDiscount {
     
     private String discountId;
     private String discountName;
     private String discountType; // PRODUCT, PROMOTION, PAYMENT_METHOD
-    private BigDecimal discountAmount;
+    @JsonIgnore
+    private long amount; // Monto en pesos, usado por el motor de descuentos
     private String description;
     private String applicableItem; // ID del producto o "TOTAL" para descuentos de método de pago
+    
+    @JsonProperty("discountAmount")
+    public BigDecimal getDiscountAmount() {
+        return Money.toBigDecimal(amount);
+    }
+    
+    @JsonProperty("discountAmount")
+    public void setDiscountAmount(BigDecimal discountAmount) {
+        this.amount = Money.of(discountAmount);
+    }
+    
+    public static class AppliedDiscountBuilder {
+        
+        public AppliedDiscountBuilder discountAmount(BigDecimal discountAmount) {
+            this.amount = Money.of(discountAmount);
+            return this;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.walmart.checkout.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchCheckoutRecord {
+    
+    private long line; // Número de línea en el archivo NDJSON de entrada
+    private String cartId;
+    private String status; // OK, ERROR
+    private CheckoutResult result;
+    private String error;
+}
\ No newline at end of file
@@ -26,7 +26,7 @@ public class CartItem {
     private BigDecimal itemDiscount;
     private BigDecimal itemTotal;
     
-    public BigDecimal calculateSubtotal() {
-        return product.getPrice().multiply(BigDecimal.valueOf(quantity));
+    public long calculateSubtotal() {
+        return Money.multiply(Money.of(product.getPrice()), quantity);
     }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.walmart.checkout.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckoutQuote {
+    
+    // Líneas con subtotal, descuento y total calculados (ordenadas por SKU)
+    private List<CartItem> items;
+    
+    // Desglose financiero
+    private BigDecimal subtotal;
+    private List<AppliedDiscount> productDiscounts;
+    private List<AppliedDiscount> promotionDiscounts;
+    private AppliedDiscount paymentMethodDiscount;
+    private BigDecimal totalDiscounts;
+    private BigDecimal finalTotal;
+    private PaymentMethod paymentMethod;
+    
+    // Versiones de promociones y catálogo con que se calculó
+    private long promotionVersion;
+    private long catalogVersion;
+}
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.walmart.checkout.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -10,7 +11,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class CheckoutResult {
@@ -31,6 +32,7 @@ public class CheckoutResult {
     private String paymentStatus; // PENDING, CONFIRMED, FAILED
     private LocalDateTime processedAt;
     
-    // Resumen para mostrar
+    // Resumen para mostrar (solo si el cliente lo solicita)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String summary;
 }
\ No newline at end of file
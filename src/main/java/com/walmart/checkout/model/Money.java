@@ -0,0 +1,68 @@
+package com.walmart.checkout.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Aritmética de montos en pesos chilenos sobre {@code long} primitivos.
+ * El CLP no tiene unidad fraccionaria, así que la unidad mínima es el peso;
+ * {@link BigDecimal} solo se usa en el borde JSON.
+ */
+public final class Money {
+    
+    public static final long ZERO = 0L;
+    
+    // 100% expresado en puntos base (1 pb = 0,01%)
+    public static final long FULL_BASIS_POINTS = 10_000L;
+    
+    private Money() {
+    }
+    
+    public static long of(BigDecimal amount) {
+        return amount.setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+    
+    // Para umbrales: "subtotal >= umbral" se mantiene exacto con umbrales fraccionarios
+    public static long ofCeiling(BigDecimal amount) {
+        return amount.setScale(0, RoundingMode.CEILING).longValueExact();
+    }
+    
+    public static BigDecimal toBigDecimal(long amount) {
+        return BigDecimal.valueOf(amount);
+    }
+    
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+    
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+    
+    public static long multiply(long amount, long quantity) {
+        return Math.multiplyExact(amount, quantity);
+    }
+    
+    public static long basisPoints(BigDecimal percentage) {
+        // Lanza ArithmeticException si el porcentaje tiene más de dos decimales
+        return percentage.movePointRight(2).longValueExact();
+    }
+    
+    public static long basisPoints(double percentage) {
+        return Math.round(percentage * 100);
+    }
+    
+    // Porcentaje de un monto con redondeo HALF_UP al peso
+    public static long percentage(long amount, long basisPoints) {
+        return divideHalfUp(Math.multiplyExact(amount, basisPoints), FULL_BASIS_POINTS);
+    }
+    
+    static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) * 2 >= divisor) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+}
\ No newline at end of file
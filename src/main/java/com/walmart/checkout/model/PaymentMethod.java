@@ -9,10 +9,12 @@ public enum PaymentMethod {
     
     private final String displayName;
     private final double discountPercentage;
+    private final long discountBasisPoints;
     
     PaymentMethod(String displayName, double discountPercentage) {
         this.displayName = displayName;
         this.discountPercentage = discountPercentage;
+        this.discountBasisPoints = Money.basisPoints(discountPercentage);
     }
     
     public String getDisplayName() {
@@ -22,4 +24,8 @@ public enum PaymentMethod {
     public double getDiscountPercentage() {
         return discountPercentage;
     }
+    
+    public long getDiscountBasisPoints() {
+        return discountBasisPoints;
+    }
 }
@@ -6,6 +6,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalTime;
 import java.util.List;
 
 @Data
@@ -34,6 +36,17 @@ public class Promotion {
     
     private boolean active = true;
     
+    // Dos promociones que comparten un grupo no se combinan; sin grupos se suma con todas
+    private List<String> exclusivityGroups;
+    
+    // Vigencia: desde startsAt (inclusive) hasta endsAt (exclusivo); null = sin límite
+    private Instant startsAt;
+    private Instant endsAt;
+    
+    // Horario diario opcional en la zona de checkout.promotions.time-zone; si termina antes de empezar cruza la medianoche
+    private LocalTime dailyStartTime;
+    private LocalTime dailyEndTime;
+    
     public enum PromotionType {
         PERCENTAGE_DISCOUNT,    // 20% de descuento
         FIXED_AMOUNT_DISCOUNT, // $9000 CLP de descuento
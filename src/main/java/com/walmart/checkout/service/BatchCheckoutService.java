@@ -0,0 +1,199 @@
+package com.walmart.checkout.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.walmart.checkout.model.BatchCheckoutRecord;
+import com.walmart.checkout.model.CheckoutResult;
+import com.walmart.checkout.model.ShoppingCart;
+import com.walmart.checkout.model.ShoppingCartRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+@Service
+public class BatchCheckoutService {
+    
+    private static final byte[] NEWLINE = {'\n'};
+    
+    @Autowired
+    private CheckoutService checkoutService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private IdGenerator idGenerator;
+    
+    // Carritos en proceso simultáneamente (cálculo de precios + pago)
+    @Value("${checkout.batch.parallelism:256}")
+    private int parallelism;
+    
+    private final AtomicInteger threadCounter = new AtomicInteger();
+    private final ExecutorService pricingExecutor = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), runnable -> {
+                Thread thread = new Thread(runnable, "batch-checkout-" + threadCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    
+    @PostConstruct
+    void validateParallelism() {
+        // Con menos de un carrito en vuelo el lote esperaría para siempre
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("checkout.batch.parallelism must be at least 1");
+        }
+    }
+    
+    public void processBatch(InputStream input, OutputStream output) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        ObjectReader requestReader = objectMapper.readerFor(ShoppingCartRequest.class);
+        ObjectWriter recordWriter = objectMapper.writerFor(BatchCheckoutRecord.class);
+        BlockingQueue<BatchCheckoutRecord> completed = new LinkedBlockingQueue<>();
+        
+        long lineNumber = 0;
+        int inFlight = 0;
+        String line;
+        
+        try {
+            // Toda la E/S ocurre en este hilo; los carritos se procesan en paralelo
+            // y la memoria queda acotada por el número de carritos en vuelo
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                
+                while (inFlight >= parallelism) {
+                    write(recordWriter, completed.take(), output);
+                    inFlight--;
+                }
+                
+                submit(requestReader, lineNumber, line).thenAccept(completed::add);
+                inFlight++;
+                
+                inFlight -= writeCompleted(recordWriter, completed, output);
+            }
+            
+            while (inFlight > 0) {
+                output.flush();
+                write(recordWriter, completed.take(), output);
+                inFlight--;
+                inFlight -= writeCompleted(recordWriter, completed, output);
+            }
+            output.flush();
+        
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Batch checkout interrupted at line " + lineNumber);
+        }
+    }
+    
+    private CompletableFuture<BatchCheckoutRecord> submit(ObjectReader requestReader, long lineNumber, String line) {
+        return CompletableFuture
+                .supplyAsync(() -> parseRequest(requestReader, line), pricingExecutor)
+                .thenCompose(request -> checkout(lineNumber, request))
+                .exceptionally(error -> failure(lineNumber, null, error));
+    }
+    
+    private ShoppingCartRequest parseRequest(ObjectReader requestReader, String line) {
+        try {
+            return requestReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+    
+    private CompletableFuture<BatchCheckoutRecord> checkout(long lineNumber, ShoppingCartRequest request) {
+        String cartId = request.getCartId();
+        try {
+            Set<ConstraintViolation<ShoppingCartRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                throw new IllegalArgumentException("Validation failed: " + violations.stream()
+                        .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+            }
+            
+            ShoppingCart cart = checkoutService.convertToShoppingCart(request);
+            if (cart.getCartId() == null || cart.getCartId().isEmpty()) {
+                cart.setCartId(idGenerator.nextId());
+            }
+            
+            return checkoutService.processCheckoutAsync(cart)
+                    .handle((result, error) -> error == null
+                            ? success(lineNumber, cart.getCartId(), result)
+                            : failure(lineNumber, cart.getCartId(), error));
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(failure(lineNumber, cartId, e));
+        }
+    }
+    
+    private BatchCheckoutRecord success(long lineNumber, String cartId, CheckoutResult result) {
+        return BatchCheckoutRecord.builder()
+                .line(lineNumber)
+                .cartId(cartId)
+                .status("OK")
+                .result(result)
+                .build();
+    }
+    
+    private BatchCheckoutRecord failure(long lineNumber, String cartId, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return BatchCheckoutRecord.builder()
+                .line(lineNumber)
+                .cartId(cartId)
+                .status("ERROR")
+                .error(cause.getMessage())
+                .build();
+    }
+    
+    private int writeCompleted(ObjectWriter recordWriter, BlockingQueue<BatchCheckoutRecord> completed,
+                               OutputStream output) throws IOException {
+        int written = 0;
+        BatchCheckoutRecord record;
+        while ((record = completed.poll()) != null) {
+            write(recordWriter, record, output);
+            written++;
+        }
+        if (written > 0) {
+            output.flush();
+        }
+        return written;
+    }
+    
+    private void write(ObjectWriter recordWriter, BatchCheckoutRecord record, OutputStream output) throws IOException {
+        output.write(recordWriter.writeValueAsBytes(record));
+        output.write(NEWLINE);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        pricingExecutor.shutdownNow();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,349 @@
+package com.walmart.checkout.service;
+
+import com.walmart.checkout.model.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Carritos guardados en el servidor que se editan línea por línea. Cada sesión
+ * conserva sus líneas ya calculadas y los totales acumulados: un cambio vuelve
+ * a calcular solo la línea del SKU tocado y los descuentos de carrito (compra
+ * mínima y método de pago). Si cambian las promociones o el catálogo, la
+ * próxima operación recalcula todas las líneas. Con promociones exclusivas la
+ * elección de la mejor combinación se hace sobre todo el carrito al responder.
+ */
+@Service
+public class CartSessionService {
+    
+    private static final int DEFAULT_MAX_SESSIONS = 100_000;
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(30);
+    
+    @Autowired
+    private DiscountService discountService;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private PromotionService promotionService;
+    
+    @Autowired
+    private IdGenerator idGenerator;
+    
+    @Autowired
+    private CheckoutMetrics checkoutMetrics;
+    
+    private final ExpiringCache<String, CartSession> sessions;
+    
+    public CartSessionService() {
+        this(DEFAULT_MAX_SESSIONS, DEFAULT_TTL);
+    }
+    
+    @Autowired
+    public CartSessionService(@Value("${checkout.cart.max-sessions:100000}") int maxSessions,
+                              @Value("${checkout.cart.ttl:30m}") Duration ttl) {
+        this.sessions = new ExpiringCache<>(maxSessions, ttl);
+    }
+    
+    public ShoppingCart create(PaymentMethod paymentMethod, List<CartItemRequest> items) {
+        if (paymentMethod == null) {
+            throw new IllegalArgumentException("Payment method is required");
+        }
+        CartSession session = new CartSession(idGenerator.nextId(), paymentMethod);
+        synchronized (session) {
+            if (items != null) {
+                for (CartItemRequest item : items) {
+                    int quantity = requireQuantity(item.getQuantity(), 1);
+                    Line existing = session.lines.get(requireSku(item.getSku()));
+                    setLine(session, item.getSku(), existing != null ? addQuantity(existing, quantity) : quantity);
+                }
+            }
+            sessions.putIfAbsent(session.cartId, session);
+            return session.toShoppingCart();
+        }
+    }
+    
+    public Optional<ShoppingCart> get(String cartId) {
+        return update(cartId, session -> { });
+    }
+    
+    // Suma la cantidad a la línea del SKU (la crea si no existe)
+    public Optional<ShoppingCart> addItem(String cartId, String sku, Integer quantity) {
+        int added = requireQuantity(quantity, 1);
+        return update(cartId, session -> {
+            Line existing = session.lines.get(requireSku(sku));
+            setLine(session, sku, existing != null ? addQuantity(existing, added) : added);
+        });
+    }
+    
+    // Fija la cantidad de la línea; 0 la elimina
+    public Optional<ShoppingCart> updateItem(String cartId, String sku, Integer quantity) {
+        int updated = requireQuantity(quantity, 0);
+        return update(cartId, session -> setLine(session, requireSku(sku), updated));
+    }
+    
+    public Optional<ShoppingCart> removeItem(String cartId, String sku) {
+        return update(cartId, session -> setLine(session, requireSku(sku), 0));
+    }
+    
+    public Optional<ShoppingCart> changePaymentMethod(String cartId, PaymentMethod paymentMethod) {
+        if (paymentMethod == null) {
+            throw new IllegalArgumentException("Payment method is required");
+        }
+        // Solo cambian los descuentos de carrito, que se calculan al armar la respuesta
+        return update(cartId, session -> {
+            session.paymentMethod = paymentMethod;
+            session.updatedAt = LocalDateTime.now();
+        });
+    }
+    
+    public boolean delete(String cartId) {
+        CartSession session = sessions.get(cartId);
+        return session != null && sessions.remove(cartId, session);
+    }
+    
+    public int getSessionCount() {
+        return sessions.size();
+    }
+    
+    private Optional<ShoppingCart> update(String cartId, SessionChange change) {
+        CartSession session = cartId != null ? sessions.get(cartId) : null;
+        if (session == null) {
+            return Optional.empty();
+        }
+        synchronized (session) {
+            repriceIfStale(session);
+            change.apply(session);
+            sessions.touch(cartId, session);
+            return Optional.of(session.toShoppingCart());
+        }
+    }
+    
+    private void repriceIfStale(CartSession session) {
+        long promotionVersion = promotionService.getPromotionVersion();
+        long catalogVersion = productService.getCatalogVersion();
+        if (promotionVersion == session.promotionVersion && catalogVersion == session.catalogVersion) {
+            return;
+        }
+        boolean catalogChanged = catalogVersion != session.catalogVersion;
+        
+        // Se recalcula aparte y se publica al final: si algo falla la sesión queda como estaba y sigue desactualizada
+        Map<String, Line> repriced = new LinkedHashMap<>();
+        long subtotal = Money.ZERO;
+        long lineDiscounts = Money.ZERO;
+        for (Map.Entry<String, Line> entry : session.lines.entrySet()) {
+            Product product = catalogChanged
+                    ? productService.findById(entry.getKey()).orElse(null)
+                    : entry.getValue().item.getProduct();
+            // Un SKU que salió del catálogo deja de estar en el carrito
+            if (product == null) {
+                continue;
+            }
+            Line line = priceLine(product, entry.getValue().item.getQuantity());
+            repriced.put(entry.getKey(), line);
+            subtotal = Money.add(subtotal, line.subtotal);
+            lineDiscounts = Money.add(lineDiscounts, line.discount);
+        }
+        
+        session.lines.clear();
+        session.lines.putAll(repriced);
+        session.subtotal = subtotal;
+        session.lineDiscounts = lineDiscounts;
+        session.promotionVersion = promotionVersion;
+        session.catalogVersion = catalogVersion;
+    }
+    
+    private void setLine(CartSession session, String sku, int quantity) {
+        Line previous = session.lines.get(sku);
+        if (quantity == 0) {
+            if (previous != null) {
+                session.replace(previous, null);
+                session.lines.remove(sku);
+                session.updatedAt = LocalDateTime.now();
+            }
+            return;
+        }
+        Product product = previous != null
+                ? previous.item.getProduct()
+                : productService.findById(sku)
+                        .orElseThrow(() -> new IllegalArgumentException("Product not found with SKU: " + sku));
+        Line line = priceLine(product, quantity);
+        session.replace(previous, line);
+        session.lines.put(sku, line);
+        session.updatedAt = LocalDateTime.now();
+    }
+    
+    private Line priceLine(Product product, int quantity) {
+        CartItem item = CartItem.builder()
+                .product(product)
+                .quantity(quantity)
+                .build();
+        List<AppliedDiscount> discounts = discountService.calculateProductDiscounts(item);
+        
+        long discount = Money.ZERO;
+        for (AppliedDiscount applied : discounts) {
+            discount = Money.add(discount, applied.getAmount());
+        }
+        long subtotal = item.calculateSubtotal();
+        item.setItemSubtotal(Money.toBigDecimal(subtotal));
+        item.setItemDiscount(Money.toBigDecimal(discount));
+        item.setItemTotal(Money.toBigDecimal(Money.subtract(subtotal, discount)));
+        
+        return new Line(item, subtotal, discount, discounts);
+    }
+    
+    private static int addQuantity(Line line, int quantity) {
+        try {
+            return Math.addExact(line.item.getQuantity(), quantity);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Quantity too large for SKU: " + line.item.getProduct().getId());
+        }
+    }
+    
+    private static int requireQuantity(Integer quantity, int minimum) {
+        if (quantity == null || quantity < minimum) {
+            throw new IllegalArgumentException("Quantity must be at least " + minimum);
+        }
+        return quantity;
+    }
+    
+    private static String requireSku(String sku) {
+        if (sku == null || sku.isBlank()) {
+            throw new IllegalArgumentException("SKU is required");
+        }
+        return sku;
+    }
+    
+    private interface SessionChange {
+        void apply(CartSession session);
+    }
+    
+    // Línea calculada; el CartItem no se modifica después de publicarse
+    private static final class Line {
+        
+        private final CartItem item;
+        private final long subtotal;
+        private final long discount;
+        private final List<AppliedDiscount> discounts;
+        
+        private Line(CartItem item, long subtotal, long discount, List<AppliedDiscount> discounts) {
+            this.item = item;
+            this.subtotal = subtotal;
+            this.discount = discount;
+            this.discounts = discounts;
+        }
+    }
+    
+    // Estado de un carrito; protegido por el propio objeto
+    private final class CartSession {
+        
+        private final String cartId;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private LocalDateTime updatedAt = createdAt;
+        private final Map<String, Line> lines = new LinkedHashMap<>();
+        private PaymentMethod paymentMethod;
+        private long subtotal;
+        private long lineDiscounts;
+        private long promotionVersion;
+        private long catalogVersion;
+        
+        private CartSession(String cartId, PaymentMethod paymentMethod) {
+            this.cartId = cartId;
+            this.paymentMethod = paymentMethod;
+            // Las líneas nuevas se calculan con las versiones vigentes
+            this.promotionVersion = promotionService.getPromotionVersion();
+            this.catalogVersion = productService.getCatalogVersion();
+        }
+        
+        // Cambia una línea por otra en los totales; si el cálculo desborda los totales no cambian
+        private void replace(Line previous, Line line) {
+            long newSubtotal = subtotal;
+            long newLineDiscounts = lineDiscounts;
+            if (previous != null) {
+                newSubtotal = Money.subtract(newSubtotal, previous.subtotal);
+                newLineDiscounts = Money.subtract(newLineDiscounts, previous.discount);
+            }
+            if (line != null) {
+                newSubtotal = Money.add(newSubtotal, line.subtotal);
+                newLineDiscounts = Money.add(newLineDiscounts, line.discount);
+            }
+            subtotal = newSubtotal;
+            lineDiscounts = newLineDiscounts;
+        }
+        
+        // Copia para la respuesta: comparte los CartItem y descuentos, que no se modifican
+        private ShoppingCart toShoppingCart() {
+            // Las promociones exclusivas se eligen sobre el carrito completo con los descuentos ya calculados
+            PromotionSelection selection = null;
+            if (discountService.hasExclusivePromotions()) {
+                List<AppliedDiscount> lineDiscountList = new ArrayList<>();
+                for (Line line : lines.values()) {
+                    lineDiscountList.addAll(line.discounts);
+                }
+                selection = discountService.selectPromotions(lineDiscountList, subtotal);
+                checkoutMetrics.recordPromotionSelection(selection.isOptimal());
+            }
+            
+            List<CartItem> items = new ArrayList<>(lines.size());
+            List<AppliedDiscount> appliedDiscounts = new ArrayList<>();
+            long totalDiscounts = lineDiscounts;
+            for (Line line : lines.values()) {
+                if (selection == null || !selection.rejectsAny()) {
+                    items.add(line.item);
+                    appliedDiscounts.addAll(line.discounts);
+                    continue;
+                }
+                long discount = Money.ZERO;
+                for (AppliedDiscount applied : line.discounts) {
+                    if (selection.isApplied(applied)) {
+                        appliedDiscounts.add(applied);
+                        discount = Money.add(discount, applied.getAmount());
+                    }
+                }
+                totalDiscounts = Money.subtract(totalDiscounts, Money.subtract(line.discount, discount));
+                items.add(discount == line.discount ? line.item : CartItem.builder()
+                        .product(line.item.getProduct())
+                        .quantity(line.item.getQuantity())
+                        .itemSubtotal(line.item.getItemSubtotal())
+                        .itemDiscount(Money.toBigDecimal(discount))
+                        .itemTotal(Money.toBigDecimal(Money.subtract(line.subtotal, discount)))
+                        .build());
+            }
+            
+            AppliedDiscount minimumPurchaseDiscount = selection != null
+                    ? selection.getMinimumPurchaseDiscount()
+                    : discountService.calculateMinimumPurchaseDiscount(subtotal);
+            if (minimumPurchaseDiscount != null) {
+                appliedDiscounts.add(minimumPurchaseDiscount);
+                totalDiscounts = Money.add(totalDiscounts, minimumPurchaseDiscount.getAmount());
+            }
+            AppliedDiscount paymentMethodDiscount = discountService.calculatePaymentMethodDiscount(subtotal, paymentMethod);
+            if (paymentMethodDiscount != null) {
+                appliedDiscounts.add(paymentMethodDiscount);
+                totalDiscounts = Money.add(totalDiscounts, paymentMethodDiscount.getAmount());
+            }
+            
+            return ShoppingCart.builder()
+                    .cartId(cartId)
+                    .items(Collections.unmodifiableList(items))
+                    .paymentMethod(paymentMethod)
+                    .subtotal(Money.toBigDecimal(subtotal))
+                    .totalDiscounts(Money.toBigDecimal(totalDiscounts))
+                    .finalTotal(Money.toBigDecimal(Money.subtract(subtotal, totalDiscounts)))
+                    .appliedDiscounts(appliedDiscounts)
+                    .createdAt(createdAt)
+                    .updatedAt(updatedAt)
+                    .build();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.walmart.checkout.service;
+
+/**
+ * Respuesta de catálogo ya serializada (JSON, CBOR o Smile), sin comprimir y
+ * comprimida con gzip, junto con el ETag fuerte de cada representación.
+ */
+public final class CatalogSnapshot {
+    
+    private final long version;
+    private final byte[] body;
+    private final byte[] gzipBody;
+    private final String etag;
+    private final String gzipEtag;
+    
+    CatalogSnapshot(long version, byte[] body, byte[] gzipBody, String etag, String gzipEtag) {
+        this.version = version;
+        this.body = body;
+        this.gzipBody = gzipBody;
+        this.etag = etag;
+        this.gzipEtag = gzipEtag;
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    // Los arreglos se comparten entre requests: no modificar
+    public byte[] getBody() {
+        return body;
+    }
+    
+    public byte[] getGzipBody() {
+        return gzipBody;
+    }
+    
+    public String getEtag() {
+        return etag;
+    }
+    
+    public String getGzipEtag() {
+        return gzipEtag;
+    }
+}
\ No newline at end of file
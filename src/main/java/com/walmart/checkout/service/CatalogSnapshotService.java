@@ -0,0 +1,171 @@
+package com.walmart.checkout.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.walmart.checkout.model.PaymentMethod;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+public class CatalogSnapshotService {
+    
+    public enum CatalogView {
+        PRODUCTS,
+        PRODUCTS_GROUPED,
+        PAYMENT_METHODS
+    }
+    
+    public enum CatalogFormat {
+        JSON(MediaType.APPLICATION_JSON),
+        CBOR(MediaType.APPLICATION_CBOR),
+        SMILE(new MediaType("application", "x-jackson-smile"));
+        
+        private final MediaType mediaType;
+        
+        CatalogFormat(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+        
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+    }
+    
+    // Los métodos de pago son un enum: su versión no cambia en tiempo de ejecución
+    private static final long STATIC_VERSION = 0L;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // Los formatos binarios usan el mismo ObjectMapper que sus conversores HTTP
+    @Autowired(required = false)
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+    
+    @Autowired(required = false)
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+    
+    // Lecturas sin bloqueo; solo la regeneración se serializa
+    private final Map<CatalogFormat, Map<CatalogView, CatalogSnapshot>> snapshots = new EnumMap<>(CatalogFormat.class);
+    private final Object refreshLock = new Object();
+    
+    public CatalogSnapshotService() {
+        for (CatalogFormat format : CatalogFormat.values()) {
+            snapshots.put(format, new ConcurrentHashMap<>());
+        }
+    }
+    
+    public CatalogSnapshot getSnapshot(CatalogView view) {
+        return getSnapshot(view, CatalogFormat.JSON);
+    }
+    
+    public CatalogSnapshot getSnapshot(CatalogView view, CatalogFormat format) {
+        long version = currentVersion(view);
+        CatalogSnapshot snapshot = snapshots.get(format).get(view);
+        if (snapshot != null && snapshot.getVersion() == version) {
+            return snapshot;
+        }
+        return refresh(view, format);
+    }
+    
+    public boolean supports(CatalogFormat format) {
+        return mapper(format) != null;
+    }
+    
+    private CatalogSnapshot refresh(CatalogView view, CatalogFormat format) {
+        synchronized (refreshLock) {
+            // Otro hilo pudo regenerar la misma versión mientras esperábamos
+            long version = currentVersion(view);
+            Map<CatalogView, CatalogSnapshot> formatSnapshots = snapshots.get(format);
+            CatalogSnapshot snapshot = formatSnapshots.get(view);
+            if (snapshot == null || snapshot.getVersion() != version) {
+                snapshot = serialize(view, format, version);
+                formatSnapshots.put(view, snapshot);
+            }
+            return snapshot;
+        }
+    }
+    
+    private long currentVersion(CatalogView view) {
+        return view == CatalogView.PAYMENT_METHODS ? STATIC_VERSION : productService.getCatalogVersion();
+    }
+    
+    private CatalogSnapshot serialize(CatalogView view, CatalogFormat format, long version) {
+        ObjectMapper mapper = mapper(format);
+        if (mapper == null) {
+            throw new IllegalStateException("Catalog format " + format + " is not configured");
+        }
+        try {
+            byte[] body = mapper.writeValueAsBytes(content(view));
+            byte[] gzipBody = gzip(body);
+            String digest = DigestUtils.md5DigestAsHex(body);
+            // ETag fuerte distinto por codificación: los bytes enviados difieren
+            return new CatalogSnapshot(version, body, gzipBody, "\"" + digest + "\"", "\"" + digest + "-gzip\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize catalog view " + view + " as " + format, e);
+        }
+    }
+    
+    private ObjectMapper mapper(CatalogFormat format) {
+        switch (format) {
+            case CBOR:
+                return cborConverter != null ? cborConverter.getObjectMapper() : null;
+            case SMILE:
+                return smileConverter != null ? smileConverter.getObjectMapper() : null;
+            default:
+                return objectMapper;
+        }
+    }
+    
+    private Object content(CatalogView view) {
+        switch (view) {
+            case PRODUCTS:
+                return productService.getAllProducts();
+            case PRODUCTS_GROUPED:
+                return productService.getProductsGroupedByCategory();
+            default:
+                return paymentMethods();
+        }
+    }
+    
+    private List<Map<String, Object>> paymentMethods() {
+        List<Map<String, Object>> methods = new ArrayList<>();
+        
+        for (PaymentMethod method : PaymentMethod.values()) {
+            Map<String, Object> methodInfo = new HashMap<>();
+            methodInfo.put("name", method.name());
+            methodInfo.put("displayName", method.getDisplayName());
+            methodInfo.put("discountPercentage", method.getDiscountPercentage());
+            methods.add(methodInfo);
+        }
+        
+        return methods;
+    }
+    
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,142 @@
+package com.walmart.checkout.service;
+
+import com.walmart.checkout.model.CartItemRequest;
+import com.walmart.checkout.model.CheckoutResult;
+import com.walmart.checkout.model.ShippingAddress;
+import com.walmart.checkout.model.ShoppingCartRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+@Service
+public class CheckoutIdempotencyService {
+    
+    private static final int DEFAULT_MAX_ENTRIES = 100_000;
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+    
+    private static final Comparator<CartItemRequest> CANONICAL_ORDER = Comparator
+            .comparing(CartItemRequest::getSku)
+            .thenComparing(CartItemRequest::getQuantity);
+    
+    // Se guarda el future y no el resultado: los duplicados concurrentes esperan al mismo cálculo
+    private final ExpiringCache<String, Entry> checkouts;
+    
+    public CheckoutIdempotencyService() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL);
+    }
+    
+    @Autowired
+    public CheckoutIdempotencyService(@Value("${checkout.idempotency.max-entries:100000}") int maxEntries,
+                                      @Value("${checkout.idempotency.ttl:10m}") Duration ttl) {
+        this.checkouts = new ExpiringCache<>(maxEntries, ttl);
+    }
+    
+    public static String idempotencyKey(String idempotencyKeyHeader, String cartId) {
+        // Prefijos distintos para que un header y un cartId iguales no colisionen
+        if (idempotencyKeyHeader != null && !idempotencyKeyHeader.isBlank()) {
+            return "key:" + idempotencyKeyHeader;
+        }
+        if (cartId != null && !cartId.isBlank()) {
+            return "cart:" + cartId;
+        }
+        return null;
+    }
+    
+    /**
+     * Ejecuta el checkout una sola vez por clave. Un reintento con la misma clave
+     * recibe el resultado original solo si trae el mismo carrito; si el carrito
+     * cambió se rechaza con {@link IdempotencyConflictException}.
+     */
+    public CompletableFuture<CheckoutResult> execute(String key, ShoppingCartRequest request,
+                                                     Supplier<CompletableFuture<CheckoutResult>> checkout) {
+        if (key == null) {
+            return checkout.get();
+        }
+        
+        CompletableFuture<CheckoutResult> pending = new CompletableFuture<>();
+        Entry entry = new Entry(fingerprint(request), pending);
+        Entry existing = checkouts.putIfAbsent(key, entry);
+        if (existing != null) {
+            if (!existing.fingerprint.equals(entry.fingerprint)) {
+                throw new IdempotencyConflictException("Idempotency key already used for a different cart");
+            }
+            return existing.checkout;
+        }
+        
+        try {
+            checkout.get().whenComplete((result, error) -> {
+                // Errores y pagos rechazados no cobraron nada: un reintento debe volver a procesarse
+                if (error != null || "FAILED".equals(result.getPaymentStatus())) {
+                    checkouts.remove(key, entry);
+                }
+                if (error != null) {
+                    pending.completeExceptionally(error);
+                } else {
+                    pending.complete(result);
+                }
+            });
+        } catch (RuntimeException e) {
+            checkouts.remove(key, entry);
+            pending.completeExceptionally(e);
+            throw e;
+        }
+        return pending;
+    }
+    
+    // Forma canónica de la solicitud: el orden de las líneas no la cambia
+    static String fingerprint(ShoppingCartRequest request) {
+        List<CartItemRequest> items = new ArrayList<>(request.getItems());
+        items.sort(CANONICAL_ORDER);
+        
+        StringBuilder fingerprint = new StringBuilder(64 + items.size() * 16);
+        append(fingerprint, request.getCartId());
+        append(fingerprint, String.valueOf(request.getPaymentMethod()));
+        ShippingAddress address = request.getShippingAddress();
+        if (address != null) {
+            append(fingerprint, address.getStreet());
+            append(fingerprint, address.getCity());
+            append(fingerprint, address.getZoneId());
+        }
+        for (CartItemRequest item : items) {
+            append(fingerprint, item.getSku());
+            fingerprint.append('x').append(item.getQuantity());
+        }
+        return fingerprint.toString();
+    }
+    
+    private static void append(StringBuilder fingerprint, String value) {
+        // El largo como prefijo evita ambigüedades sin escapar caracteres
+        fingerprint.append('|');
+        if (value != null) {
+            fingerprint.append(value.length()).append(':').append(value);
+        }
+    }
+    
+    /**
+     * La clave de idempotencia ya se usó para un carrito distinto.
+     */
+    public static class IdempotencyConflictException extends RuntimeException {
+        
+        public IdempotencyConflictException(String message) {
+            super(message);
+        }
+    }
+    
+    private static final class Entry {
+        
+        private final String fingerprint;
+        private final CompletableFuture<CheckoutResult> checkout;
+        
+        private Entry(String fingerprint, CompletableFuture<CheckoutResult> checkout) {
+            this.fingerprint = fingerprint;
+            this.checkout = checkout;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,431 @@
+package com.walmart.checkout.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.walmart.checkout.model.CheckoutResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Journal append-only de los checkouts completados. Cada registro es
+ * {@code [largo][crc32c][CheckoutResult en JSON]} y se escribe en segmentos
+ * {@code checkout-NNNNNNNNNNNNNNNNNNNN.journal} a través de un {@link FileChannel}.
+ *
+ * <p>Un único hilo escritor toma todos los registros pendientes, los escribe
+ * con una sola escritura y, con la política {@code BATCH}, comparte un
+ * {@code force()} entre todos ellos (group commit). Con {@code PERIODIC} el
+ * registro se confirma al escribirlo y el {@code force()} ocurre cada
+ * {@code fsync-interval}. Al arrancar se recorren los segmentos existentes y
+ * se abre uno nuevo, así que una cola truncada por un corte no se sobrescribe.
+ * Por lo mismo, si una escritura o un {@code force()} falla el segmento se
+ * abandona y el lote siguiente va a uno nuevo: detrás de un registro cortado
+ * la lectura no vería nada más.
+ */
+@Service
+public class CheckoutJournal {
+    
+    public enum FsyncPolicy {
+        BATCH,
+        PERIODIC
+    }
+    
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int MAX_RECORDS_PER_WRITE = 4096;
+    private static final String SEGMENT_PREFIX = "checkout-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final long MAX_SEGMENT_SIZE = 1L << 30;
+    
+    private final boolean enabled;
+    private final Path directory;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalNanos;
+    private final long segmentSize;
+    private final ObjectMapper objectMapper;
+    private final SegmentOpener segmentOpener;
+    
+    private final DistributionSummary groupCommitSize;
+    private final Counter failures;
+    
+    private final BlockingQueue<PendingRecord> pending = new LinkedBlockingQueue<>();
+    private Thread writer;
+    private volatile boolean running;
+    private long recoveredRecords;
+    
+    // Estado del segmento actual; solo lo toca el hilo escritor
+    private long nextSegment;
+    private FileChannel segment;
+    private long segmentPosition;
+    private boolean unsynced;
+    private long lastForce;
+    
+    public CheckoutJournal() {
+        // Fuera de Spring el journal queda deshabilitado
+        this(false, "journal", FsyncPolicy.BATCH, Duration.ofMillis(100), DataSize.ofMegabytes(64),
+                new ObjectMapper(), new CompositeMeterRegistry());
+    }
+    
+    @Autowired
+    public CheckoutJournal(@Value("${checkout.journal.enabled:false}") boolean enabled,
+                           @Value("${checkout.journal.directory:journal}") String directory,
+                           @Value("${checkout.journal.fsync:batch}") FsyncPolicy fsyncPolicy,
+                           @Value("${checkout.journal.fsync-interval:100ms}") Duration fsyncInterval,
+                           @Value("${checkout.journal.segment-size:64MB}") DataSize segmentSize,
+                           ObjectMapper objectMapper,
+                           MeterRegistry registry) {
+        this(enabled, directory, fsyncPolicy, fsyncInterval, segmentSize, objectMapper, registry,
+                file -> FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE));
+    }
+    
+    CheckoutJournal(boolean enabled, String directory, FsyncPolicy fsyncPolicy, Duration fsyncInterval,
+                    DataSize segmentSize, ObjectMapper objectMapper, MeterRegistry registry,
+                    SegmentOpener segmentOpener) {
+        if (segmentSize.toBytes() < RECORD_HEADER_SIZE || segmentSize.toBytes() > MAX_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("checkout.journal.segment-size must be between 8B and 1GB");
+        }
+        if (fsyncInterval.isNegative() || fsyncInterval.isZero()) {
+            throw new IllegalArgumentException("checkout.journal.fsync-interval must be positive");
+        }
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+        this.segmentSize = segmentSize.toBytes();
+        this.objectMapper = objectMapper;
+        this.segmentOpener = segmentOpener;
+        
+        this.groupCommitSize = DistributionSummary.builder("checkout.journal.group.size")
+                .description("Checkout records written per journal write (and per fsync with the batch policy)")
+                .baseUnit("records")
+                .register(registry);
+        this.failures = Counter.builder("checkout.journal.failures")
+                .description("Checkout records that could not be written to the journal")
+                .register(registry);
+        
+        if (enabled) {
+            start();
+        }
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public long getRecoveredRecordCount() {
+        return recoveredRecords;
+    }
+    
+    /**
+     * Agrega el resultado al journal. El futuro se completa cuando el registro
+     * es durable según la política configurada, o con la falla de escritura.
+     */
+    public CompletableFuture<Void> append(CheckoutResult result) {
+        if (!running) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Checkout journal is not running"));
+        }
+        
+        // Serializar y calcular el CRC en el hilo que llama (request o pool de pricing), no en el escritor
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(result);
+        } catch (JsonProcessingException e) {
+            failures.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.length)
+                .putInt(payload.length)
+                .putInt((int) crc.getValue())
+                .put(payload);
+        record.flip();
+        
+        PendingRecord pendingRecord = new PendingRecord(record);
+        pending.add(pendingRecord);
+        // Si el escritor terminó entre la verificación y el add, nadie lo sacaría de la cola
+        if (!running && pending.remove(pendingRecord)) {
+            pendingRecord.durable.completeExceptionally(new IllegalStateException("Checkout journal is not running"));
+        }
+        return pendingRecord.durable;
+    }
+    
+    /**
+     * Recorre los registros válidos de todos los segmentos en orden y entrega
+     * el JSON de cada uno. Un segmento se lee hasta el primer registro
+     * incompleto o con CRC inválido (escritura cortada por una caída).
+     *
+     * @return la cantidad de registros leídos
+     */
+    public static long scan(Path directory, Consumer<ByteBuffer> records) throws IOException {
+        long count = 0;
+        for (Path segmentFile : segments(directory)) {
+            try (FileChannel channel = FileChannel.open(segmentFile, StandardOpenOption.READ)) {
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                CRC32C crc = new CRC32C();
+                while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+                    int length = buffer.getInt(buffer.position());
+                    int checksum = buffer.getInt(buffer.position() + 4);
+                    if (length <= 0 || length > buffer.remaining() - RECORD_HEADER_SIZE) {
+                        break;
+                    }
+                    ByteBuffer payload = buffer.slice(buffer.position() + RECORD_HEADER_SIZE, length).asReadOnlyBuffer();
+                    crc.reset();
+                    crc.update(payload.duplicate());
+                    if ((int) crc.getValue() != checksum) {
+                        break;
+                    }
+                    records.accept(payload);
+                    count++;
+                    buffer.position(buffer.position() + RECORD_HEADER_SIZE + length);
+                }
+            }
+        }
+        return count;
+    }
+    
+    private void start() {
+        try {
+            Files.createDirectories(directory);
+            recoveredRecords = scan(directory, record -> {
+            });
+            List<Path> existing = segments(directory);
+            nextSegment = existing.isEmpty() ? 0 : segmentNumber(existing.get(existing.size() - 1)) + 1;
+            openNextSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open checkout journal in " + directory, e);
+        }
+        
+        running = true;
+        writer = new Thread(this::writeLoop, "checkout-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+    
+    private void writeLoop() {
+        List<PendingRecord> batch = new ArrayList<>(MAX_RECORDS_PER_WRITE);
+        lastForce = System.nanoTime();
+        Throwable failure = null;
+        
+        try {
+            while (running || !pending.isEmpty()) {
+                try {
+                    PendingRecord first = fsyncPolicy == FsyncPolicy.PERIODIC
+                            ? pending.poll(fsyncIntervalNanos, TimeUnit.NANOSECONDS)
+                            : pending.poll(100, TimeUnit.MILLISECONDS);
+                    if (first != null) {
+                        // Todo lo que llegó mientras se escribía el lote anterior viaja junto
+                        batch.add(first);
+                        pending.drainTo(batch, MAX_RECORDS_PER_WRITE - 1);
+                        writeBatch(batch);
+                        batch.clear();
+                    } else if (unsynced) {
+                        force();
+                    }
+                } catch (InterruptedException e) {
+                    running = false;
+                } catch (IOException e) {
+                    // Falló el fsync periódico: los registros siguientes van a un segmento nuevo
+                    failures.increment();
+                    abandonSegment();
+                }
+            }
+            closeSegment();
+        } catch (IOException e) {
+            // Falló el fsync o el cierre del último segmento
+            failure = e;
+            failures.increment();
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            // Sin escritor no se aceptan más registros y nadie completaría los que esperan
+            running = false;
+            IllegalStateException stopped = new IllegalStateException("Checkout journal writer stopped", failure);
+            for (PendingRecord record : batch) {
+                record.durable.completeExceptionally(stopped);
+            }
+            failPending(stopped);
+        }
+    }
+    
+    private void writeBatch(List<PendingRecord> batch) {
+        groupCommitSize.record(batch.size());
+        // Registros del lote ya confirmados: una falla posterior no los afecta
+        int completed = 0;
+        try {
+            if (segment == null) {
+                openNextSegment();
+            }
+            int start = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                long recordSize = batch.get(i).record.remaining();
+                if (segmentPosition > 0 && segmentPosition + recordSize > segmentSize) {
+                    write(batch, start, i);
+                    force();
+                    // Ya son durables en el segmento anterior aunque falle abrir el siguiente
+                    complete(batch, start, i);
+                    completed = i;
+                    closeSegment();
+                    openNextSegment();
+                    start = i;
+                }
+                segmentPosition += recordSize;
+            }
+            write(batch, start, batch.size());
+            
+            if (fsyncPolicy == FsyncPolicy.BATCH || System.nanoTime() - lastForce >= fsyncIntervalNanos) {
+                force();
+            }
+            complete(batch, start, batch.size());
+        } catch (IOException e) {
+            failures.increment(batch.size() - completed);
+            for (int i = completed; i < batch.size(); i++) {
+                batch.get(i).durable.completeExceptionally(e);
+            }
+            // El segmento puede terminar en un registro cortado
+            abandonSegment();
+        }
+    }
+    
+    private static void complete(List<PendingRecord> batch, int from, int to) {
+        for (int i = from; i < to; i++) {
+            batch.get(i).durable.complete(null);
+        }
+    }
+    
+    private void write(List<PendingRecord> batch, int from, int to) throws IOException {
+        ByteBuffer[] buffers = new ByteBuffer[to - from];
+        for (int i = from; i < to; i++) {
+            buffers[i - from] = batch.get(i).record;
+        }
+        // Escritura agrupada: un llamado al sistema por lote mientras el canal acepte todo
+        int offset = 0;
+        while (offset < buffers.length) {
+            segment.write(buffers, offset, buffers.length - offset);
+            while (offset < buffers.length && !buffers[offset].hasRemaining()) {
+                offset++;
+            }
+        }
+        unsynced = true;
+    }
+    
+    private void force() throws IOException {
+        segment.force(false);
+        unsynced = false;
+        lastForce = System.nanoTime();
+    }
+    
+    private void openNextSegment() throws IOException {
+        Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSegment++, SEGMENT_SUFFIX));
+        segment = segmentOpener.open(file);
+        segmentPosition = 0;
+    }
+    
+    private void closeSegment() throws IOException {
+        if (segment == null) {
+            return;
+        }
+        FileChannel closing = segment;
+        segment = null;
+        try {
+            if (unsynced) {
+                closing.force(false);
+                unsynced = false;
+            }
+        } finally {
+            closing.close();
+        }
+    }
+    
+    // Cierra el segmento sin más escrituras; el próximo lote abre uno nuevo
+    private void abandonSegment() {
+        FileChannel abandoned = segment;
+        segment = null;
+        unsynced = false;
+        if (abandoned != null) {
+            try {
+                abandoned.close();
+            } catch (IOException e) {
+                // Ya contado como falla de escritura
+            }
+        }
+    }
+    
+    private void failPending(Exception error) {
+        PendingRecord record;
+        while ((record = pending.poll()) != null) {
+            record.durable.completeExceptionally(error);
+        }
+    }
+    
+    private static List<Path> segments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            files.forEach(segments::add);
+        }
+        // Los números de segmento tienen ancho fijo: el orden alfabético es el cronológico
+        segments.sort(null);
+        return segments;
+    }
+    
+    private static long segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+    
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        // El escritor vacía la cola pendiente antes de cerrar el segmento
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        
+        // Registros que llegaron después de que el escritor terminó
+        failPending(new IllegalStateException("Checkout journal is shut down"));
+    }
+    
+    // Abre un segmento nuevo para escritura; los tests lo reemplazan para simular fallas de disco
+    interface SegmentOpener {
+        FileChannel open(Path file) throws IOException;
+    }
+    
+    private static final class PendingRecord {
+        
+        private final ByteBuffer record;
+        private final CompletableFuture<Void> durable = new CompletableFuture<>();
+        
+        private PendingRecord(ByteBuffer record) {
+            this.record = record;
+        }
+    }
+}
\ No newline at end of file
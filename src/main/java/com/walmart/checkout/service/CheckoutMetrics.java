@@ -0,0 +1,112 @@
+package com.walmart.checkout.service;
+
+import com.walmart.checkout.model.AppliedDiscount;
+import com.walmart.checkout.model.PaymentMethod;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas del pipeline de checkout. Los medidores se registran una sola vez
+ * y se reutilizan, así que medir una etapa en el camino crítico cuesta una
+ * lectura de {@link System#nanoTime()} y una actualización del timer.
+ */
+@Component
+public class CheckoutMetrics {
+    
+    public enum Stage {
+        CART_CONVERSION("cart_conversion"),
+        PRODUCT_DISCOUNTS("product_discounts"),
+        CART_DISCOUNTS("cart_discounts"),
+        PAYMENT("payment"),
+        SUMMARY("summary"),
+        JOURNAL("journal");
+        
+        private final String tag;
+        
+        Stage(String tag) {
+            this.tag = tag;
+        }
+    }
+    
+    private final MeterRegistry registry;
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Map<PaymentMethod, Map<String, Counter>> checkoutCounters = new EnumMap<>(PaymentMethod.class);
+    
+    // Acotado por el número de promociones configuradas
+    private final Map<String, Counter> promotionCounters = new ConcurrentHashMap<>();
+    
+    private final Counter optimalSelections;
+    private final Counter truncatedSelections;
+    
+    @Autowired
+    public CheckoutMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("checkout.stage")
+                    .description("Time spent in each checkout stage")
+                    .tag("stage", stage.tag)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(1_000))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(registry));
+        }
+        for (PaymentMethod paymentMethod : PaymentMethod.values()) {
+            checkoutCounters.put(paymentMethod, new ConcurrentHashMap<>());
+        }
+        this.optimalSelections = selectionCounter("optimal");
+        this.truncatedSelections = selectionCounter("budget_exceeded");
+    }
+    
+    public long start() {
+        return System.nanoTime();
+    }
+    
+    public void record(Stage stage, long startNanos) {
+        stageTimers.get(stage).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    // Elecciones de promociones exclusivas: óptimas o cortadas por el presupuesto de tiempo
+    public void recordPromotionSelection(boolean optimal) {
+        (optimal ? optimalSelections : truncatedSelections).increment();
+    }
+    
+    public void recordCheckout(PaymentMethod paymentMethod, String paymentStatus, List<AppliedDiscount> discounts) {
+        if (paymentMethod != null) {
+            checkoutCounters.get(paymentMethod)
+                    .computeIfAbsent(paymentStatus, status -> Counter.builder("checkout.payments")
+                            .description("Checkouts processed per payment method and payment status")
+                            .tag("method", paymentMethod.name())
+                            .tag("status", status)
+                            .register(registry))
+                    .increment();
+        }
+        
+        for (AppliedDiscount discount : discounts) {
+            // Los descuentos por método de pago ya se cuentan en checkout.payments
+            if ("PROMOTION".equals(discount.getDiscountType())) {
+                promotionCounters.computeIfAbsent(discount.getDiscountId(), promotionId -> Counter.builder("checkout.promotions.applied")
+                                .description("Times each promotion was applied in a completed checkout")
+                                .tag("promotion", promotionId)
+                                .register(registry))
+                        .increment();
+            }
+        }
+    }
+    
+    private Counter selectionCounter(String result) {
+        return Counter.builder("checkout.promotions.selections")
+                .description("Exclusive promotion selections, by whether the search finished within its time budget")
+                .tag("result", result)
+                .register(registry);
+    }
+}
\ No newline at end of file
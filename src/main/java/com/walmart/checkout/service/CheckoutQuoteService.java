@@ -0,0 +1,103 @@
+package com.walmart.checkout.service;
+
+import com.walmart.checkout.model.CartItemRequest;
+import com.walmart.checkout.model.CheckoutQuote;
+import com.walmart.checkout.model.ShoppingCart;
+import com.walmart.checkout.model.ShoppingCartRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+public class CheckoutQuoteService {
+    
+    private static final int DEFAULT_MAX_ENTRIES = 50_000;
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+    
+    private static final Comparator<CartItemRequest> CANONICAL_ORDER = Comparator
+            .comparing(CartItemRequest::getSku)
+            .thenComparing(CartItemRequest::getQuantity);
+    
+    @Autowired
+    private CheckoutService checkoutService;
+    
+    @Autowired
+    private PromotionService promotionService;
+    
+    @Autowired
+    private ProductService productService;
+    
+    private final ExpiringCache<String, CheckoutQuote> quotes;
+    
+    // Versiones vigentes la última vez que se consultó la caché
+    private volatile long cachedPromotionVersion;
+    private volatile long cachedCatalogVersion;
+    
+    public CheckoutQuoteService() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL);
+    }
+    
+    @Autowired
+    public CheckoutQuoteService(@Value("${checkout.quote.max-entries:50000}") int maxEntries,
+                                @Value("${checkout.quote.ttl:5m}") Duration ttl) {
+        this.quotes = new ExpiringCache<>(maxEntries, ttl);
+    }
+    
+    public CheckoutQuote quote(ShoppingCartRequest request) {
+        long promotionVersion = promotionService.getPromotionVersion();
+        long catalogVersion = productService.getCatalogVersion();
+        invalidateIfStale(promotionVersion, catalogVersion);
+        
+        // El orden de las líneas no cambia el precio: el carrito se cotiza en forma canónica
+        List<CartItemRequest> items = new ArrayList<>(request.getItems());
+        items.sort(CANONICAL_ORDER);
+        
+        String fingerprint = fingerprint(items, request, promotionVersion, catalogVersion);
+        return quotes.computeIfAbsent(fingerprint, key -> {
+            ShoppingCart cart = checkoutService.convertToShoppingCart(
+                    new ShoppingCartRequest(null, items, null, request.getPaymentMethod()));
+            
+            CheckoutQuote quote = checkoutService.quote(cart);
+            quote.setPromotionVersion(promotionVersion);
+            quote.setCatalogVersion(catalogVersion);
+            return quote;
+        });
+    }
+    
+    public int getCachedQuoteCount() {
+        return quotes.size();
+    }
+    
+    private void invalidateIfStale(long promotionVersion, long catalogVersion) {
+        // Las claves ya incluyen las versiones; limpiar solo libera memoria de entradas inalcanzables
+        if (promotionVersion != cachedPromotionVersion || catalogVersion != cachedCatalogVersion) {
+            synchronized (this) {
+                if (promotionVersion != cachedPromotionVersion || catalogVersion != cachedCatalogVersion) {
+                    quotes.clear();
+                    cachedPromotionVersion = promotionVersion;
+                    cachedCatalogVersion = catalogVersion;
+                }
+            }
+        }
+    }
+    
+    static String fingerprint(List<CartItemRequest> sortedItems, ShoppingCartRequest request,
+                              long promotionVersion, long catalogVersion) {
+        StringBuilder fingerprint = new StringBuilder(32 + sortedItems.size() * 16)
+                .append(request.getPaymentMethod())
+                .append('|').append(promotionVersion)
+                .append('|').append(catalogVersion);
+        
+        for (CartItemRequest item : sortedItems) {
+            // El largo del SKU como prefijo evita ambigüedades sin escapar caracteres
+            fingerprint.append('|').append(item.getSku().length()).append(':').append(item.getSku())
+                    .append('x').append(item.getQuantity());
+        }
+        return fingerprint.toString();
+    }
+}
\ No newline at end of file
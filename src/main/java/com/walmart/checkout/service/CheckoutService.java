@@ -2,120 +2,401 @@ package com.walmart.checkout.service;
 
 import com.walmart.checkout.model.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PreDestroy;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
+import java.util.RandomAccess;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class CheckoutService {
     
+    private static final int DEFAULT_PARALLEL_PRICING_THRESHOLD = 2000;
+    private static final int MIN_PARALLEL_CHUNK_SIZE = 256;
+    private static final Duration DEFAULT_JOURNAL_TIMEOUT = Duration.ofSeconds(5);
+    
     @Autowired
     private DiscountService discountService;
     
     @Autowired
     private PaymentService paymentService;
     
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private CheckoutMetrics checkoutMetrics;
+    
+    @Autowired
+    private CheckoutJournal checkoutJournal;
+    
+    @Autowired
+    private IdGenerator idGenerator;
+    
+    // Desde esta cantidad de líneas el carrito se calcula en el pool de pricing
+    @Value("${checkout.pricing.parallel-threshold:2000}")
+    private int parallelPricingThreshold = DEFAULT_PARALLEL_PRICING_THRESHOLD;
+    
+    // Espera máxima por el journal antes de responder sin el registro confirmado
+    @Value("${checkout.journal.timeout:5s}")
+    private Duration journalTimeout = DEFAULT_JOURNAL_TIMEOUT;
+    
+    private final ForkJoinPool pricingPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("checkout-pricing-" + thread.getPoolIndex());
+        return thread;
+    }, null, false);
+    
+    public ShoppingCart convertToShoppingCart(ShoppingCartRequest request) {
+        long conversionStart = checkoutMetrics.start();
+        List<CartItem> cartItems = new ArrayList<>();
+        
+        // Convertir cada CartItemRequest a CartItem
+        for (CartItemRequest itemRequest : request.getItems()) {
+            // Encontrar producto por SKU
+            Product product = productService.findById(itemRequest.getSku())
+                    .orElseThrow(() -> new IllegalArgumentException("Product not found with SKU: " + itemRequest.getSku()));
+            
+            // Crear CartItem con datos completos del producto
+            CartItem cartItem = CartItem.builder()
+                    .product(product)
+                    .quantity(itemRequest.getQuantity())
+                    .build();
+            
+            cartItems.add(cartItem);
+        }
+        
+        ShoppingCart cart = ShoppingCart.builder()
+                .cartId(request.getCartId())
+                .items(cartItems)
+                .paymentMethod(request.getPaymentMethod())
+                .shippingAddress(request.getShippingAddress())
+                .build();
+        
+        checkoutMetrics.record(CheckoutMetrics.Stage.CART_CONVERSION, conversionStart);
+        return cart;
+    }
+    
     public CheckoutResult processCheckout(ShoppingCart cart) {
-        // Generar ID de transacción
-        String transactionId = UUID.randomUUID().toString();
+        return processCheckout(cart, false);
+    }
+    
+    public CheckoutResult processCheckout(ShoppingCart cart, boolean includeSummary) {
+        PricedCart pricedCart = priceCart(cart);
+        
+        // Procesar pago (simulado)
+        long paymentStart = checkoutMetrics.start();
+        String paymentStatus = paymentService.processPayment(pricedCart.finalTotal, cart.getPaymentMethod());
+        checkoutMetrics.record(CheckoutMetrics.Stage.PAYMENT, paymentStart);
+        
+        return journal(buildResult(cart, pricedCart, paymentStatus, includeSummary)).join();
+    }
+    
+    public CompletableFuture<CheckoutResult> processCheckoutAsync(ShoppingCart cart) {
+        return processCheckoutAsync(cart, false);
+    }
+    
+    public CompletableFuture<CheckoutResult> processCheckoutAsync(ShoppingCart cart, boolean includeSummary) {
+        PricedCart pricedCart = priceCart(cart);
+        
+        // El pago se completa de forma asíncrona, sin retener el hilo del request.
+        // El resultado se arma en el pool de pricing: el hilo que completa el pago es uno solo
+        long paymentStart = checkoutMetrics.start();
+        return paymentService.processPaymentAsync(pricedCart.finalTotal, cart.getPaymentMethod())
+                .thenApplyAsync(paymentStatus -> {
+                    checkoutMetrics.record(CheckoutMetrics.Stage.PAYMENT, paymentStart);
+                    return buildResult(cart, pricedCart, paymentStatus, includeSummary);
+                }, pricingPool)
+                .thenCompose(this::journal);
+    }
+    
+    /**
+     * Ajusta el resumen de texto a lo que pide el request. Un reintento
+     * idempotente puede pedirlo aunque el checkout original no lo haya hecho:
+     * se arma con los montos guardados, sin volver a cobrar.
+     */
+    public CheckoutResult withSummary(CheckoutResult result, boolean includeSummary) {
+        if (includeSummary == (result.getSummary() != null)) {
+            return result;
+        }
+        String summary = includeSummary
+                ? ReceiptSummaryFormatter.format(Money.of(result.getSubtotal()), result.getCart().getAppliedDiscounts(),
+                        Money.of(result.getTotalDiscounts()), Money.of(result.getFinalTotal()))
+                : null;
+        // Copia: el resultado guardado lo comparten todos los reintentos
+        return result.toBuilder().summary(summary).build();
+    }
+    
+    public CheckoutQuote quote(ShoppingCart cart) {
+        // Solo el pipeline de descuentos: sin pago ni ID de transacción
+        PricedCart pricedCart = priceCart(cart);
         
-        // Calcular subtotal
-        BigDecimal subtotal = calculateSubtotal(cart);
+        return CheckoutQuote.builder()
+                .items(cart.getItems())
+                .subtotal(cart.getSubtotal())
+                .productDiscounts(pricedCart.productDiscounts)
+                .promotionDiscounts(pricedCart.promotionDiscounts)
+                .paymentMethodDiscount(pricedCart.paymentMethodDiscount)
+                .totalDiscounts(cart.getTotalDiscounts())
+                .finalTotal(cart.getFinalTotal())
+                .paymentMethod(cart.getPaymentMethod())
+                .build();
+    }
+    
+    private PricedCart priceCart(ShoppingCart cart) {
+        List<CartItem> items = cart.getItems() instanceof RandomAccess ? cart.getItems() : new ArrayList<>(cart.getItems());
         
         // Aplicar descuentos de producto y promoción
+        long productDiscountsStart = checkoutMetrics.start();
         List<AppliedDiscount> allDiscounts = new ArrayList<>();
         List<AppliedDiscount> productDiscounts = new ArrayList<>();
+        long subtotal = Money.ZERO;
+        long totalDiscounts = Money.ZERO;
         
-        for (CartItem item : cart.getItems()) {
-            List<AppliedDiscount> itemDiscounts = discountService.calculateProductDiscounts(item);
-            allDiscounts.addAll(itemDiscounts);
-            productDiscounts.addAll(itemDiscounts);
-            
-            // Actualizar item del carrito con información de descuento
-            BigDecimal itemDiscount = itemDiscounts.stream()
-                    .map(AppliedDiscount::getDiscountAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-                    
-            item.setItemSubtotal(item.calculateSubtotal());
-            item.setItemDiscount(itemDiscount);
-            item.setItemTotal(item.getItemSubtotal().subtract(itemDiscount));
+        // Los carritos grandes calculan sus líneas en paralelo (si hay más de un núcleo);
+        // la suma siempre se hace en orden
+        boolean parallel = items.size() >= parallelPricingThreshold && pricingPool.getParallelism() > 1;
+        LinePrice[] linePrices = parallel ? priceLinesInParallel(items) : null;
+        
+        // Con grupos de exclusividad se elige la mejor combinación antes de sumar
+        PromotionSelection selection = null;
+        if (discountService.hasExclusivePromotions()) {
+            if (linePrices == null) {
+                linePrices = new LinePrice[items.size()];
+                for (int i = 0; i < items.size(); i++) {
+                    linePrices[i] = priceLine(items.get(i));
+                }
+            }
+            selection = selectPromotions(items, linePrices);
         }
         
+        for (int i = 0; i < items.size(); i++) {
+            LinePrice line = linePrices != null ? linePrices[i] : priceLine(items.get(i));
+            subtotal = Money.add(subtotal, line.subtotal);
+            totalDiscounts = Money.add(totalDiscounts, line.discount);
+            allDiscounts.addAll(line.discounts);
+            productDiscounts.addAll(line.discounts);
+        }
+        
+        checkoutMetrics.record(CheckoutMetrics.Stage.PRODUCT_DISCOUNTS, productDiscountsStart);
+        
         // Aplicar descuento de compra mínima (promoción a nivel de carrito)
-        AppliedDiscount minimumPurchaseDiscount = discountService.calculateMinimumPurchaseDiscount(subtotal);
+        long cartDiscountsStart = checkoutMetrics.start();
+        AppliedDiscount minimumPurchaseDiscount = selection != null
+                ? selection.getMinimumPurchaseDiscount()
+                : discountService.calculateMinimumPurchaseDiscount(subtotal);
         List<AppliedDiscount> promotionDiscounts = new ArrayList<>();
         if (minimumPurchaseDiscount != null) {
             allDiscounts.add(minimumPurchaseDiscount);
             promotionDiscounts.add(minimumPurchaseDiscount);
+            totalDiscounts = Money.add(totalDiscounts, minimumPurchaseDiscount.getAmount());
         }
         
         // Aplicar descuento de método de pago
         AppliedDiscount paymentMethodDiscount = discountService.calculatePaymentMethodDiscount(subtotal, cart.getPaymentMethod());
         if (paymentMethodDiscount != null) {
             allDiscounts.add(paymentMethodDiscount);
+            totalDiscounts = Money.add(totalDiscounts, paymentMethodDiscount.getAmount());
         }
+        checkoutMetrics.record(CheckoutMetrics.Stage.CART_DISCOUNTS, cartDiscountsStart);
         
         // Calcular totales
-        BigDecimal totalDiscounts = allDiscounts.stream()
-                .map(AppliedDiscount::getDiscountAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-                
-        BigDecimal finalTotal = subtotal.subtract(totalDiscounts);
+        long finalTotal = Money.subtract(subtotal, totalDiscounts);
+        
+        // Los montos se convierten a BigDecimal solo para la respuesta JSON
+        BigDecimal subtotalAmount = Money.toBigDecimal(subtotal);
+        BigDecimal totalDiscountsAmount = Money.toBigDecimal(totalDiscounts);
+        BigDecimal finalTotalAmount = Money.toBigDecimal(finalTotal);
         
         // Actualizar carrito con valores calculados
-        cart.setSubtotal(subtotal);
-        cart.setTotalDiscounts(totalDiscounts);
-        cart.setFinalTotal(finalTotal);
+        cart.setSubtotal(subtotalAmount);
+        cart.setTotalDiscounts(totalDiscountsAmount);
+        cart.setFinalTotal(finalTotalAmount);
         cart.setAppliedDiscounts(allDiscounts);
         cart.setUpdatedAt(LocalDateTime.now());
         
-        // Procesar pago (simulado)
-        String paymentStatus = paymentService.processPayment(finalTotal, cart.getPaymentMethod());
+        return new PricedCart(subtotal, totalDiscounts, finalTotal,
+                allDiscounts, productDiscounts, promotionDiscounts, paymentMethodDiscount);
+    }
+    
+    private CheckoutResult buildResult(ShoppingCart cart, PricedCart pricedCart, String paymentStatus, boolean includeSummary) {
+        // El resumen de texto es opcional: la mayoría de los clientes no lo lee
+        String summary = null;
+        if (includeSummary) {
+            long summaryStart = checkoutMetrics.start();
+            summary = ReceiptSummaryFormatter.format(pricedCart.subtotal, pricedCart.allDiscounts,
+                    pricedCart.totalDiscounts, pricedCart.finalTotal);
+            checkoutMetrics.record(CheckoutMetrics.Stage.SUMMARY, summaryStart);
+        }
         
         // Construir resultado del checkout
         CheckoutResult result = CheckoutResult.builder()
-                .transactionId(transactionId)
+                .transactionId(idGenerator.nextId())
                 .cart(cart)
-                .subtotal(subtotal)
-                .productDiscounts(productDiscounts)
-                .promotionDiscounts(promotionDiscounts)
-                .paymentMethodDiscount(paymentMethodDiscount)
-                .totalDiscounts(totalDiscounts)
-                .finalTotal(finalTotal)
+                .subtotal(cart.getSubtotal())
+                .productDiscounts(pricedCart.productDiscounts)
+                .promotionDiscounts(pricedCart.promotionDiscounts)
+                .paymentMethodDiscount(pricedCart.paymentMethodDiscount)
+                .totalDiscounts(cart.getTotalDiscounts())
+                .finalTotal(cart.getFinalTotal())
                 .paymentMethod(cart.getPaymentMethod())
                 .paymentStatus(paymentStatus)
                 .processedAt(LocalDateTime.now())
-                .summary(generateSummary(subtotal, allDiscounts, finalTotal))
+                .summary(summary)
                 .build();
         
+        checkoutMetrics.recordCheckout(cart.getPaymentMethod(), paymentStatus, pricedCart.allDiscounts);
         return result;
     }
     
-    private BigDecimal calculateSubtotal(ShoppingCart cart) {
-        return cart.getItems().stream()
-                .map(CartItem::calculateSubtotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private CompletableFuture<CheckoutResult> journal(CheckoutResult result) {
+        if (!checkoutJournal.isEnabled()) {
+            return CompletableFuture.completedFuture(result);
+        }
+        long journalStart = checkoutMetrics.start();
+        // El pago ya se procesó: la respuesta sale aunque el registro falle (queda en checkout.journal.failures)
+        // o tarde más que checkout.journal.timeout
+        return checkoutJournal.append(result)
+                .orTimeout(journalTimeout.toNanos(), TimeUnit.NANOSECONDS)
+                .handle((ignored, error) -> {
+                    checkoutMetrics.record(CheckoutMetrics.Stage.JOURNAL, journalStart);
+                    return result;
+                });
+    }
+    
+    private PromotionSelection selectPromotions(List<CartItem> items, LinePrice[] linePrices) {
+        List<AppliedDiscount> lineDiscounts = new ArrayList<>();
+        long subtotal = Money.ZERO;
+        for (LinePrice line : linePrices) {
+            lineDiscounts.addAll(line.discounts);
+            subtotal = Money.add(subtotal, line.subtotal);
+        }
+        PromotionSelection selection = discountService.selectPromotions(lineDiscounts, subtotal);
+        checkoutMetrics.recordPromotionSelection(selection.isOptimal());
+        
+        // Las líneas con promociones descartadas se recalculan sin ellas
+        if (selection.rejectsAny()) {
+            for (int i = 0; i < linePrices.length; i++) {
+                List<AppliedDiscount> applied = new ArrayList<>(linePrices[i].discounts.size());
+                for (AppliedDiscount discount : linePrices[i].discounts) {
+                    if (selection.isApplied(discount)) {
+                        applied.add(discount);
+                    }
+                }
+                if (applied.size() != linePrices[i].discounts.size()) {
+                    linePrices[i] = linePrice(items.get(i), applied);
+                }
+            }
+        }
+        return selection;
+    }
+    
+    private LinePrice priceLine(CartItem item) {
+        return linePrice(item, discountService.calculateProductDiscounts(item));
+    }
+    
+    private LinePrice linePrice(CartItem item, List<AppliedDiscount> itemDiscounts) {
+        // Actualizar item del carrito con información de descuento
+        long itemDiscount = Money.ZERO;
+        for (AppliedDiscount discount : itemDiscounts) {
+            itemDiscount = Money.add(itemDiscount, discount.getAmount());
+        }
+        
+        long itemSubtotal = item.calculateSubtotal();
+        item.setItemSubtotal(Money.toBigDecimal(itemSubtotal));
+        item.setItemDiscount(Money.toBigDecimal(itemDiscount));
+        item.setItemTotal(Money.toBigDecimal(Money.subtract(itemSubtotal, itemDiscount)));
+        
+        return new LinePrice(itemSubtotal, itemDiscount, itemDiscounts);
+    }
+    
+    private LinePrice[] priceLinesInParallel(List<CartItem> items) {
+        LinePrice[] linePrices = new LinePrice[items.size()];
+        int chunkSize = Math.max(MIN_PARALLEL_CHUNK_SIZE, items.size() / (pricingPool.getParallelism() * 4));
+        pricingPool.invoke(new LinePricingTask(items, linePrices, 0, items.size(), chunkSize));
+        return linePrices;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        pricingPool.shutdownNow();
     }
     
-    private String generateSummary(BigDecimal subtotal, List<AppliedDiscount> discounts, BigDecimal finalTotal) {
-        StringBuilder summary = new StringBuilder();
-        summary.append("Checkout Summary:\n");
-        summary.append(String.format("Subtotal: $%.0f CLP\n", subtotal));
+    // Precio de una línea: cada tarea escribe solo su rango del arreglo de resultados
+    private final class LinePricingTask extends RecursiveAction {
+        
+        private final List<CartItem> items;
+        private final LinePrice[] linePrices;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+        
+        private LinePricingTask(List<CartItem> items, LinePrice[] linePrices, int from, int to, int chunkSize) {
+            this.items = items;
+            this.linePrices = linePrices;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
         
-        if (!discounts.isEmpty()) {
-            summary.append("Discounts Applied:\n");
-            for (AppliedDiscount discount : discounts) {
-                summary.append(String.format("  - %s: -$%.0f CLP\n", discount.getDiscountName(), discount.getDiscountAmount()));
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                for (int i = from; i < to; i++) {
+                    linePrices[i] = priceLine(items.get(i));
+                }
+                return;
             }
-            summary.append(String.format("Total Discounts: -$%.0f CLP\n", 
-                discounts.stream().map(AppliedDiscount::getDiscountAmount).reduce(BigDecimal.ZERO, BigDecimal::add)));
+            int middle = (from + to) >>> 1;
+            invokeAll(new LinePricingTask(items, linePrices, from, middle, chunkSize),
+                    new LinePricingTask(items, linePrices, middle, to, chunkSize));
+        }
+    }
+    
+    private static final class LinePrice {
+        
+        private final long subtotal;
+        private final long discount;
+        private final List<AppliedDiscount> discounts;
+        
+        private LinePrice(long subtotal, long discount, List<AppliedDiscount> discounts) {
+            this.subtotal = subtotal;
+            this.discount = discount;
+            this.discounts = discounts;
         }
+    }
+    
+    // Resultado del cálculo de precios, previo al pago
+    private static final class PricedCart {
         
-        summary.append(String.format("Final Total: $%.0f CLP", finalTotal));
-        return summary.toString();
+        private final long subtotal;
+        private final long totalDiscounts;
+        private final long finalTotal;
+        private final List<AppliedDiscount> allDiscounts;
+        private final List<AppliedDiscount> productDiscounts;
+        private final List<AppliedDiscount> promotionDiscounts;
+        private final AppliedDiscount paymentMethodDiscount;
+        
+        private PricedCart(long subtotal, long totalDiscounts, long finalTotal,
+                           List<AppliedDiscount> allDiscounts, List<AppliedDiscount> productDiscounts,
+                           List<AppliedDiscount> promotionDiscounts, AppliedDiscount paymentMethodDiscount) {
+            this.subtotal = subtotal;
+            this.totalDiscounts = totalDiscounts;
+            this.finalTotal = finalTotal;
+            this.allDiscounts = allDiscounts;
+            this.productDiscounts = productDiscounts;
+            this.promotionDiscounts = promotionDiscounts;
+            this.paymentMethodDiscount = paymentMethodDiscount;
+        }
     }
 }
\ No newline at end of file
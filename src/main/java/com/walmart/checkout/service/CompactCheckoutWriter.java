@@ -0,0 +1,237 @@
+package com.walmart.checkout.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.walmart.checkout.model.AppliedDiscount;
+import com.walmart.checkout.model.CartItem;
+import com.walmart.checkout.model.CheckoutResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Proyección compacta de {@link CheckoutResult} escrita con el generador de
+ * streaming de Jackson. Omite las estructuras repetidas de la respuesta
+ * completa (el carrito con cada {@code Product} y las listas de descuentos
+ * que duplican {@code appliedDiscounts}): los productos se referencian por
+ * SKU y cada descuento aparece una sola vez. Se escribe en JSON, CBOR o Smile
+ * con las mismas fábricas que los conversores HTTP de la respuesta completa.
+ */
+@Component
+public class CompactCheckoutWriter {
+    
+    public enum Field {
+        TRANSACTION_ID("transactionId"),
+        CART_ID("cartId"),
+        PAYMENT_METHOD("paymentMethod"),
+        PAYMENT_STATUS("paymentStatus"),
+        PROCESSED_AT("processedAt"),
+        ITEMS("items"),
+        DISCOUNTS("discounts"),
+        SUBTOTAL("subtotal"),
+        TOTAL_DISCOUNTS("totalDiscounts"),
+        FINAL_TOTAL("finalTotal"),
+        SUMMARY("summary");
+        
+        private final String jsonName;
+        
+        Field(String jsonName) {
+            this.jsonName = jsonName;
+        }
+    }
+    
+    private static final String VIEW_FULL = "full";
+    private static final String VIEW_COMPACT = "compact";
+    
+    private static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+    
+    // JSON primero: es el formato cuando el cliente acepta cualquiera
+    private final Map<MediaType, JsonFactory> factories = new LinkedHashMap<>();
+    
+    public CompactCheckoutWriter(ObjectMapper objectMapper) {
+        this(objectMapper, null, null);
+    }
+    
+    @Autowired
+    public CompactCheckoutWriter(ObjectMapper objectMapper,
+                                 @Nullable MappingJackson2CborHttpMessageConverter cborConverter,
+                                 @Nullable MappingJackson2SmileHttpMessageConverter smileConverter) {
+        factories.put(MediaType.APPLICATION_JSON, objectMapper.getFactory());
+        if (cborConverter != null) {
+            factories.put(MediaType.APPLICATION_CBOR, cborConverter.getObjectMapper().getFactory());
+        }
+        if (smileConverter != null) {
+            factories.put(APPLICATION_SMILE, smileConverter.getObjectMapper().getFactory());
+        }
+    }
+    
+    /**
+     * Interpreta los parámetros {@code view} y {@code fields} del request.
+     *
+     * @return los campos a escribir, o {@code null} para la respuesta completa
+     * @throws IllegalArgumentException si la vista o algún campo no existe
+     */
+    public static EnumSet<Field> selectFields(String view, String fields) {
+        if (fields != null && !fields.isBlank()) {
+            EnumSet<Field> selected = EnumSet.noneOf(Field.class);
+            for (String name : fields.split(",")) {
+                selected.add(field(name.trim()));
+            }
+            return selected;
+        }
+        if (view == null || view.isEmpty() || VIEW_FULL.equalsIgnoreCase(view)) {
+            return null;
+        }
+        if (VIEW_COMPACT.equalsIgnoreCase(view)) {
+            return EnumSet.allOf(Field.class);
+        }
+        throw new IllegalArgumentException("Unknown view: " + view + " (expected full or compact)");
+    }
+    
+    /**
+     * Formatos en los que se puede escribir la vista compacta, empezando por JSON.
+     */
+    public List<MediaType> getMediaTypes() {
+        return new ArrayList<>(factories.keySet());
+    }
+    
+    public byte[] write(CheckoutResult result, EnumSet<Field> fields) {
+        return write(result, fields, MediaType.APPLICATION_JSON);
+    }
+    
+    /**
+     * @throws IllegalArgumentException si el formato no está en {@link #getMediaTypes()}
+     */
+    public byte[] write(CheckoutResult result, EnumSet<Field> fields, MediaType mediaType) {
+        JsonFactory factory = factories.get(mediaType);
+        if (factory == null) {
+            throw new IllegalArgumentException("Unsupported compact format: " + mediaType);
+        }
+        ByteArrayBuilder buffer = new ByteArrayBuilder(1024);
+        try (JsonGenerator json = factory.createGenerator(buffer)) {
+            json.writeStartObject();
+            for (Field field : fields) {
+                writeField(json, field, result);
+            }
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+    
+    private void writeField(JsonGenerator json, Field field, CheckoutResult result) throws IOException {
+        switch (field) {
+            case TRANSACTION_ID:
+                writeString(json, field, result.getTransactionId());
+                break;
+            case CART_ID:
+                writeString(json, field, result.getCart() != null ? result.getCart().getCartId() : null);
+                break;
+            case PAYMENT_METHOD:
+                writeString(json, field, result.getPaymentMethod() != null ? result.getPaymentMethod().name() : null);
+                break;
+            case PAYMENT_STATUS:
+                writeString(json, field, result.getPaymentStatus());
+                break;
+            case PROCESSED_AT:
+                writeString(json, field, result.getProcessedAt() != null
+                        ? DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(result.getProcessedAt()) : null);
+                break;
+            case ITEMS:
+                writeItems(json, result.getCart() != null ? result.getCart().getItems() : null);
+                break;
+            case DISCOUNTS:
+                writeDiscounts(json, result.getCart() != null ? result.getCart().getAppliedDiscounts() : null);
+                break;
+            case SUBTOTAL:
+                writeAmount(json, field, result.getSubtotal());
+                break;
+            case TOTAL_DISCOUNTS:
+                writeAmount(json, field, result.getTotalDiscounts());
+                break;
+            case FINAL_TOTAL:
+                writeAmount(json, field, result.getFinalTotal());
+                break;
+            case SUMMARY:
+                // Igual que en la respuesta completa, el resumen solo aparece si se pidió
+                if (result.getSummary() != null) {
+                    writeString(json, field, result.getSummary());
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unhandled field " + field);
+        }
+    }
+    
+    private void writeItems(JsonGenerator json, List<CartItem> items) throws IOException {
+        json.writeArrayFieldStart(Field.ITEMS.jsonName);
+        if (items != null) {
+            for (CartItem item : items) {
+                json.writeStartObject();
+                json.writeStringField("sku", item.getProduct() != null ? item.getProduct().getId() : null);
+                json.writeNumberField("quantity", item.getQuantity());
+                writeAmount(json, "subtotal", item.getItemSubtotal());
+                writeAmount(json, "discount", item.getItemDiscount());
+                writeAmount(json, "total", item.getItemTotal());
+                json.writeEndObject();
+            }
+        }
+        json.writeEndArray();
+    }
+    
+    private void writeDiscounts(JsonGenerator json, List<AppliedDiscount> discounts) throws IOException {
+        json.writeArrayFieldStart(Field.DISCOUNTS.jsonName);
+        if (discounts != null) {
+            for (AppliedDiscount discount : discounts) {
+                json.writeStartObject();
+                json.writeStringField("id", discount.getDiscountId());
+                json.writeStringField("type", discount.getDiscountType());
+                writeAmount(json, "amount", discount.getDiscountAmount());
+                json.writeStringField("appliesTo", discount.getApplicableItem());
+                json.writeEndObject();
+            }
+        }
+        json.writeEndArray();
+    }
+    
+    private static void writeString(JsonGenerator json, Field field, String value) throws IOException {
+        json.writeStringField(field.jsonName, value);
+    }
+    
+    private static void writeAmount(JsonGenerator json, Field field, BigDecimal amount) throws IOException {
+        writeAmount(json, field.jsonName, amount);
+    }
+    
+    private static void writeAmount(JsonGenerator json, String name, BigDecimal amount) throws IOException {
+        if (amount == null) {
+            json.writeNullField(name);
+        } else {
+            json.writeNumberField(name, amount);
+        }
+    }
+    
+    private static Field field(String jsonName) {
+        for (Field field : Field.values()) {
+            if (field.jsonName.equals(jsonName)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field: " + jsonName);
+    }
+}
\ No newline at end of file
@@ -2,126 +2,182 @@ package com.walmart.checkout.service;
 
 import com.walmart.checkout.model.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class DiscountService {
     
+    private static final Duration DEFAULT_OPTIMIZER_BUDGET = Duration.ofMillis(2);
+    
     @Autowired
     private PromotionService promotionService;
     
+    // Tiempo máximo por checkout para buscar la mejor combinación de promociones exclusivas
+    @Value("${checkout.promotions.optimizer-budget:2ms}")
+    private Duration optimizerBudget = DEFAULT_OPTIMIZER_BUDGET;
+    
     public List<AppliedDiscount> calculateProductDiscounts(CartItem cartItem) {
-        List<AppliedDiscount> discounts = new ArrayList<>();
         Product product = cartItem.getProduct();
         
         if (!product.isEligibleForPromotions()) {
-            return discounts;
+            return Collections.emptyList();
         }
         
-        List<Promotion> applicablePromotions = promotionService
-                .getApplicablePromotions(product.getId(), product.getCategory());
+        PromotionEvaluator[] evaluators = promotionService
+                .getApplicableEvaluators(product.getId(), product.getCategory());
+        
+        if (evaluators.length == 0) {
+            return Collections.emptyList();
+        }
         
-        BigDecimal itemSubtotal = cartItem.calculateSubtotal();
+        long unitPrice = Money.of(product.getPrice());
+        int quantity = cartItem.getQuantity();
+        long itemSubtotal = Money.multiply(unitPrice, quantity);
+        List<AppliedDiscount> discounts = null;
         
-        for (Promotion promotion : applicablePromotions) {
-            BigDecimal discountAmount = calculatePromotionDiscount(promotion, cartItem, itemSubtotal);
+        for (PromotionEvaluator evaluator : evaluators) {
+            long discountAmount = evaluator.discount(unitPrice, quantity, itemSubtotal);
             
-            if (discountAmount.compareTo(BigDecimal.ZERO) > 0) {
+            if (discountAmount > 0) {
+                if (discounts == null) {
+                    discounts = new ArrayList<>(evaluators.length);
+                }
+                Promotion promotion = evaluator.getPromotion();
                 discounts.add(AppliedDiscount.builder()
                         .discountId(promotion.getPromotionId())
                         .discountName(promotion.getName())
                         .discountType("PROMOTION")
-                        .discountAmount(discountAmount)
+                        .amount(discountAmount)
                         .description(promotion.getDescription())
                         .applicableItem(product.getId())
                         .build());
             }
         }
         
-        return discounts;
+        return discounts != null ? discounts : Collections.emptyList();
     }
     
-    public AppliedDiscount calculatePaymentMethodDiscount(BigDecimal subtotal, PaymentMethod paymentMethod) {
-        if (paymentMethod.getDiscountPercentage() <= 0) {
+    public AppliedDiscount calculatePaymentMethodDiscount(long subtotal, PaymentMethod paymentMethod) {
+        if (paymentMethod.getDiscountBasisPoints() <= 0) {
             return null;
         }
         
-        BigDecimal discountAmount = subtotal
-                .multiply(BigDecimal.valueOf(paymentMethod.getDiscountPercentage()))
-                .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+        long discountAmount = Money.percentage(subtotal, paymentMethod.getDiscountBasisPoints());
         
         return AppliedDiscount.builder()
                 .discountId("PAYMENT_" + paymentMethod.name())
                 .discountName(paymentMethod.getDisplayName() + " Descuento")
                 .discountType("PAYMENT_METHOD")
-                .discountAmount(discountAmount)
+                .amount(discountAmount)
                 .description(paymentMethod.getDiscountPercentage() + "% de descuento por " + paymentMethod.getDisplayName())
                 .applicableItem("TOTAL")
                 .build();
     }
     
-    public AppliedDiscount calculateMinimumPurchaseDiscount(BigDecimal subtotal) {
-        List<Promotion> minimumPurchasePromotions = promotionService.getActivePromotions().stream()
-                .filter(p -> p.getType() == Promotion.PromotionType.MINIMUM_PURCHASE)
-                .filter(p -> subtotal.compareTo(p.getMinimumPurchase()) >= 0)
-                .collect(Collectors.toList());
-        
-        // Aplicar la mejor promoción de compra mínima
-        return minimumPurchasePromotions.stream()
-                .max((p1, p2) -> p1.getFixedDiscountAmount().compareTo(p2.getFixedDiscountAmount()))
-                .map(promotion -> AppliedDiscount.builder()
-                        .discountId(promotion.getPromotionId())
-                        .discountName(promotion.getName())
-                        .discountType("PROMOTION")
-                        .discountAmount(promotion.getFixedDiscountAmount())
-                        .description(promotion.getDescription())
-                        .applicableItem("TOTAL")
-                        .build())
-                .orElse(null);
+    public AppliedDiscount calculateMinimumPurchaseDiscount(long subtotal) {
+        // Aplicar la mejor promoción de compra mínima alcanzada por el subtotal
+        Promotion promotion = promotionService.getMinimumPurchaseTiers().bestFor(subtotal);
+        if (promotion == null) {
+            return null;
+        }
+        return minimumPurchaseDiscount(promotion);
     }
     
-    private BigDecimal calculatePromotionDiscount(Promotion promotion, CartItem cartItem, BigDecimal itemSubtotal) {
-        switch (promotion.getType()) {
-            case PERCENTAGE_DISCOUNT:
-                return itemSubtotal
-                        .multiply(promotion.getDiscountPercentage())
-                        .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
-                
-            case FIXED_AMOUNT_DISCOUNT:
-                return promotion.getFixedDiscountAmount();
-                
-            case BUY_X_GET_Y_FREE:
-                return calculateBuyXGetYDiscount(promotion, cartItem);
-                
-            case MINIMUM_PURCHASE:
-                // Los descuentos de compra mínima se manejan por separado a nivel de carrito
-                return BigDecimal.ZERO;
-                
-            default:
-                return BigDecimal.ZERO;
-        }
+    // Sin grupos de exclusividad todas las promociones se suman y no hace falta elegir
+    public boolean hasExclusivePromotions() {
+        return promotionService.hasExclusivityGroups();
     }
     
-    private BigDecimal calculateBuyXGetYDiscount(Promotion promotion, CartItem cartItem) {
-        Integer quantity = cartItem.getQuantity();
-        Integer requiredQuantity = promotion.getRequiredQuantity();
-        Integer freeQuantity = promotion.getFreeQuantity();
+    /**
+     * Elige la combinación de promociones de mayor descuento total que no
+     * repite grupos de exclusividad, entre los descuentos por línea ya
+     * calculados y las promociones de compra mínima alcanzadas por el
+     * subtotal. Las promociones sin grupos se aplican siempre.
+     */
+    PromotionSelection selectPromotions(List<AppliedDiscount> lineDiscounts, long subtotal) {
+        PromotionIndex index = promotionService.getPromotionIndex();
+        List<Promotion> minimumPurchasePromotions = index.getMinimumPurchasePromotions();
+        int capacity = lineDiscounts.size() + minimumPurchasePromotions.size();
         
-        if (quantity < requiredQuantity) {
-            return BigDecimal.ZERO;
+        // Candidatas: descuento total de cada promoción exclusiva en el carrito
+        Map<String, Integer> positions = new HashMap<>();
+        List<Promotion> candidates = new ArrayList<>();
+        long[] values = new long[capacity];
+        long[][] groups = new long[capacity][];
+        for (AppliedDiscount discount : lineDiscounts) {
+            Integer position = positions.get(discount.getDiscountId());
+            if (position != null) {
+                values[position] = Money.add(values[position], discount.getAmount());
+                continue;
+            }
+            Promotion promotion = index.findExclusive(discount.getDiscountId());
+            if (promotion != null) {
+                positions.put(promotion.getPromotionId(), candidates.size());
+                values[candidates.size()] = discount.getAmount();
+                groups[candidates.size()] = index.getGroupMask(promotion.getPromotionId());
+                candidates.add(promotion);
+            }
+        }
+        int lineCandidates = candidates.size();
+        for (Promotion promotion : minimumPurchasePromotions) {
+            long threshold = promotion.getMinimumPurchase() != null
+                    ? Money.ofCeiling(promotion.getMinimumPurchase())
+                    : Money.ZERO;
+            if (threshold <= subtotal) {
+                values[candidates.size()] = Money.of(promotion.getFixedDiscountAmount());
+                groups[candidates.size()] = index.getGroupMask(promotion.getPromotionId());
+                candidates.add(promotion);
+            }
         }
         
-        // Calcular cuántos artículos gratis obtiene el cliente
-        int eligibleSets = quantity / requiredQuantity;
-        int totalFreeItems = Math.min(eligibleSets * freeQuantity, quantity);
+        boolean[] selected;
+        boolean optimal;
+        if (candidates.isEmpty()) {
+            selected = new boolean[0];
+            optimal = true;
+        } else {
+            PromotionOptimizer optimizer = new PromotionOptimizer(
+                    Arrays.copyOf(values, candidates.size()),
+                    Arrays.copyOf(groups, candidates.size()),
+                    optimizerBudget.toNanos(),
+                    System::nanoTime);
+            selected = optimizer.optimize();
+            optimal = optimizer.isOptimal();
+        }
         
-        return cartItem.getProduct().getPrice()
-                .multiply(BigDecimal.valueOf(totalFreeItems));
+        Set<String> rejected = new HashSet<>();
+        AppliedDiscount minimumPurchaseDiscount = null;
+        for (int i = 0; i < candidates.size(); i++) {
+            if (i < lineCandidates) {
+                if (!selected[i]) {
+                    rejected.add(candidates.get(i).getPromotionId());
+                }
+            } else if (selected[i]) {
+                minimumPurchaseDiscount = minimumPurchaseDiscount(candidates.get(i));
+            }
+        }
+        return new PromotionSelection(rejected, minimumPurchaseDiscount, optimal);
+    }
+    
+    private AppliedDiscount minimumPurchaseDiscount(Promotion promotion) {
+        return AppliedDiscount.builder()
+                .discountId(promotion.getPromotionId())
+                .discountName(promotion.getName())
+                .discountType("PROMOTION")
+                .amount(Money.of(promotion.getFixedDiscountAmount()))
+                .description(promotion.getDescription())
+                .applicableItem("TOTAL")
+                .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,188 @@
+package com.walmart.checkout.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Caché concurrente acotada por tamaño y por TTL. Todas las entradas viven
+ * lo mismo, así que el orden de inserción coincide con el de expiración y la
+ * expulsión es FIFO desde la cabeza de la cola, sin recorrer el mapa. Las
+ * entradas removidas o renovadas dejan un nodo viejo en la cola; cuando esos
+ * nodos superan a las entradas vigentes la cola se compacta.
+ */
+public final class ExpiringCache<K, V> {
+    
+    private static final int MIN_COMPACTION_SIZE = 64;
+    
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    
+    private final Map<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry<K, V>> insertionOrder = new ConcurrentLinkedQueue<>();
+    // Aproximado: ConcurrentLinkedQueue.size() recorre toda la cola
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    
+    public ExpiringCache(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, System::nanoTime);
+    }
+    
+    ExpiringCache(int maxEntries, Duration ttl, LongSupplier nanoClock) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+    
+    public V get(K key) {
+        Entry<K, V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(nanoClock.getAsLong())) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+    
+    /**
+     * Inserta el valor si no hay uno vigente para la clave.
+     *
+     * @return el valor vigente existente, o {@code null} si se insertó {@code value}
+     */
+    public V putIfAbsent(K key, V value) {
+        long now = nanoClock.getAsLong();
+        Entry<K, V> created = new Entry<>(key, value, now + ttlNanos);
+        
+        while (true) {
+            Entry<K, V> existing = entries.putIfAbsent(key, created);
+            if (existing == null) {
+                enqueue(created);
+                evict(now);
+                return null;
+            }
+            if (!existing.isExpired(now)) {
+                return existing.value;
+            }
+            // Entrada vencida aún no expulsada: se reemplaza
+            entries.remove(key, existing);
+        }
+    }
+    
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> loader) {
+        V cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+        // Dos hilos pueden calcular la misma clave a la vez; gana el primero en publicarse
+        V computed = loader.apply(key);
+        V existing = putIfAbsent(key, computed);
+        return existing != null ? existing : computed;
+    }
+    
+    /**
+     * Renueva el TTL completo de una entrada vigente, que pasa al final de la cola.
+     *
+     * @return {@code false} si la clave ya no tiene ese valor vigente
+     */
+    public boolean touch(K key, V value) {
+        long now = nanoClock.getAsLong();
+        Entry<K, V> entry = entries.get(key);
+        if (entry == null || entry.value != value || entry.isExpired(now)) {
+            return false;
+        }
+        Entry<K, V> renewed = new Entry<>(key, value, now + ttlNanos);
+        if (!entries.replace(key, entry, renewed)) {
+            return false;
+        }
+        enqueue(renewed);
+        evict(now);
+        return true;
+    }
+    
+    public boolean remove(K key, V value) {
+        Entry<K, V> entry = entries.get(key);
+        return entry != null && entry.value == value && entries.remove(key, entry);
+    }
+    
+    /**
+     * Expulsa todas las entradas presentes. Se vacía la cola nodo por nodo y no
+     * el mapa de una vez: una inserción concurrente queda con su entrada y su
+     * nodo, y no como una entrada sin nodo que la expulsión FIFO nunca alcanza.
+     */
+    public void clear() {
+        Entry<K, V> head;
+        while ((head = insertionOrder.poll()) != null) {
+            queued.decrementAndGet();
+            entries.remove(head.key, head);
+        }
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    private void evict(long now) {
+        Entry<K, V> head;
+        while ((head = insertionOrder.peek()) != null) {
+            // Las entradas removidas o reemplazadas quedan en la cola hasta llegar a la cabeza
+            boolean live = entries.get(head.key) == head;
+            if (live && !head.isExpired(now) && entries.size() <= maxEntries) {
+                return;
+            }
+            if (insertionOrder.remove(head)) {
+                queued.decrementAndGet();
+                entries.remove(head.key, head);
+            }
+        }
+    }
+    
+    private void enqueue(Entry<K, V> entry) {
+        insertionOrder.add(entry);
+        int size = queued.incrementAndGet();
+        // Una clave muy renovada deja un nodo viejo por renovación detrás de entradas que aún no vencen
+        if (size > MIN_COMPACTION_SIZE && size > 2 * entries.size() && compacting.compareAndSet(false, true)) {
+            try {
+                insertionOrder.removeIf(queuedEntry -> entries.get(queuedEntry.key) != queuedEntry);
+                queued.set(insertionOrder.size());
+            } finally {
+                compacting.set(false);
+            }
+        }
+    }
+    
+    int queuedEntries() {
+        return queued.get();
+    }
+    
+    private static final class Entry<K, V> {
+        
+        private final K key;
+        private final V value;
+        private final long expiresAt;
+        
+        private Entry(K key, V value, long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+        
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.walmart.checkout.service;
+
+/**
+ * Genera los identificadores de transacciones y carritos. La implementación
+ * se elige con {@code checkout.id.generator} ({@code ulid} o {@code uuid}).
+ */
+public interface IdGenerator {
+    
+    String nextId();
+}
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.walmart.checkout.service;
+
+import com.walmart.checkout.model.Product;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Catálogo en el heap: todos los productos decodificados y agrupados al cargar
+final class InMemoryProductCatalog implements ProductCatalog {
+    
+    private final Map<String, Product> products;
+    private final Map<String, List<Product>> groupedByCategory;
+    
+    InMemoryProductCatalog(Collection<Product> products) {
+        Map<String, Product> productCatalog = new HashMap<>();
+        Map<String, List<Product>> groupedProducts = new HashMap<>();
+        
+        for (Product product : products) {
+            productCatalog.put(product.getId(), product);
+        }
+        for (Product product : productCatalog.values()) {
+            groupedProducts.computeIfAbsent(product.getCategory(), k -> new ArrayList<>()).add(product);
+        }
+        groupedProducts.replaceAll((category, categoryProducts) -> Collections.unmodifiableList(categoryProducts));
+        
+        this.products = Collections.unmodifiableMap(productCatalog);
+        this.groupedByCategory = Collections.unmodifiableMap(groupedProducts);
+    }
+    
+    @Override
+    public Product findById(String productId) {
+        return products.get(productId);
+    }
+    
+    @Override
+    public Map<String, Product> asMap() {
+        return products;
+    }
+    
+    @Override
+    public Map<String, List<Product>> groupedByCategory() {
+        return groupedByCategory;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,345 @@
+package com.walmart.checkout.service;
+
+import com.walmart.checkout.model.Product;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Catálogo leído desde un archivo binario mapeado en memoria. Los registros
+ * y el índice viven fuera del heap; cada búsqueda recorre una tabla de
+ * direccionamiento abierto (SKU → offset del registro) y decodifica solo el
+ * producto encontrado, así que abrir el archivo no depende de su tamaño.
+ *
+ * <p>Formato (big-endian): encabezado de 24 bytes con magic, versión, número
+ * de registros, capacidad del índice y offsets de registros e índice; luego
+ * los registros ({@code id, precio sin escala, escala, flags, nombre,
+ * categoría, descripción}) y al final el índice con pares {@code hash, offset}.
+ */
+public final class MappedProductCatalog implements ProductCatalog {
+    
+    private static final int MAGIC = 0x57434154; // "WCAT"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 24;
+    private static final int SLOT_SIZE = 8;
+    private static final int NULL_STRING = -1;
+    private static final int FLAG_ELIGIBLE_FOR_PROMOTIONS = 1;
+    
+    private final ByteBuffer buffer;
+    private final int recordCount;
+    private final int indexMask;
+    private final int recordsOffset;
+    private final int indexOffset;
+    private final Map<String, Product> products = new ProductsView();
+    
+    // Se arma solo si alguien pide el listado agrupado; materializa todo el catálogo en el heap
+    private volatile Map<String, List<Product>> groupedByCategory;
+    
+    private MappedProductCatalog(Path file, ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a product catalog file: " + file);
+        }
+        if (buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported product catalog version " + buffer.getInt(4) + ": " + file);
+        }
+        this.recordCount = buffer.getInt(8);
+        int indexCapacity = buffer.getInt(12);
+        this.recordsOffset = buffer.getInt(16);
+        this.indexOffset = buffer.getInt(20);
+        this.indexMask = indexCapacity - 1;
+        
+        boolean validIndex = indexCapacity > 0 && (indexCapacity & indexMask) == 0 && recordCount < indexCapacity;
+        boolean validOffsets = recordsOffset == HEADER_SIZE && indexOffset >= recordsOffset
+                && (long) indexOffset + (long) indexCapacity * SLOT_SIZE == buffer.capacity();
+        if (recordCount < 0 || !validIndex || !validOffsets) {
+            throw new IOException("Corrupt product catalog header: " + file);
+        }
+    }
+    
+    static MappedProductCatalog open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Product catalog file larger than 2 GB: " + file);
+            }
+            // El mapeo sigue válido después de cerrar el canal
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return new MappedProductCatalog(file, mapped);
+        }
+    }
+    
+    /**
+     * Escribe los productos en el formato binario. Si un SKU se repite gana
+     * la última aparición, igual que en {@link ProductService#loadProducts}.
+     */
+    public static void write(Collection<Product> products, Path file) throws IOException {
+        Map<String, Product> unique = new LinkedHashMap<>();
+        for (Product product : products) {
+            if (product.getId() == null || product.getId().isEmpty()) {
+                throw new IllegalArgumentException("Product without id cannot be written to the catalog");
+            }
+            unique.put(product.getId(), product);
+        }
+        
+        // Factor de carga máximo 0,5: toda búsqueda termina en pocas posiciones o en un slot vacío
+        int capacity = Integer.highestOneBit(Math.max(2, unique.size() * 2 - 1)) << 1;
+        int[] slotHashes = new int[capacity];
+        int[] slotOffsets = new int[capacity];
+        int indexOffset;
+        
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(HEADER_SIZE);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            
+            for (Product product : unique.values()) {
+                int offset = HEADER_SIZE + out.size();
+                int hash = product.getId().hashCode();
+                int slot = firstSlot(hash, capacity - 1);
+                while (slotOffsets[slot] != 0) {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                slotHashes[slot] = hash;
+                slotOffsets[slot] = offset;
+                writeRecord(out, product);
+                if (out.size() > Integer.MAX_VALUE - HEADER_SIZE - (long) capacity * SLOT_SIZE) {
+                    throw new IOException("Product catalog larger than 2 GB: " + file);
+                }
+            }
+            
+            indexOffset = HEADER_SIZE + out.size();
+            for (int slot = 0; slot < capacity; slot++) {
+                out.writeInt(slotHashes[slot]);
+                out.writeInt(slotOffsets[slot]);
+            }
+            out.flush();
+            
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                    .putInt(MAGIC)
+                    .putInt(FORMAT_VERSION)
+                    .putInt(unique.size())
+                    .putInt(capacity)
+                    .putInt(HEADER_SIZE)
+                    .putInt(indexOffset);
+            header.flip();
+            channel.write(header, 0);
+        }
+    }
+    
+    @Override
+    public Product findById(String productId) {
+        if (productId == null) {
+            return null;
+        }
+        int hash = productId.hashCode();
+        byte[] key = null;
+        
+        for (int slot = firstSlot(hash, indexMask); ; slot = (slot + 1) & indexMask) {
+            int position = indexOffset + slot * SLOT_SIZE;
+            int recordOffset = buffer.getInt(position + 4);
+            if (recordOffset == 0) {
+                return null;
+            }
+            if (buffer.getInt(position) == hash) {
+                // Se compara el SKU en bytes antes de decodificar el registro
+                if (key == null) {
+                    key = productId.getBytes(StandardCharsets.UTF_8);
+                }
+                if (idEquals(recordOffset, key)) {
+                    return new RecordReader(recordOffset).read();
+                }
+            }
+        }
+    }
+    
+    @Override
+    public Map<String, Product> asMap() {
+        return products;
+    }
+    
+    @Override
+    public Map<String, List<Product>> groupedByCategory() {
+        Map<String, List<Product>> grouped = groupedByCategory;
+        if (grouped == null) {
+            synchronized (this) {
+                grouped = groupedByCategory;
+                if (grouped == null) {
+                    Map<String, List<Product>> groupedProducts = new HashMap<>();
+                    for (Product product : products.values()) {
+                        groupedProducts.computeIfAbsent(product.getCategory(), k -> new ArrayList<>()).add(product);
+                    }
+                    groupedProducts.replaceAll((category, categoryProducts) -> Collections.unmodifiableList(categoryProducts));
+                    grouped = Collections.unmodifiableMap(groupedProducts);
+                    groupedByCategory = grouped;
+                }
+            }
+        }
+        return grouped;
+    }
+    
+    // Mezcla los bits altos: los SKU secuenciales solo difieren en los últimos caracteres
+    private static int firstSlot(int hash, int mask) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+    
+    private boolean idEquals(int recordOffset, byte[] key) {
+        if (buffer.getShort(recordOffset) != key.length) {
+            return false;
+        }
+        int start = recordOffset + 2;
+        for (int i = 0; i < key.length; i++) {
+            if (buffer.get(start + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static void writeRecord(DataOutputStream out, Product product) throws IOException {
+        if (product.getPrice() == null) {
+            throw new IllegalArgumentException("Product " + product.getId() + " has no price");
+        }
+        BigDecimal price = product.getPrice();
+        if (price.scale() < Byte.MIN_VALUE || price.scale() > Byte.MAX_VALUE || price.unscaledValue().bitLength() > 63) {
+            throw new IllegalArgumentException("Price of product " + product.getId() + " does not fit the catalog format");
+        }
+        
+        writeString(out, product.getId(), product);
+        out.writeLong(price.unscaledValue().longValue());
+        out.writeByte(price.scale());
+        out.writeByte(product.isEligibleForPromotions() ? FLAG_ELIGIBLE_FOR_PROMOTIONS : 0);
+        writeString(out, product.getName(), product);
+        writeString(out, product.getCategory(), product);
+        writeString(out, product.getDescription(), product);
+    }
+    
+    private static void writeString(DataOutputStream out, String value, Product product) throws IOException {
+        if (value == null) {
+            out.writeShort(NULL_STRING);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Field of product " + product.getId() + " exceeds " + Short.MAX_VALUE + " bytes");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+    
+    // Lector secuencial de un registro; las lecturas absolutas no tocan la posición compartida del buffer
+    private final class RecordReader {
+        
+        private int position;
+        
+        private RecordReader(int position) {
+            this.position = position;
+        }
+        
+        private Product read() {
+            String id = readString();
+            long unscaledPrice = buffer.getLong(position);
+            int scale = buffer.get(position + 8);
+            int flags = buffer.get(position + 9);
+            position += 10;
+            
+            return Product.builder()
+                    .id(id)
+                    .price(BigDecimal.valueOf(unscaledPrice, scale))
+                    .eligibleForPromotions((flags & FLAG_ELIGIBLE_FOR_PROMOTIONS) != 0)
+                    .name(readString())
+                    .category(readString())
+                    .description(readString())
+                    .build();
+        }
+        
+        private String readString() {
+            int length = buffer.getShort(position);
+            position += 2;
+            if (length == NULL_STRING) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(position, bytes);
+            position += length;
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+    
+    // Vista de solo lectura: get() usa el índice y la iteración recorre los registros en orden
+    private final class ProductsView extends AbstractMap<String, Product> {
+        
+        private final Set<Entry<String, Product>> entries = new AbstractSet<Entry<String, Product>>() {
+            
+            @Override
+            public Iterator<Entry<String, Product>> iterator() {
+                RecordReader reader = new RecordReader(recordsOffset);
+                return new Iterator<Entry<String, Product>>() {
+                    
+                    private int remaining = recordCount;
+                    
+                    @Override
+                    public boolean hasNext() {
+                        return remaining > 0;
+                    }
+                    
+                    @Override
+                    public Entry<String, Product> next() {
+                        if (remaining == 0) {
+                            throw new NoSuchElementException();
+                        }
+                        remaining--;
+                        Product product = reader.read();
+                        return new SimpleImmutableEntry<>(product.getId(), product);
+                    }
+                };
+            }
+            
+            @Override
+            public int size() {
+                return recordCount;
+            }
+        };
+        
+        @Override
+        public Product get(Object key) {
+            return key instanceof String ? findById((String) key) : null;
+        }
+        
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+        
+        @Override
+        public int size() {
+            return recordCount;
+        }
+        
+        @Override
+        public Set<Entry<String, Product>> entrySet() {
+            return entries;
+        }
+    }
+}
\ No newline at end of file
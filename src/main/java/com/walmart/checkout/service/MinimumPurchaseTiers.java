@@ -0,0 +1,101 @@
+package com.walmart.checkout.service;
+
+import com.walmart.checkout.model.Money;
+import com.walmart.checkout.model.Promotion;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Tabla de tramos de compra mínima ordenada por umbral. Cada tramo guarda la
+ * mejor promoción alcanzable con ese umbral o uno menor, de modo que elegir
+ * la promoción para un subtotal es una búsqueda binaria sin asignaciones.
+ */
+public final class MinimumPurchaseTiers {
+    
+    static final MinimumPurchaseTiers EMPTY = new MinimumPurchaseTiers(new long[0], new Promotion[0]);
+    
+    private final long[] thresholds;
+    private final Promotion[] bestPromotions;
+    
+    private MinimumPurchaseTiers(long[] thresholds, Promotion[] bestPromotions) {
+        this.thresholds = thresholds;
+        this.bestPromotions = bestPromotions;
+    }
+    
+    public static MinimumPurchaseTiers build(List<Promotion> activePromotions) {
+        List<Candidate> candidates = new ArrayList<>();
+        for (int position = 0; position < activePromotions.size(); position++) {
+            Promotion promotion = activePromotions.get(position);
+            if (promotion.getType() != Promotion.PromotionType.MINIMUM_PURCHASE
+                    || promotion.getFixedDiscountAmount() == null) {
+                continue;
+            }
+            long threshold = promotion.getMinimumPurchase() != null
+                    ? Money.ofCeiling(promotion.getMinimumPurchase())
+                    : Money.ZERO;
+            candidates.add(new Candidate(promotion, threshold, position));
+        }
+        if (candidates.isEmpty()) {
+            return EMPTY;
+        }
+        
+        // Orden estable por umbral; en empate de descuento gana la promoción definida primero
+        candidates.sort(Comparator.comparingLong(candidate -> candidate.threshold));
+        
+        long[] thresholds = new long[candidates.size()];
+        Promotion[] bestPromotions = new Promotion[candidates.size()];
+        Candidate best = null;
+        int tiers = 0;
+        
+        for (Candidate candidate : candidates) {
+            if (best == null || candidate.isBetterThan(best)) {
+                best = candidate;
+            }
+            if (tiers > 0 && thresholds[tiers - 1] == candidate.threshold) {
+                bestPromotions[tiers - 1] = best.promotion;
+            } else {
+                thresholds[tiers] = candidate.threshold;
+                bestPromotions[tiers] = best.promotion;
+                tiers++;
+            }
+        }
+        
+        return new MinimumPurchaseTiers(Arrays.copyOf(thresholds, tiers), Arrays.copyOf(bestPromotions, tiers));
+    }
+    
+    public Promotion bestFor(long subtotal) {
+        int index = Arrays.binarySearch(thresholds, subtotal);
+        if (index < 0) {
+            // Tramo con el mayor umbral menor o igual al subtotal
+            index = -index - 2;
+        }
+        return index >= 0 ? bestPromotions[index] : null;
+    }
+    
+    public int size() {
+        return thresholds.length;
+    }
+    
+    private static final class Candidate {
+        
+        private final Promotion promotion;
+        private final long threshold;
+        private final int position;
+        
+        private Candidate(Promotion promotion, long threshold, int position) {
+            this.promotion = promotion;
+            this.threshold = threshold;
+            this.position = position;
+        }
+        
+        private boolean isBetterThan(Candidate other) {
+            BigDecimal amount = promotion.getFixedDiscountAmount();
+            int comparison = amount.compareTo(other.promotion.getFixedDiscountAmount());
+            return comparison > 0 || (comparison == 0 && position < other.position);
+        }
+    }
+}
\ No newline at end of file
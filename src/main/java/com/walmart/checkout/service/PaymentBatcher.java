@@ -0,0 +1,178 @@
+package com.walmart.checkout.service;
+
+import com.walmart.checkout.model.PaymentMethod;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agrupa los pagos concurrentes en lotes y los envía al {@link PaymentProcessor}
+ * en un solo viaje. Un lote sale al juntar {@code max-batch-size} pagos o al
+ * cumplirse {@code linger} desde el primer pago del lote, lo que ocurra primero;
+ * luego cada checkout recibe el resultado de su propio pago, o la falla del
+ * procesador si el lote no obtuvo respuesta.
+ */
+@Component
+public class PaymentBatcher {
+    
+    static final int DEFAULT_MAX_BATCH_SIZE = 64;
+    static final Duration DEFAULT_LINGER = Duration.ofMillis(5);
+    
+    private final PaymentProcessor paymentProcessor;
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    
+    private final DistributionSummary batchSize;
+    private final DistributionSummary batchFillRatio;
+    private final Counter fullBatches;
+    private final Counter lingerBatches;
+    
+    private final ScheduledExecutorService lingerTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "payment-batcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    // Lote en formación; protegido por this
+    private List<PendingPayment> currentBatch;
+    private ScheduledFuture<?> currentLinger;
+    private long batchGeneration;
+    
+    @Autowired
+    public PaymentBatcher(PaymentProcessor paymentProcessor,
+                          @Value("${checkout.payment.batch.max-size:64}") int maxBatchSize,
+                          @Value("${checkout.payment.batch.linger:5ms}") Duration linger,
+                          MeterRegistry registry) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("checkout.payment.batch.max-size must be at least 1");
+        }
+        if (linger.isNegative()) {
+            throw new IllegalArgumentException("checkout.payment.batch.linger must not be negative");
+        }
+        this.paymentProcessor = paymentProcessor;
+        this.maxBatchSize = maxBatchSize;
+        this.lingerNanos = linger.toNanos();
+        this.currentBatch = new ArrayList<>(maxBatchSize);
+        
+        this.batchSize = DistributionSummary.builder("checkout.payment.batch.size")
+                .description("Payments sent to the processor per batch")
+                .baseUnit("payments")
+                .register(registry);
+        this.batchFillRatio = DistributionSummary.builder("checkout.payment.batch.fill")
+                .description("Batch size as a fraction of checkout.payment.batch.max-size")
+                .register(registry);
+        this.fullBatches = batchesCounter(registry, "size");
+        this.lingerBatches = batchesCounter(registry, "linger");
+    }
+    
+    public CompletableFuture<String> submit(long amount, PaymentMethod paymentMethod) {
+        PendingPayment payment = new PendingPayment(new PaymentProcessor.Payment(amount, paymentMethod));
+        List<PendingPayment> fullBatch = null;
+        
+        synchronized (this) {
+            currentBatch.add(payment);
+            if (currentBatch.size() >= maxBatchSize) {
+                fullBatch = takeCurrentBatch();
+            } else if (currentBatch.size() == 1) {
+                long generation = batchGeneration;
+                currentLinger = lingerTimer.schedule(() -> flushLingering(generation), lingerNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        
+        // El envío ocurre fuera del lock para no frenar a quienes siguen encolando
+        if (fullBatch != null) {
+            fullBatches.increment();
+            dispatch(fullBatch);
+        }
+        return payment.result;
+    }
+    
+    private void flushLingering(long generation) {
+        List<PendingPayment> batch;
+        synchronized (this) {
+            // El lote de esta generación ya salió por tamaño
+            if (generation != batchGeneration || currentBatch.isEmpty()) {
+                return;
+            }
+            batch = takeCurrentBatch();
+        }
+        lingerBatches.increment();
+        dispatch(batch);
+    }
+    
+    private List<PendingPayment> takeCurrentBatch() {
+        List<PendingPayment> batch = currentBatch;
+        currentBatch = new ArrayList<>(maxBatchSize);
+        batchGeneration++;
+        if (currentLinger != null) {
+            currentLinger.cancel(false);
+            currentLinger = null;
+        }
+        return batch;
+    }
+    
+    private void dispatch(List<PendingPayment> batch) {
+        batchSize.record(batch.size());
+        batchFillRatio.record((double) batch.size() / maxBatchSize);
+        
+        List<PaymentProcessor.Payment> payments = new ArrayList<>(batch.size());
+        for (PendingPayment pending : batch) {
+            payments.add(pending.payment);
+        }
+        
+        CompletableFuture<List<String>> authorization;
+        try {
+            authorization = paymentProcessor.authorize(payments);
+        } catch (RuntimeException e) {
+            authorization = CompletableFuture.failedFuture(e);
+        }
+        authorization.whenComplete((statuses, error) -> {
+            for (int i = 0; i < batch.size(); i++) {
+                CompletableFuture<String> result = batch.get(i).result;
+                // Un error del procesador o un lote sin respuesta para el pago se propaga como falla
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else if (statuses == null || i >= statuses.size()) {
+                    result.completeExceptionally(new IllegalStateException("Payment processor returned no status for payment " + i));
+                } else {
+                    result.complete(statuses.get(i));
+                }
+            }
+        });
+    }
+    
+    private static Counter batchesCounter(MeterRegistry registry, String trigger) {
+        return Counter.builder("checkout.payment.batches")
+                .description("Batches sent to the payment processor, by what triggered the flush")
+                .tag("trigger", trigger)
+                .register(registry);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        lingerTimer.shutdownNow();
+    }
+    
+    private static final class PendingPayment {
+        
+        private final PaymentProcessor.Payment payment;
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+        
+        private PendingPayment(PaymentProcessor.Payment payment) {
+            this.payment = payment;
+        }
+    }
+}
\ No newline at end of file
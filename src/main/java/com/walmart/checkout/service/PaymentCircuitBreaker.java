@@ -0,0 +1,183 @@
+package com.walmart.checkout.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker del procesador de pagos. Lleva una ventana deslizante con
+ * el resultado de las últimas llamadas; una llamada cuenta como mala si falló
+ * o si tardó más que {@code slow-call-duration}. Cuando la ventana está llena
+ * y la proporción de llamadas malas alcanza el umbral, el circuito se abre y
+ * los pagos se rechazan sin llegar al procesador. Pasado {@code open-duration}
+ * deja pasar unas pocas llamadas de prueba antes de volver a cerrarse.
+ */
+@Component
+public class PaymentCircuitBreaker {
+    
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+    
+    static final int DEFAULT_WINDOW_SIZE = 50;
+    static final int DEFAULT_FAILURE_RATE_THRESHOLD = 50;
+    static final Duration DEFAULT_SLOW_CALL_DURATION = Duration.ofSeconds(1);
+    static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(10);
+    static final int DEFAULT_HALF_OPEN_CALLS = 5;
+    
+    private final int failureRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoClock;
+    
+    private final Map<State, Counter> transitions = new EnumMap<>(State.class);
+    private final Counter rejectedCalls;
+    
+    // Ventana circular de resultados (true = llamada mala); protegida por this
+    private final boolean[] window;
+    private int windowCount;
+    private int nextSlot;
+    private int badCalls;
+    
+    private volatile State state = State.CLOSED;
+    private volatile long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+    
+    @Autowired
+    public PaymentCircuitBreaker(@Value("${checkout.payment.circuit.window-size:50}") int windowSize,
+                                 @Value("${checkout.payment.circuit.failure-rate-threshold:50}") int failureRateThreshold,
+                                 @Value("${checkout.payment.circuit.slow-call-duration:1s}") Duration slowCallDuration,
+                                 @Value("${checkout.payment.circuit.open-duration:10s}") Duration openDuration,
+                                 @Value("${checkout.payment.circuit.half-open-calls:5}") int halfOpenCalls,
+                                 MeterRegistry registry) {
+        this(windowSize, failureRateThreshold, slowCallDuration, openDuration, halfOpenCalls, registry, System::nanoTime);
+    }
+    
+    PaymentCircuitBreaker(int windowSize, int failureRateThreshold, Duration slowCallDuration, Duration openDuration,
+                          int halfOpenCalls, MeterRegistry registry, LongSupplier nanoClock) {
+        if (windowSize < 1 || halfOpenCalls < 1) {
+            throw new IllegalArgumentException("checkout.payment.circuit window-size and half-open-calls must be at least 1");
+        }
+        if (failureRateThreshold < 1 || failureRateThreshold > 100) {
+            throw new IllegalArgumentException("checkout.payment.circuit.failure-rate-threshold must be between 1 and 100");
+        }
+        this.window = new boolean[windowSize];
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = slowCallDuration.toNanos();
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.nanoClock = nanoClock;
+        
+        Gauge.builder("checkout.payment.circuit.state", this, breaker -> breaker.state.ordinal())
+                .description("Payment circuit breaker state: 0 closed, 1 open, 2 half open")
+                .register(registry);
+        for (State target : State.values()) {
+            transitions.put(target, Counter.builder("checkout.payment.circuit.transitions")
+                    .description("Payment circuit breaker state transitions, by target state")
+                    .tag("state", target.name().toLowerCase())
+                    .register(registry));
+        }
+        this.rejectedCalls = Counter.builder("checkout.payment.circuit.rejected")
+                .description("Payments rejected without calling the processor because the circuit was open")
+                .register(registry);
+    }
+    
+    public State getState() {
+        return state;
+    }
+    
+    // Lectura sin lock para rechazar de inmediato mientras el circuito sigue abierto
+    public boolean allowsCalls() {
+        if (state == State.OPEN && nanoClock.getAsLong() - openedAt < openNanos) {
+            rejectedCalls.increment();
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Indica si la llamada puede ir al procesador. Cada llamada permitida
+     * debe informar su resultado con {@link #record(boolean, long)}.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAt < openNanos) {
+                rejectedCalls.increment();
+                return false;
+            }
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                rejectedCalls.increment();
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+    
+    public synchronized void record(boolean success, long elapsedNanos) {
+        boolean bad = !success || elapsedNanos >= slowCallNanos;
+        
+        if (state == State.HALF_OPEN) {
+            if (bad) {
+                open();
+            } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                resetWindow();
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        // Llamadas que empezaron antes de abrir el circuito no cambian la decisión
+        if (state == State.OPEN) {
+            return;
+        }
+        
+        if (windowCount == window.length) {
+            if (window[nextSlot]) {
+                badCalls--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[nextSlot] = bad;
+        if (bad) {
+            badCalls++;
+        }
+        nextSlot = (nextSlot + 1) % window.length;
+        
+        if (windowCount == window.length && badCalls * 100L >= (long) failureRateThreshold * windowCount) {
+            open();
+        }
+    }
+    
+    private void open() {
+        openedAt = nanoClock.getAsLong();
+        resetWindow();
+        transitionTo(State.OPEN);
+    }
+    
+    private void resetWindow() {
+        windowCount = 0;
+        nextSlot = 0;
+        badCalls = 0;
+    }
+    
+    private void transitionTo(State target) {
+        state = target;
+        transitions.get(target).increment();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.walmart.checkout.service;
+
+import com.walmart.checkout.model.PaymentMethod;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Procesador de pagos que autoriza lotes completos en un solo viaje.
+ * El resultado i-ésimo ("CONFIRMED", "FAILED" o "PENDING" si su viaje no tuvo
+ * respuesta) corresponde al pago i-ésimo del lote.
+ */
+public interface PaymentProcessor {
+    
+    CompletableFuture<List<String>> authorize(List<Payment> payments);
+    
+    final class Payment {
+        
+        private final long amount;
+        private final PaymentMethod paymentMethod;
+        
+        public Payment(long amount, PaymentMethod paymentMethod) {
+            this.amount = amount;
+            this.paymentMethod = paymentMethod;
+        }
+        
+        public long getAmount() {
+            return amount;
+        }
+        
+        public PaymentMethod getPaymentMethod() {
+            return paymentMethod;
+        }
+    }
+}
\ No newline at end of file
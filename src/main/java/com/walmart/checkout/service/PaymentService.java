@@ -1,33 +1,153 @@
 package com.walmart.checkout.service;
 
 import com.walmart.checkout.model.PaymentMethod;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-import java.util.Random;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 public class PaymentService {
     
-    private final Random random = new Random();
+    // El procesador no respondió a tiempo: el cobro pudo o no haberse realizado
+    public static final String PENDING = "PENDING";
     
-    public String processPayment(BigDecimal amount, PaymentMethod paymentMethod) {
-        // Simular procesamiento de pago
+    private static final int DEFAULT_MAX_IN_FLIGHT = 1024;
+    private static final int DEFAULT_MAX_QUEUED = 4096;
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(2);
+    
+    private final Semaphore inFlightPermits;
+    // Pagos admitidos (en vuelo o en cola): max-in-flight + max-queued
+    private final Semaphore admissionPermits;
+    private final Queue<Runnable> waitingPayments = new ConcurrentLinkedQueue<>();
+    private final long timeoutNanos;
+    private final PaymentBatcher paymentBatcher;
+    private final PaymentCircuitBreaker circuitBreaker;
+    
+    public PaymentService() {
+        // Fuera de Spring: simulador local y medidores no-op
+        this(DEFAULT_MAX_IN_FLIGHT, DEFAULT_MAX_QUEUED, DEFAULT_TIMEOUT,
+                new PaymentBatcher(new SimulatedPaymentProcessor(),
+                        PaymentBatcher.DEFAULT_MAX_BATCH_SIZE, PaymentBatcher.DEFAULT_LINGER, new CompositeMeterRegistry()),
+                new PaymentCircuitBreaker(PaymentCircuitBreaker.DEFAULT_WINDOW_SIZE,
+                        PaymentCircuitBreaker.DEFAULT_FAILURE_RATE_THRESHOLD, PaymentCircuitBreaker.DEFAULT_SLOW_CALL_DURATION,
+                        PaymentCircuitBreaker.DEFAULT_OPEN_DURATION, PaymentCircuitBreaker.DEFAULT_HALF_OPEN_CALLS,
+                        new CompositeMeterRegistry()));
+    }
+    
+    @Autowired
+    public PaymentService(@Value("${checkout.payment.max-in-flight:1024}") int maxInFlight,
+                          @Value("${checkout.payment.max-queued:4096}") int maxQueued,
+                          @Value("${checkout.payment.timeout:2s}") Duration timeout,
+                          PaymentBatcher paymentBatcher,
+                          PaymentCircuitBreaker circuitBreaker) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("checkout.payment.max-in-flight must be at least 1");
+        }
+        if (maxQueued < 0) {
+            throw new IllegalArgumentException("checkout.payment.max-queued must not be negative");
+        }
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("checkout.payment.timeout must be positive");
+        }
+        this.inFlightPermits = new Semaphore(maxInFlight);
+        this.admissionPermits = new Semaphore((int) Math.min(Integer.MAX_VALUE, (long) maxInFlight + maxQueued));
+        this.timeoutNanos = timeout.toNanos();
+        this.paymentBatcher = paymentBatcher;
+        this.circuitBreaker = circuitBreaker;
+    }
+    
+    public String processPayment(long amount, PaymentMethod paymentMethod) {
         try {
-            // Simular tiempo de procesamiento
-            Thread.sleep(100);
-            
-            // Simular éxito/falla (95% tasa de éxito)
-            boolean success = random.nextDouble() < 0.95;
-            
-            if (success) {
-                return "CONFIRMED";
-            } else {
-                return "FAILED";
-            }
+            return processPaymentAsync(amount, paymentMethod).get();
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             return "FAILED";
+        } catch (ExecutionException e) {
+            return "FAILED";
+        }
+    }
+    
+    /**
+     * Procesa el pago con un plazo de {@code checkout.payment.timeout}. Devuelve
+     * {@code FAILED} sin cobrar si el circuito está abierto, si la cola de espera
+     * está llena o si el plazo vence antes de enviar el pago; {@code PENDING} si
+     * el pago ya se envió y el procesador no respondió a tiempo.
+     */
+    public CompletableFuture<String> processPaymentAsync(long amount, PaymentMethod paymentMethod) {
+        if (!circuitBreaker.allowsCalls()) {
+            return CompletableFuture.completedFuture("FAILED");
+        }
+        // Bulkhead: con todos los cupos ocupados solo se aceptan max-queued pagos en espera.
+        // La admisión se reserva de forma atómica; se devuelve cuando el pago termina
+        if (!admissionPermits.tryAcquire()) {
+            return CompletableFuture.completedFuture("FAILED");
+        }
+        
+        long deadline = System.nanoTime() + timeoutNanos;
+        CompletableFuture<String> result = new CompletableFuture<>();
+        // Quien marque primero el pago decide: el envío al procesador o el vencimiento en cola
+        AtomicBoolean claimed = new AtomicBoolean();
+        
+        // Los pagos que exceden el límite esperan en cola sin ocupar hilos
+        waitingPayments.add(() -> startPayment(amount, paymentMethod, result, claimed, deadline));
+        drainWaitingPayments();
+        
+        return result.orTimeout(timeoutNanos, TimeUnit.NANOSECONDS)
+                .exceptionally(error -> claimed.compareAndSet(false, true) ? "FAILED" : PENDING);
+    }
+    
+    public int getAvailablePaymentSlots() {
+        return inFlightPermits.availablePermits();
+    }
+    
+    public PaymentCircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+    
+    private void startPayment(long amount, PaymentMethod paymentMethod, CompletableFuture<String> result,
+                              AtomicBoolean claimed, long deadline) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0 || !claimed.compareAndSet(false, true) || !circuitBreaker.tryAcquire()) {
+            result.complete("FAILED");
+            inFlightPermits.release();
+            admissionPermits.release();
+            return;
+        }
+        
+        // El pago viaja al procesador junto con los demás pagos concurrentes; el plazo
+        // también libera el cupo y cuenta como falla si el procesador nunca responde
+        long start = System.nanoTime();
+        paymentBatcher.submit(amount, paymentMethod)
+                .orTimeout(remaining, TimeUnit.NANOSECONDS)
+                .whenComplete((status, error) -> {
+                    // Un viaje sin respuesta cuenta como falla aunque el lote haya terminado
+                    circuitBreaker.record(error == null && !PENDING.equals(status), System.nanoTime() - start);
+                    inFlightPermits.release();
+                    admissionPermits.release();
+                    result.complete(error == null ? status : error instanceof TimeoutException ? PENDING : "FAILED");
+                    drainWaitingPayments();
+                });
+    }
+    
+    private void drainWaitingPayments() {
+        while (!waitingPayments.isEmpty() && inFlightPermits.tryAcquire()) {
+            Runnable payment = waitingPayments.poll();
+            if (payment == null) {
+                inFlightPermits.release();
+                return;
+            }
+            payment.run();
         }
     }
     
@@ -0,0 +1,20 @@
+package com.walmart.checkout.service;
+
+import com.walmart.checkout.model.Product;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Origen inmutable de productos detrás de {@link ProductService}. Las vistas
+ * devueltas son de solo lectura y se comparten entre requests.
+ */
+interface ProductCatalog {
+    
+    // null si el SKU no existe
+    Product findById(String productId);
+    
+    Map<String, Product> asMap();
+    
+    Map<String, List<Product>> groupedByCategory();
+}
\ No newline at end of file
@@ -1,42 +1,76 @@
 package com.walmart.checkout.service;
 
 import com.walmart.checkout.model.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
-import java.util.ArrayList;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class ProductService {
     
-    private final Map<String, Product> productCatalog;
+    private final AtomicLong catalogVersions = new AtomicLong();
+    private volatile Catalog catalog;
     
     public ProductService() {
-        this.productCatalog = initializeProductCatalog();
+        this("");
+    }
+    
+    @Autowired
+    public ProductService(@Value("${checkout.catalog.file:}") String catalogFile) {
+        if (catalogFile.isEmpty()) {
+            loadProducts(initializeProductCatalog().values());
+        } else {
+            loadCatalogFile(Paths.get(catalogFile));
+        }
+    }
+    
+    public void loadProducts(Collection<Product> products) {
+        publish(new InMemoryProductCatalog(products));
+    }
+    
+    /**
+     * Publica un catálogo binario mapeado en memoria (ver {@link MappedProductCatalog}).
+     * Abrirlo solo valida el encabezado: los productos se decodifican al buscarlos.
+     */
+    public void loadCatalogFile(Path file) {
+        try {
+            publish(MappedProductCatalog.open(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load product catalog " + file, e);
+        }
+    }
+    
+    public long getCatalogVersion() {
+        return catalog.version;
     }
     
     public Optional<Product> findById(String productId) {
-        return Optional.ofNullable(productCatalog.get(productId));
+        return Optional.ofNullable(catalog.products.findById(productId));
     }
     
     public Map<String, Product> getAllProducts() {
-        return new HashMap<>(productCatalog);
+        return catalog.products.asMap();
     }
     
     public Map<String, List<Product>> getProductsGroupedByCategory() {
-        Map<String, List<Product>> groupedProducts = new HashMap<>();
-        
-        for (Product product : productCatalog.values()) {
-            String category = product.getCategory();
-            groupedProducts.computeIfAbsent(category, k -> new ArrayList<>()).add(product);
-        }
-        
-        return groupedProducts;
+        return catalog.products.groupedByCategory();
+    }
+    
+    private void publish(ProductCatalog products) {
+        // El catálogo se publica completo con una nueva versión
+        this.catalog = new Catalog(catalogVersions.incrementAndGet(), products);
     }
     
     private Map<String, Product> initializeProductCatalog() {
@@ -90,4 +124,16 @@ public class ProductService {
                 
         return catalog;
     }
+    
+    // Vista inmutable del catálogo; se reemplaza completa en cada carga
+    private static final class Catalog {
+        
+        private final long version;
+        private final ProductCatalog products;
+        
+        private Catalog(long version, ProductCatalog products) {
+            this.version = version;
+            this.products = products;
+        }
+    }
 }
\ No newline at end of file
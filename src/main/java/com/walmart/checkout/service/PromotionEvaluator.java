@@ -0,0 +1,124 @@
+package com.walmart.checkout.service;
+
+import com.walmart.checkout.model.Money;
+import com.walmart.checkout.model.Promotion;
+
+import java.math.BigDecimal;
+
+/**
+ * Promoción compilada para evaluarse por línea del carrito. Los parámetros
+ * se validan, se desempaquetan y se escalan una sola vez al construir el
+ * índice, de modo que evaluar es aritmética sobre {@code long} sin
+ * {@code switch} ni {@link BigDecimal}.
+ */
+abstract class PromotionEvaluator {
+    
+    static final PromotionEvaluator[] NONE = new PromotionEvaluator[0];
+    
+    private final Promotion promotion;
+    
+    private PromotionEvaluator(Promotion promotion) {
+        this.promotion = promotion;
+    }
+    
+    final Promotion getPromotion() {
+        return promotion;
+    }
+    
+    abstract long discount(long unitPrice, int quantity, long itemSubtotal);
+    
+    /**
+     * @return el evaluador de la promoción, o {@code null} si no descuenta por línea
+     *         (las de compra mínima se aplican a nivel de carrito)
+     */
+    static PromotionEvaluator compile(Promotion promotion) {
+        switch (required(promotion, promotion.getType(), "type")) {
+            case PERCENTAGE_DISCOUNT:
+                BigDecimal percentage = required(promotion, promotion.getDiscountPercentage(), "discountPercentage");
+                if (percentage.stripTrailingZeros().scale() > 2) {
+                    throw new IllegalArgumentException("Promotion " + promotion.getPromotionId()
+                            + " has more than two decimals in discountPercentage");
+                }
+                return new Percentage(promotion, Money.basisPoints(percentage));
+            case FIXED_AMOUNT_DISCOUNT:
+                BigDecimal amount = required(promotion, promotion.getFixedDiscountAmount(), "fixedDiscountAmount");
+                return new FixedAmount(promotion, Money.of(amount));
+            case BUY_X_GET_Y_FREE:
+                return new BuyXGetYFree(promotion,
+                        required(promotion, promotion.getRequiredQuantity(), "requiredQuantity"),
+                        required(promotion, promotion.getFreeQuantity(), "freeQuantity"));
+            case MINIMUM_PURCHASE:
+                required(promotion, promotion.getMinimumPurchase(), "minimumPurchase");
+                required(promotion, promotion.getFixedDiscountAmount(), "fixedDiscountAmount");
+                return null;
+            default:
+                return null;
+        }
+    }
+    
+    // Un campo obligatorio para el tipo de la promoción; si falta la carga falla nombrándolo
+    private static <T> T required(Promotion promotion, T value, String field) {
+        if (value == null) {
+            throw new IllegalArgumentException("Promotion " + promotion.getPromotionId() + " requires " + field);
+        }
+        return value;
+    }
+    
+    private static final class Percentage extends PromotionEvaluator {
+        
+        private final long basisPoints;
+        
+        private Percentage(Promotion promotion, long basisPoints) {
+            super(promotion);
+            this.basisPoints = basisPoints;
+        }
+        
+        @Override
+        long discount(long unitPrice, int quantity, long itemSubtotal) {
+            return Money.percentage(itemSubtotal, basisPoints);
+        }
+    }
+    
+    private static final class FixedAmount extends PromotionEvaluator {
+        
+        private final long amount;
+        
+        private FixedAmount(Promotion promotion, long amount) {
+            super(promotion);
+            this.amount = amount;
+        }
+        
+        @Override
+        long discount(long unitPrice, int quantity, long itemSubtotal) {
+            return amount;
+        }
+    }
+    
+    private static final class BuyXGetYFree extends PromotionEvaluator {
+        
+        private final int requiredQuantity;
+        private final int freeQuantity;
+        
+        private BuyXGetYFree(Promotion promotion, int requiredQuantity, int freeQuantity) {
+            super(promotion);
+            if (requiredQuantity < 1 || freeQuantity < 0) {
+                throw new IllegalArgumentException("Invalid quantities for promotion " + promotion.getPromotionId());
+            }
+            this.requiredQuantity = requiredQuantity;
+            this.freeQuantity = freeQuantity;
+        }
+        
+        @Override
+        long discount(long unitPrice, int quantity, long itemSubtotal) {
+            if (quantity < requiredQuantity) {
+                return Money.ZERO;
+            }
+            
+            // Calcular cuántos artículos gratis obtiene el cliente
+            long eligibleSets = quantity / requiredQuantity;
+            long totalFreeItems = Math.min(eligibleSets * freeQuantity, quantity);
+            
+            return Money.multiply(unitPrice, totalFreeItems);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,285 @@
+package com.walmart.checkout.service;
+
+import com.walmart.checkout.model.Promotion;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice inmutable de promociones activas por producto y por categoría.
+ * Se construye una sola vez al cargar las promociones y las búsquedas
+ * devuelven listas compartidas, de modo que cada línea del carrito cuesta
+ * O(promociones que aplican) en lugar de O(todas las promociones).
+ * Cada bucket guarda además sus promociones ya compiladas a evaluadores.
+ */
+final class PromotionIndex {
+    
+    private static final Applicable EMPTY = new Applicable(Collections.emptyList(), PromotionEvaluator.NONE);
+    
+    // Grupo implícito (bit 0): nunca se combinan dos promociones de compra mínima
+    private static final String MINIMUM_PURCHASE_GROUP = "\u0000minimum-purchase";
+    
+    private final long version;
+    private final List<Promotion> activePromotions;
+    private final Map<String, Applicable> byProductId;
+    private final Map<String, Applicable> byCategory;
+    private final Applicable appliesToAll;
+    private final MinimumPurchaseTiers minimumPurchaseTiers;
+    
+    // Solo se arman si alguna promoción activa declara grupos de exclusividad
+    private final Map<String, Promotion> exclusiveById;
+    private final List<Promotion> minimumPurchasePromotions;
+    // Grupos de cada una como máscara de bits, numerados al construir el índice
+    private final Map<String, long[]> groupMasks;
+    
+    // Posición original de cada promoción, para mantener el orden al combinar buckets
+    private final Map<Promotion, Integer> positions;
+    
+    // Evaluador de cada promoción activa (sin entrada si no descuenta por línea)
+    private final Map<Promotion, PromotionEvaluator> evaluators;
+    
+    // Combinaciones producto + categoría ya resueltas (acotado por los buckets existentes)
+    private final Map<String, Applicable> mergedLookups = new ConcurrentHashMap<>();
+    
+    private PromotionIndex(long version,
+                           List<Promotion> activePromotions,
+                           Map<String, List<Promotion>> byProductId,
+                           Map<String, List<Promotion>> byCategory,
+                           List<Promotion> appliesToAll,
+                           Map<Promotion, Integer> positions,
+                           Map<Promotion, PromotionEvaluator> evaluators) {
+        this.version = version;
+        this.activePromotions = activePromotions;
+        this.positions = positions;
+        this.evaluators = evaluators;
+        this.byProductId = freeze(byProductId);
+        this.byCategory = freeze(byCategory);
+        this.appliesToAll = applicable(appliesToAll);
+        this.minimumPurchaseTiers = MinimumPurchaseTiers.build(activePromotions);
+        
+        Map<String, Promotion> exclusive = new HashMap<>();
+        List<Promotion> minimumPurchase = new ArrayList<>();
+        for (Promotion promotion : activePromotions) {
+            if (promotion.getExclusivityGroups() != null && !promotion.getExclusivityGroups().isEmpty()) {
+                exclusive.put(promotion.getPromotionId(), promotion);
+            }
+            if (promotion.getType() == Promotion.PromotionType.MINIMUM_PURCHASE && promotion.getFixedDiscountAmount() != null) {
+                minimumPurchase.add(promotion);
+            }
+        }
+        this.exclusiveById = exclusive.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(exclusive);
+        this.minimumPurchasePromotions = exclusive.isEmpty() ? Collections.emptyList()
+                : Collections.unmodifiableList(minimumPurchase);
+        this.groupMasks = exclusive.isEmpty() ? Collections.emptyMap() : groupMasks(exclusive, minimumPurchase);
+    }
+    
+    private static Map<String, long[]> groupMasks(Map<String, Promotion> exclusive, List<Promotion> minimumPurchase) {
+        Map<String, Integer> groupIndexes = new HashMap<>();
+        groupIndexes.put(MINIMUM_PURCHASE_GROUP, 0);
+        for (Promotion promotion : exclusive.values()) {
+            for (String group : promotion.getExclusivityGroups()) {
+                groupIndexes.putIfAbsent(group, groupIndexes.size());
+            }
+        }
+        
+        int words = (groupIndexes.size() + 63) / 64;
+        Map<String, long[]> masks = new HashMap<>();
+        for (Promotion promotion : exclusive.values()) {
+            masks.put(promotion.getPromotionId(), new long[words]);
+        }
+        for (Promotion promotion : minimumPurchase) {
+            masks.computeIfAbsent(promotion.getPromotionId(), id -> new long[words])[0] |= 1L;
+        }
+        for (Promotion promotion : exclusive.values()) {
+            long[] mask = masks.get(promotion.getPromotionId());
+            for (String group : promotion.getExclusivityGroups()) {
+                int index = groupIndexes.get(group);
+                mask[index >>> 6] |= 1L << index;
+            }
+        }
+        return masks;
+    }
+    
+    static PromotionIndex build(List<Promotion> promotions, long version) {
+        List<Promotion> active = new ArrayList<>();
+        Map<String, List<Promotion>> byProductId = new HashMap<>();
+        Map<String, List<Promotion>> byCategory = new HashMap<>();
+        List<Promotion> appliesToAll = new ArrayList<>();
+        Map<Promotion, Integer> positions = new IdentityHashMap<>();
+        Map<Promotion, PromotionEvaluator> evaluators = new IdentityHashMap<>();
+        
+        for (Promotion promotion : promotions) {
+            if (!promotion.isActive()) {
+                continue;
+            }
+            positions.put(promotion, active.size());
+            active.add(promotion);
+            
+            // Una promoción mal configurada falla al cargar y no en medio de un checkout
+            PromotionEvaluator evaluator = PromotionEvaluator.compile(promotion);
+            if (evaluator != null) {
+                evaluators.put(promotion, evaluator);
+            }
+            
+            boolean hasProducts = promotion.getApplicableProductIds() != null
+                    && !promotion.getApplicableProductIds().isEmpty();
+            boolean hasCategories = promotion.getApplicableCategories() != null
+                    && !promotion.getApplicableCategories().isEmpty();
+            
+            // Si no hay productos o categorías específicas definidas, la promoción aplica a todos
+            if (!hasProducts && !hasCategories) {
+                appliesToAll.add(promotion);
+                continue;
+            }
+            if (hasProducts) {
+                addToBucket(byProductId, promotion.getApplicableProductIds(), promotion);
+            }
+            if (hasCategories) {
+                addToBucket(byCategory, promotion.getApplicableCategories(), promotion);
+            }
+        }
+        
+        return new PromotionIndex(
+                version,
+                Collections.unmodifiableList(active),
+                byProductId,
+                byCategory,
+                appliesToAll,
+                positions,
+                evaluators);
+    }
+    
+    long getVersion() {
+        return version;
+    }
+    
+    List<Promotion> getActivePromotions() {
+        return activePromotions;
+    }
+    
+    MinimumPurchaseTiers getMinimumPurchaseTiers() {
+        return minimumPurchaseTiers;
+    }
+    
+    boolean hasExclusivityGroups() {
+        return !exclusiveById.isEmpty();
+    }
+    
+    // Promoción activa con grupos de exclusividad, o null si se suma con todas
+    Promotion findExclusive(String promotionId) {
+        return exclusiveById.get(promotionId);
+    }
+    
+    List<Promotion> getMinimumPurchasePromotions() {
+        return minimumPurchasePromotions;
+    }
+    
+    // Máscara de grupos de una promoción exclusiva o de compra mínima; todas del mismo largo
+    long[] getGroupMask(String promotionId) {
+        return groupMasks.get(promotionId);
+    }
+    
+    List<Promotion> getApplicablePromotions(String productId, String category) {
+        return lookup(productId, category).promotions;
+    }
+    
+    PromotionEvaluator[] getApplicableEvaluators(String productId, String category) {
+        return lookup(productId, category).evaluators;
+    }
+    
+    private Applicable lookup(String productId, String category) {
+        Applicable productBucket = productId != null ? byProductId.get(productId) : null;
+        Applicable categoryBucket = category != null ? byCategory.get(category) : null;
+        
+        // Caminos rápidos: un solo bucket no vacío se devuelve tal cual
+        if (productBucket == null && categoryBucket == null) {
+            return appliesToAll;
+        }
+        if (appliesToAll.promotions.isEmpty()) {
+            if (categoryBucket == null) {
+                return productBucket;
+            }
+            if (productBucket == null) {
+                return categoryBucket;
+            }
+        }
+        
+        String key = (productBucket != null ? productId : "") + '\u0000' + (categoryBucket != null ? category : "");
+        return mergedLookups.computeIfAbsent(key, k -> merge(productBucket, categoryBucket));
+    }
+    
+    private Applicable merge(Applicable productBucket, Applicable categoryBucket) {
+        Promotion[] slots = new Promotion[activePromotions.size()];
+        int count = place(slots, productBucket) + place(slots, categoryBucket) + place(slots, appliesToAll);
+        
+        List<Promotion> merged = new ArrayList<>(count);
+        for (Promotion promotion : slots) {
+            if (promotion != null) {
+                merged.add(promotion);
+            }
+        }
+        return applicable(merged);
+    }
+    
+    private int place(Promotion[] slots, Applicable bucket) {
+        if (bucket == null) {
+            return 0;
+        }
+        int placed = 0;
+        for (Promotion promotion : bucket.promotions) {
+            int position = positions.get(promotion);
+            if (slots[position] == null) {
+                slots[position] = promotion;
+                placed++;
+            }
+        }
+        return placed;
+    }
+    
+    private Applicable applicable(List<Promotion> promotions) {
+        if (promotions.isEmpty()) {
+            return EMPTY;
+        }
+        List<PromotionEvaluator> compiled = new ArrayList<>(promotions.size());
+        for (Promotion promotion : promotions) {
+            PromotionEvaluator evaluator = evaluators.get(promotion);
+            if (evaluator != null) {
+                compiled.add(evaluator);
+            }
+        }
+        return new Applicable(Collections.unmodifiableList(promotions), compiled.toArray(PromotionEvaluator.NONE));
+    }
+    
+    private Map<String, Applicable> freeze(Map<String, List<Promotion>> buckets) {
+        Map<String, Applicable> frozen = new HashMap<>(buckets.size() * 2);
+        buckets.forEach((key, bucket) -> frozen.put(key, applicable(bucket)));
+        return Collections.unmodifiableMap(frozen);
+    }
+    
+    private static void addToBucket(Map<String, List<Promotion>> buckets, List<String> keys, Promotion promotion) {
+        for (String key : keys) {
+            List<Promotion> bucket = buckets.computeIfAbsent(key, k -> new ArrayList<>());
+            // Evitar duplicados si la promoción repite la misma clave
+            if (bucket.isEmpty() || bucket.get(bucket.size() - 1) != promotion) {
+                bucket.add(promotion);
+            }
+        }
+    }
+    
+    // Promociones aplicables y sus evaluadores en el mismo orden (el arreglo no se modifica)
+    private static final class Applicable {
+        
+        private final List<Promotion> promotions;
+        private final PromotionEvaluator[] evaluators;
+        
+        private Applicable(List<Promotion> promotions, PromotionEvaluator[] evaluators) {
+            this.promotions = promotions;
+            this.evaluators = evaluators;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,276 @@
+package com.walmart.checkout.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Elige la combinación de promociones con mayor descuento total sin repetir
+ * grupos de exclusividad (empaquetamiento de conjuntos con peso). Primero
+ * descarta las candidatas dominadas: si otra tiene un subconjunto de sus
+ * grupos y descuenta al menos lo mismo, siempre conviene la otra. Con las
+ * restantes arma una solución voraz y luego la mejora con ramificación y
+ * acotamiento; si se acaba el presupuesto de tiempo devuelve la mejor
+ * encontrada, que nunca es peor que la voraz.
+ *
+ * <p>La cota de cada nodo reparte el descuento de cada candidata en partes
+ * iguales entre sus grupos y suma, por cada grupo libre, la mayor parte de una
+ * candidata compatible que lo use: como cada grupo se usa una sola vez,
+ * ninguna combinación puede superarla.
+ */
+final class PromotionOptimizer {
+    
+    // Cada cuántos nodos se consulta el reloj
+    private static final int CLOCK_CHECK_INTERVAL = 16;
+    
+    // Hasta cuántos grupos por candidata se buscan dominantes enumerando subconjuntos
+    private static final int MAX_SUBSET_BITS = 10;
+    
+    private final long[] values;
+    private final long[][] groups;
+    private final long budgetNanos;
+    private final LongSupplier nanoClock;
+    
+    // Candidatas no dominadas ordenadas por descuento descendente
+    private int[] order;
+    private boolean[] best;
+    private long bestValue;
+    private boolean[] current;
+    // Descuento de cada candidata dividido por su cantidad de grupos
+    private double[] shares;
+    private double[] groupBest;
+    private long deadline;
+    private int nodes;
+    private boolean timedOut;
+    
+    /**
+     * @param values descuento de cada candidata
+     * @param groups grupos de cada candidata como máscara de bits (mismo largo para todas)
+     */
+    PromotionOptimizer(long[] values, long[][] groups, long budgetNanos, LongSupplier nanoClock) {
+        this.values = values;
+        this.groups = groups;
+        this.budgetNanos = budgetNanos;
+        this.nanoClock = nanoClock;
+    }
+    
+    /**
+     * @return {@code true} en las candidatas elegidas
+     */
+    boolean[] optimize() {
+        // El presupuesto cubre también el descarte de dominadas
+        deadline = nanoClock.getAsLong() + budgetNanos;
+        order = undominated();
+        best = new boolean[values.length];
+        current = new boolean[values.length];
+        shares = new double[values.length];
+        for (int candidate : order) {
+            shares[candidate] = (double) values[candidate] / groupCount(groups[candidate]);
+        }
+        groupBest = new double[words() * 64];
+        
+        // La voraz es la respuesta mínima garantizada y la primera cota inferior
+        long[] used = new long[words()];
+        for (int candidate : order) {
+            if (!conflicts(used, groups[candidate])) {
+                take(used, groups[candidate]);
+                best[candidate] = true;
+                bestValue += values[candidate];
+            }
+        }
+        
+        if (budgetNanos > 0 && nanoClock.getAsLong() - deadline < 0) {
+            search(0, new long[words()], 0);
+        } else {
+            timedOut = order.length > 1;
+        }
+        return best;
+    }
+    
+    /**
+     * @return {@code true} si la búsqueda terminó y la combinación es la óptima
+     */
+    boolean isOptimal() {
+        return !timedOut;
+    }
+    
+    private void search(int position, long[] used, long value) {
+        if (value > bestValue) {
+            bestValue = value;
+            best = current.clone();
+        }
+        if (position == order.length || timedOut) {
+            return;
+        }
+        if (++nodes % CLOCK_CHECK_INTERVAL == 0 && nanoClock.getAsLong() - deadline > 0) {
+            timedOut = true;
+            return;
+        }
+        if (value + bound(position, used) <= bestValue) {
+            return;
+        }
+        
+        int candidate = order[position];
+        if (!conflicts(used, groups[candidate])) {
+            long[] taken = used.clone();
+            take(taken, groups[candidate]);
+            current[candidate] = true;
+            search(position + 1, taken, value + values[candidate]);
+            current[candidate] = false;
+        }
+        search(position + 1, used, value);
+    }
+    
+    private long bound(int position, long[] used) {
+        Arrays.fill(groupBest, 0);
+        for (int i = position; i < order.length; i++) {
+            int candidate = order[i];
+            if (conflicts(used, groups[candidate])) {
+                continue;
+            }
+            long[] mask = groups[candidate];
+            for (int word = 0; word < mask.length; word++) {
+                for (long bits = mask[word]; bits != 0; bits &= bits - 1) {
+                    int group = word * 64 + Long.numberOfTrailingZeros(bits);
+                    groupBest[group] = Math.max(groupBest[group], shares[candidate]);
+                }
+            }
+        }
+        double bound = 0;
+        for (double share : groupBest) {
+            bound += share;
+        }
+        // Hacia arriba: el redondeo no puede podar la combinación óptima
+        return (long) Math.ceil(bound * (1 + 1e-12));
+    }
+    
+    private int[] undominated() {
+        // Por máscara exacta queda solo la mejor (a igual descuento, la definida primero)
+        Map<Mask, Integer> bestByMask = new HashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] > 0) {
+                bestByMask.merge(new Mask(groups[i]), i, (a, b) -> values[b] > values[a] ? b : a);
+            }
+        }
+        
+        int[] kept = new int[bestByMask.size()];
+        int count = 0;
+        for (Map.Entry<Mask, Integer> entry : bestByMask.entrySet()) {
+            if (!isDominated(entry.getValue(), entry.getKey(), bestByMask)) {
+                kept[count++] = entry.getValue();
+            }
+        }
+        // Orden por descuento descendente; a igual descuento, la definida primero
+        return Arrays.stream(Arrays.copyOf(kept, count)).boxed()
+                .sorted((a, b) -> values[a] != values[b] ? Long.compare(values[b], values[a]) : Integer.compare(a, b))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+    
+    private boolean isDominated(int candidate, Mask mask, Map<Mask, Integer> bestByMask) {
+        int[] bits = mask.bits();
+        if (bits.length <= MAX_SUBSET_BITS) {
+            // Pocos grupos: se buscan las máscaras que son subconjuntos propios
+            long[] subset = new long[mask.words.length];
+            for (int combination = (1 << bits.length) - 2; combination >= 0; combination--) {
+                Arrays.fill(subset, 0);
+                for (int bit = 0; bit < bits.length; bit++) {
+                    if ((combination & (1 << bit)) != 0) {
+                        subset[bits[bit] >>> 6] |= 1L << bits[bit];
+                    }
+                }
+                Integer other = bestByMask.get(new Mask(subset));
+                if (other != null && dominates(other, candidate)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        for (Map.Entry<Mask, Integer> entry : bestByMask.entrySet()) {
+            int other = entry.getValue();
+            if (other != candidate && isSubset(entry.getKey().words, mask.words) && dominates(other, candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private boolean dominates(int other, int candidate) {
+        return values[other] > values[candidate] || (values[other] == values[candidate] && other < candidate);
+    }
+    
+    private int words() {
+        return values.length == 0 ? 0 : groups[0].length;
+    }
+    
+    private static int groupCount(long[] mask) {
+        int count = 0;
+        for (long word : mask) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+    
+    private static boolean isSubset(long[] subset, long[] superset) {
+        for (int i = 0; i < subset.length; i++) {
+            if ((subset[i] & ~superset[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static boolean conflicts(long[] used, long[] candidate) {
+        for (int i = 0; i < used.length; i++) {
+            if ((used[i] & candidate[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static void take(long[] used, long[] candidate) {
+        for (int i = 0; i < used.length; i++) {
+            used[i] |= candidate[i];
+        }
+    }
+    
+    // Máscara de grupos usable como clave
+    private static final class Mask {
+        
+        private final long[] words;
+        private final int hash;
+        
+        private Mask(long[] words) {
+            this.words = words;
+            // Arrays.hashCode choca mucho con pocos bits encendidos; se mezcla cada palabra
+            long mixed = 0;
+            for (long word : words) {
+                mixed = (mixed ^ word) * 0x9E3779B97F4A7C15L;
+            }
+            this.hash = (int) (mixed ^ (mixed >>> 32));
+        }
+        
+        private int[] bits() {
+            int[] bits = new int[groupCount(words)];
+            int next = 0;
+            for (int word = 0; word < words.length; word++) {
+                for (long remaining = words[word]; remaining != 0; remaining &= remaining - 1) {
+                    bits[next++] = word * 64 + Long.numberOfTrailingZeros(remaining);
+                }
+            }
+            return bits;
+        }
+        
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Mask && Arrays.equals(words, ((Mask) other).words);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
\ No newline at end of file
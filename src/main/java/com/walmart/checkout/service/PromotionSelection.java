@@ -0,0 +1,39 @@
+package com.walmart.checkout.service;
+
+import com.walmart.checkout.model.AppliedDiscount;
+
+import java.util.Set;
+
+/**
+ * Resultado de elegir promociones con grupos de exclusividad: qué descuentos
+ * por línea quedan fuera y cuál es el descuento de compra mínima elegido.
+ */
+final class PromotionSelection {
+    
+    private final Set<String> rejectedPromotionIds;
+    private final AppliedDiscount minimumPurchaseDiscount;
+    private final boolean optimal;
+    
+    PromotionSelection(Set<String> rejectedPromotionIds, AppliedDiscount minimumPurchaseDiscount, boolean optimal) {
+        this.rejectedPromotionIds = rejectedPromotionIds;
+        this.minimumPurchaseDiscount = minimumPurchaseDiscount;
+        this.optimal = optimal;
+    }
+    
+    boolean isApplied(AppliedDiscount discount) {
+        return !rejectedPromotionIds.contains(discount.getDiscountId());
+    }
+    
+    boolean rejectsAny() {
+        return !rejectedPromotionIds.isEmpty();
+    }
+    
+    AppliedDiscount getMinimumPurchaseDiscount() {
+        return minimumPurchaseDiscount;
+    }
+    
+    // false si se agotó el presupuesto de tiempo y quedó la mejor combinación encontrada
+    boolean isOptimal() {
+        return optimal;
+    }
+}
\ No newline at end of file
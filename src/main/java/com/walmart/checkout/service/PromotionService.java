@@ -1,50 +1,167 @@
 package com.walmart.checkout.service;
 
 import com.walmart.checkout.model.Promotion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PreDestroy;
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Promociones vigentes publicadas como un {@link PromotionIndex} inmutable.
+ * Las promociones con ventana de vigencia se resuelven fuera del request: al
+ * cargar se calcula el próximo cambio del conjunto activo, se arma su índice
+ * por adelantado y un timer lo publica en ese instante. Cada consulta es una
+ * lectura volátil del índice vigente.
+ */
 @Service
 public class PromotionService {
     
-    private final List<Promotion> activePromotions;
+    static final String DEFAULT_TIME_ZONE = "America/Santiago";
+    
+    private final Clock clock;
+    private final AtomicLong promotionVersions = new AtomicLong();
+    private volatile PromotionIndex promotionIndex;
+    
+    // Protegidos por this
+    private PromotionTimeline timeline;
+    private Instant nextChangeAt;
+    private PromotionIndex nextIndex;
+    private ScheduledFuture<?> nextSwitch;
+    private ScheduledExecutorService scheduler;
     
     public PromotionService() {
-        this.activePromotions = initializePromotions();
+        this(DEFAULT_TIME_ZONE);
+    }
+    
+    @Autowired
+    public PromotionService(@Value("${checkout.promotions.time-zone:" + DEFAULT_TIME_ZONE + "}") String timeZone) {
+        this(Clock.system(ZoneId.of(timeZone)));
+    }
+    
+    PromotionService(Clock clock) {
+        this.clock = clock;
+        loadPromotions(initializePromotions());
+    }
+    
+    public synchronized void loadPromotions(List<Promotion> promotions) {
+        // El índice se reconstruye completo y se publica de forma atómica; si algo falla sigue el anterior
+        PromotionTimeline loaded = new PromotionTimeline(new ArrayList<>(promotions), clock.getZone());
+        Instant now = clock.instant();
+        PromotionIndex index = PromotionIndex.build(loaded.activeAt(now), promotionVersions.incrementAndGet());
+        
+        this.timeline = loaded;
+        this.promotionIndex = index;
+        prepareNextChange(now);
+    }
+    
+    public long getPromotionVersion() {
+        return promotionIndex.getVersion();
     }
     
     public List<Promotion> getActivePromotions() {
-        return activePromotions.stream()
-                .filter(Promotion::isActive)
-                .collect(Collectors.toList());
+        return promotionIndex.getActivePromotions();
     }
     
     public List<Promotion> getApplicablePromotions(String productId, String category) {
-        return getActivePromotions().stream()
-                .filter(promotion -> isPromotionApplicable(promotion, productId, category))
-                .collect(Collectors.toList());
+        return promotionIndex.getApplicablePromotions(productId, category);
+    }
+    
+    /**
+     * @return el instante del próximo cambio programado del conjunto de promociones activas (o de la
+     *         próxima revisión, si el cambio está más allá del horizonte que se recorre), o {@code null}
+     */
+    public synchronized Instant getNextChangeAt() {
+        return nextChangeAt;
+    }
+    
+    boolean hasExclusivityGroups() {
+        return promotionIndex.hasExclusivityGroups();
+    }
+    
+    // Las búsquedas de una misma selección de exclusivas deben ver un solo índice
+    PromotionIndex getPromotionIndex() {
+        return promotionIndex;
     }
     
-    private boolean isPromotionApplicable(Promotion promotion, String productId, String category) {
-        // Verificar si la promoción aplica a producto específico
-        if (promotion.getApplicableProductIds() != null && 
-            promotion.getApplicableProductIds().contains(productId)) {
-            return true;
+    // Evaluadores compilados de las mismas promociones, sin las que no descuentan por línea
+    PromotionEvaluator[] getApplicableEvaluators(String productId, String category) {
+        return promotionIndex.getApplicableEvaluators(productId, category);
+    }
+    
+    public MinimumPurchaseTiers getMinimumPurchaseTiers() {
+        return promotionIndex.getMinimumPurchaseTiers();
+    }
+    
+    /**
+     * Publica el índice preparado si ya llegó su instante y prepara el
+     * siguiente. Lo llama el timer; si despierta antes de tiempo se reprograma.
+     */
+    synchronized void switchIfDue() {
+        if (nextChangeAt == null) {
+            return;
         }
-        
-        // Verificar si la promoción aplica a categoría del producto
-        if (promotion.getApplicableCategories() != null && 
-            promotion.getApplicableCategories().contains(category)) {
-            return true;
+        Instant now = clock.instant();
+        if (now.isBefore(nextChangeAt)) {
+            nextSwitch.cancel(false);
+            schedule(nextChangeAt);
+            return;
         }
-        
-        // Si no hay productos o categorías específicas definidas, la promoción aplica a todos
-        return (promotion.getApplicableProductIds() == null || promotion.getApplicableProductIds().isEmpty()) &&
-               (promotion.getApplicableCategories() == null || promotion.getApplicableCategories().isEmpty());
+        if (nextIndex != null) {
+            promotionIndex = nextIndex;
+        }
+        prepareNextChange(nextChangeAt);
+    }
+    
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+    
+    private void prepareNextChange(Instant after) {
+        if (nextSwitch != null) {
+            nextSwitch.cancel(false);
+            nextSwitch = null;
+        }
+        PromotionTimeline.NextChange next = timeline.nextChange(after);
+        if (next == null) {
+            nextChangeAt = null;
+            nextIndex = null;
+            return;
+        }
+        nextChangeAt = next.getAt();
+        // El índice se arma ahora, fuera del camino de los requests; el cambio solo lo publica.
+        // Una revisión sin cambio no publica nada ni cambia la versión
+        nextIndex = next.changesActiveSet()
+                ? PromotionIndex.build(timeline.activeAt(nextChangeAt), promotionVersions.incrementAndGet())
+                : null;
+        schedule(nextChangeAt);
+    }
+    
+    private void schedule(Instant at) {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "promotion-schedule");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        long delayMillis = Math.max(0, at.toEpochMilli() - clock.millis());
+        nextSwitch = scheduler.schedule(this::switchIfDue, delayMillis, TimeUnit.MILLISECONDS);
     }
     
     private List<Promotion> initializePromotions() {
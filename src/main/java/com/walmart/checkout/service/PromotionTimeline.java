@@ -0,0 +1,176 @@
+package com.walmart.checkout.service;
+
+import com.walmart.checkout.model.Promotion;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Línea de tiempo de las promociones cargadas: dice qué promociones están
+ * vigentes en un instante y cuándo cambia ese conjunto. Los bordes salen de
+ * {@code startsAt}/{@code endsAt} y del horario diario de cada promoción; los
+ * bordes que no cambian el conjunto activo (por ejemplo el horario diario de
+ * una promoción que todavía no empieza) se saltan.
+ */
+final class PromotionTimeline {
+    
+    // Tope de bordes a recorrer buscando un cambio real (dos por día durante más de un año)
+    private static final int MAX_BOUNDARIES = 1024;
+    
+    private final List<Promotion> promotions;
+    private final ZoneId zone;
+    
+    PromotionTimeline(List<Promotion> promotions, ZoneId zone) {
+        for (Promotion promotion : promotions) {
+            validate(promotion);
+        }
+        this.promotions = promotions;
+        this.zone = zone;
+    }
+    
+    List<Promotion> activeAt(Instant instant) {
+        List<Promotion> active = new ArrayList<>();
+        for (Promotion promotion : promotions) {
+            if (isActiveAt(promotion, instant)) {
+                active.add(promotion);
+            }
+        }
+        return active;
+    }
+    
+    /**
+     * Primer instante posterior a {@code after} en el que cambia el conjunto de
+     * promociones activas, o {@code null} si ya no cambia. Si el tope de bordes
+     * se agota sin cambios devuelve un punto de revisión, no un cambio.
+     */
+    NextChange nextChange(Instant after) {
+        boolean[] current = activeFlags(after);
+        Instant boundary = after;
+        for (int i = 0; i < MAX_BOUNDARIES; i++) {
+            boundary = nextBoundary(boundary);
+            if (boundary == null) {
+                return null;
+            }
+            if (!sameFlags(current, activeFlags(boundary))) {
+                return new NextChange(boundary, true);
+            }
+        }
+        // Sin cambio en el tope: se vuelve a mirar desde ahí
+        return new NextChange(boundary, false);
+    }
+    
+    private boolean isActiveAt(Promotion promotion, Instant instant) {
+        if (!promotion.isActive()) {
+            return false;
+        }
+        if (promotion.getStartsAt() != null && instant.isBefore(promotion.getStartsAt())) {
+            return false;
+        }
+        if (promotion.getEndsAt() != null && !instant.isBefore(promotion.getEndsAt())) {
+            return false;
+        }
+        if (promotion.getDailyStartTime() == null) {
+            return true;
+        }
+        LocalTime time = instant.atZone(zone).toLocalTime();
+        LocalTime start = promotion.getDailyStartTime();
+        LocalTime end = promotion.getDailyEndTime();
+        if (start.isBefore(end)) {
+            return !time.isBefore(start) && time.isBefore(end);
+        }
+        return !time.isBefore(start) || time.isBefore(end);
+    }
+    
+    private Instant nextBoundary(Instant after) {
+        Instant next = null;
+        for (Promotion promotion : promotions) {
+            // Las desactivadas o ya vencidas no vuelven a cambiar
+            if (!promotion.isActive() || (promotion.getEndsAt() != null && !after.isBefore(promotion.getEndsAt()))) {
+                continue;
+            }
+            next = earliest(next, after, promotion.getStartsAt());
+            next = earliest(next, after, promotion.getEndsAt());
+            if (promotion.getDailyStartTime() != null) {
+                next = earliest(next, after, nextDailyTime(after, promotion.getDailyStartTime()));
+                next = earliest(next, after, nextDailyTime(after, promotion.getDailyEndTime()));
+            }
+        }
+        return next;
+    }
+    
+    private Instant nextDailyTime(Instant after, LocalTime time) {
+        ZonedDateTime local = after.atZone(zone);
+        ZonedDateTime candidate = ZonedDateTime.of(local.toLocalDate(), time, zone);
+        if (!candidate.toInstant().isAfter(after)) {
+            candidate = ZonedDateTime.of(local.toLocalDate().plusDays(1), time, zone);
+        }
+        return candidate.toInstant();
+    }
+    
+    private static Instant earliest(Instant current, Instant after, Instant candidate) {
+        if (candidate == null || !candidate.isAfter(after)) {
+            return current;
+        }
+        return current == null || candidate.isBefore(current) ? candidate : current;
+    }
+    
+    private boolean[] activeFlags(Instant instant) {
+        boolean[] flags = new boolean[promotions.size()];
+        for (int i = 0; i < flags.length; i++) {
+            flags[i] = isActiveAt(promotions.get(i), instant);
+        }
+        return flags;
+    }
+    
+    private static boolean sameFlags(boolean[] a, boolean[] b) {
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] != b[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static void validate(Promotion promotion) {
+        if (promotion.getStartsAt() != null && promotion.getEndsAt() != null
+                && !promotion.getStartsAt().isBefore(promotion.getEndsAt())) {
+            throw new IllegalArgumentException("Promotion " + promotion.getPromotionId() + " ends before it starts");
+        }
+        if ((promotion.getDailyStartTime() == null) != (promotion.getDailyEndTime() == null)) {
+            throw new IllegalArgumentException("Promotion " + promotion.getPromotionId()
+                    + " needs both dailyStartTime and dailyEndTime");
+        }
+        if (promotion.getDailyStartTime() != null && promotion.getDailyStartTime().equals(promotion.getDailyEndTime())) {
+            throw new IllegalArgumentException("Promotion " + promotion.getPromotionId()
+                    + " has an empty daily window");
+        }
+        // Las programadas también se compilan ahora y no recién al entrar en vigencia
+        if (promotion.isActive()) {
+            PromotionEvaluator.compile(promotion);
+        }
+    }
+    
+    // Próximo instante a mirar: un cambio del conjunto activo o solo una revisión
+    static final class NextChange {
+        
+        private final Instant at;
+        private final boolean changesActiveSet;
+        
+        private NextChange(Instant at, boolean changesActiveSet) {
+            this.at = at;
+            this.changesActiveSet = changesActiveSet;
+        }
+        
+        Instant getAt() {
+            return at;
+        }
+        
+        boolean changesActiveSet() {
+            return changesActiveSet;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.walmart.checkout.service;
+
+import com.walmart.checkout.model.AppliedDiscount;
+
+import java.util.List;
+
+/**
+ * Render del resumen de checkout en formato es-CL ("$1.234.567 CLP") sin
+ * {@code String.format}: los dígitos se escriben directamente en un buffer
+ * reutilizado por hilo.
+ */
+final class ReceiptSummaryFormatter {
+    
+    private static final int INITIAL_CAPACITY = 256;
+    
+    // Buffers mayores (carritos con miles de descuentos) no se retienen entre requests
+    private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+    
+    private static final char GROUPING_SEPARATOR = '.';
+    
+    private static final ThreadLocal<StringBuilder> BUFFER =
+            ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_CAPACITY));
+    
+    private ReceiptSummaryFormatter() {
+    }
+    
+    static String format(long subtotal, List<AppliedDiscount> discounts, long totalDiscounts, long finalTotal) {
+        StringBuilder summary = BUFFER.get();
+        summary.setLength(0);
+        
+        summary.append("Checkout Summary:\nSubtotal: ");
+        appendClp(summary, subtotal).append('\n');
+        
+        if (!discounts.isEmpty()) {
+            summary.append("Discounts Applied:\n");
+            for (AppliedDiscount discount : discounts) {
+                summary.append("  - ").append(discount.getDiscountName()).append(": -");
+                appendClp(summary, discount.getAmount()).append('\n');
+            }
+            summary.append("Total Discounts: -");
+            appendClp(summary, totalDiscounts).append('\n');
+        }
+        
+        summary.append("Final Total: ");
+        appendClp(summary, finalTotal);
+        
+        String result = summary.toString();
+        if (summary.capacity() > MAX_RETAINED_CAPACITY) {
+            BUFFER.remove();
+        }
+        return result;
+    }
+    
+    static StringBuilder appendClp(StringBuilder out, long amount) {
+        if (amount < 0) {
+            out.append('-');
+        }
+        out.append('$');
+        appendGrouped(out, amount);
+        return out.append(" CLP");
+    }
+    
+    private static void appendGrouped(StringBuilder out, long amount) {
+        int start = out.length();
+        int digits = 0;
+        
+        // Dígitos en orden inverso; el resto negativo cubre también Long.MIN_VALUE
+        do {
+            if (digits > 0 && digits % 3 == 0) {
+                out.append(GROUPING_SEPARATOR);
+            }
+            out.append((char) ('0' + Math.abs(amount % 10)));
+            amount /= 10;
+            digits++;
+        } while (amount != 0);
+        
+        for (int left = start, right = out.length() - 1; left < right; left++, right--) {
+            char swap = out.charAt(left);
+            out.setCharAt(left, out.charAt(right));
+            out.setCharAt(right, swap);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,181 @@
+package com.walmart.checkout.service;
+
+import com.walmart.checkout.config.PaymentSimulatorProperties;
+import com.walmart.checkout.model.PaymentMethod;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Simulador local del adquirente con un perfil por método de pago
+ * ({@link PaymentSimulatorProperties}). Cada lote se divide por método y cada
+ * parte es un viaje al gateway de ese método: su latencia sale de la
+ * distribución configurada, cada pago se rechaza con {@code failure-rate} y con
+ * {@code timeout-rate} el viaje no responde: tras {@code timeout-duration} sus
+ * pagos quedan {@code PENDING} sin afectar a los otros viajes. El lote termina
+ * cuando terminan todos sus viajes. Por defecto cada viaje cuesta 100 ms y el 95% de los pagos
+ * se aprueba.
+ */
+@Component
+public class SimulatedPaymentProcessor implements PaymentProcessor {
+    
+    private final Map<PaymentMethod, Gateway> gateways = new EnumMap<>(PaymentMethod.class);
+    
+    private final ScheduledExecutorService connection = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "payment-processor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    public SimulatedPaymentProcessor() {
+        this(new PaymentSimulatorProperties());
+    }
+    
+    @Autowired
+    public SimulatedPaymentProcessor(PaymentSimulatorProperties properties) {
+        long seed = properties.getSeed() != null ? properties.getSeed() : new SecureRandom().nextLong();
+        // Un generador independiente por método, derivado de la semilla en orden fijo
+        SplittableRandom seeds = new SplittableRandom(seed);
+        for (PaymentMethod method : PaymentMethod.values()) {
+            PaymentSimulatorProperties.Profile profile = properties.profile(method);
+            validate(method, profile);
+            gateways.put(method, new Gateway(profile, seeds.split()));
+        }
+    }
+    
+    @Override
+    public CompletableFuture<List<String>> authorize(List<Payment> payments) {
+        Map<PaymentMethod, List<Integer>> byMethod = new EnumMap<>(PaymentMethod.class);
+        for (int i = 0; i < payments.size(); i++) {
+            byMethod.computeIfAbsent(payments.get(i).getPaymentMethod(), method -> new ArrayList<>()).add(i);
+        }
+        
+        CompletableFuture<List<String>> result = new CompletableFuture<>();
+        String[] statuses = new String[payments.size()];
+        AtomicInteger pendingTrips = new AtomicInteger(byMethod.size());
+        if (byMethod.isEmpty()) {
+            result.complete(new ArrayList<>());
+        }
+        for (Map.Entry<PaymentMethod, List<Integer>> entry : byMethod.entrySet()) {
+            gateways.get(entry.getKey()).send(entry.getValue(), statuses, () -> {
+                if (pendingTrips.decrementAndGet() == 0) {
+                    result.complete(Arrays.asList(statuses));
+                }
+            });
+        }
+        return result;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        connection.shutdownNow();
+    }
+    
+    static long sampleLatencyNanos(PaymentSimulatorProperties.Latency latency, SplittableRandom random) {
+        long median = latency.getMedian().toNanos();
+        double nanos;
+        switch (latency.getType()) {
+            case LOG_NORMAL:
+                nanos = median * Math.exp(latency.getSigma() * random.nextGaussian());
+                break;
+            case BIMODAL:
+                long center = random.nextDouble() < latency.getTailProbability() ? latency.getTailMedian().toNanos() : median;
+                nanos = center * Math.exp(latency.getSigma() * random.nextGaussian());
+                break;
+            default:
+                nanos = median;
+        }
+        return Math.min((long) nanos, latency.getMax().toNanos());
+    }
+    
+    private static void validate(PaymentMethod method, PaymentSimulatorProperties.Profile profile) {
+        String prefix = "checkout.payment.simulator profile for " + method + ": ";
+        if (profile.getFailureRate() < 0 || profile.getFailureRate() > 1
+                || profile.getTimeoutRate() < 0 || profile.getTimeoutRate() > 1) {
+            throw new IllegalArgumentException(prefix + "failure-rate and timeout-rate must be between 0 and 1");
+        }
+        PaymentSimulatorProperties.Latency latency = profile.getLatency();
+        if (latency.getMedian().isNegative() || latency.getTailMedian().isNegative() || latency.getSigma() < 0
+                || latency.getTailProbability() < 0 || latency.getTailProbability() > 1) {
+            throw new IllegalArgumentException(prefix + "invalid latency distribution");
+        }
+        if (profile.getMaxConcurrentRequests() < 0) {
+            throw new IllegalArgumentException(prefix + "max-concurrent-requests must not be negative");
+        }
+    }
+    
+    // Gateway de un método de pago: sorteos con su propio generador y límite de viajes simultáneos
+    private final class Gateway {
+        
+        private final PaymentSimulatorProperties.Profile profile;
+        private final SplittableRandom random;
+        
+        // Protegidos por this
+        private final Queue<Runnable> waiting = new ArrayDeque<>();
+        private int active;
+        
+        private Gateway(PaymentSimulatorProperties.Profile profile, SplittableRandom random) {
+            this.profile = profile;
+            this.random = random;
+        }
+        
+        private void send(List<Integer> indexes, String[] statuses, Runnable onAnswer) {
+            Runnable trip;
+            synchronized (this) {
+                // Todo se sortea al enviar, en el orden de llegada de los lotes
+                boolean timesOut = random.nextDouble() < profile.getTimeoutRate();
+                long latencyNanos = timesOut ? profile.getTimeoutDuration().toNanos()
+                        : sampleLatencyNanos(profile.getLatency(), random);
+                String[] answers = new String[indexes.size()];
+                for (int i = 0; i < answers.length; i++) {
+                    answers[i] = random.nextDouble() < profile.getFailureRate() ? "FAILED" : "CONFIRMED";
+                }
+                
+                trip = () -> connection.schedule(() -> {
+                    // Sin respuesta solo quedan en duda los pagos de este viaje
+                    for (int i = 0; i < answers.length; i++) {
+                        statuses[indexes.get(i)] = timesOut ? PaymentService.PENDING : answers[i];
+                    }
+                    onAnswer.run();
+                    release();
+                }, latencyNanos, TimeUnit.NANOSECONDS);
+                
+                int limit = profile.getMaxConcurrentRequests();
+                if (limit > 0 && active >= limit) {
+                    waiting.add(trip);
+                    return;
+                }
+                active++;
+            }
+            trip.run();
+        }
+        
+        private void release() {
+            Runnable next;
+            synchronized (this) {
+                next = waiting.poll();
+                if (next == null) {
+                    active--;
+                }
+            }
+            if (next != null) {
+                next.run();
+            }
+        }
+    }
+}
\ No newline at end of file
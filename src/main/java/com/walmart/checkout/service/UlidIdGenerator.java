@@ -0,0 +1,95 @@
+package com.walmart.checkout.service;
+
+import java.security.SecureRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Identificadores de 128 bits ordenados por tiempo, escritos como 26
+ * caracteres en base32 de Crockford (el formato de ULID): el orden
+ * lexicográfico del texto es el orden de creación al milisegundo, así que los
+ * índices reciben inserciones casi secuenciales en vez de aleatorias.
+ *
+ * <p>Bits: 48 de milisegundos, 16 del nodo, 16 del hilo y 48 de secuencia.
+ * Cada hilo lleva su propio estado (slot y secuencia, que parte de un valor
+ * aleatorio), así que generar un ID no toma locks ni toca estado compartido;
+ * solo el primer uso en cada hilo incrementa un contador atómico.
+ */
+public final class UlidIdGenerator implements IdGenerator {
+    
+    static final int MAX_NODE_ID = 0xFFFF;
+    
+    private static final char[] CROCKFORD = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final long SEQUENCE_MASK = (1L << 48) - 1;
+    private static final int ID_LENGTH = 26;
+    
+    private final long nodeId;
+    private final LongSupplier clock;
+    private final AtomicInteger nextThreadSlot = new AtomicInteger();
+    private final ThreadLocal<ThreadState> threadState = ThreadLocal.withInitial(this::newThreadState);
+    
+    /**
+     * @param nodeId identificador del nodo entre 0 y 65535; debe ser distinto
+     *               en cada instancia del servicio para garantizar unicidad
+     */
+    public UlidIdGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+    
+    UlidIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("checkout.id.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+    
+    // Sin node-id configurado se elige uno al azar: único con alta probabilidad en clústeres chicos
+    public static int randomNodeId() {
+        return new SecureRandom().nextInt(MAX_NODE_ID + 1);
+    }
+    
+    @Override
+    public String nextId() {
+        ThreadState state = threadState.get();
+        long now = clock.getAsLong();
+        // Si el reloj retrocede se mantiene el último instante: los IDs del hilo no pierden el orden
+        if (now > state.lastMillis) {
+            state.lastMillis = now;
+        }
+        long sequence = state.sequence = (state.sequence + 1) & SEQUENCE_MASK;
+        
+        long high = state.lastMillis << 16 | nodeId;
+        long low = state.threadBits | sequence;
+        return encode(high, low);
+    }
+    
+    private ThreadState newThreadState() {
+        long threadBits = (long) (nextThreadSlot.getAndIncrement() & 0xFFFF) << 48;
+        return new ThreadState(threadBits, ThreadLocalRandom.current().nextLong() & SEQUENCE_MASK);
+    }
+    
+    // 128 bits en 26 caracteres de 5 bits; el primero solo lleva los 3 bits más altos
+    private static String encode(long high, long low) {
+        char[] chars = new char[ID_LENGTH];
+        for (int i = ID_LENGTH - 1; i >= 0; i--) {
+            chars[i] = CROCKFORD[(int) (low & 0x1F)];
+            low = (low >>> 5) | (high << 59);
+            high >>>= 5;
+        }
+        return new String(chars);
+    }
+    
+    private static final class ThreadState {
+        
+        private final long threadBits;
+        private long sequence;
+        private long lastMillis;
+        
+        private ThreadState(long threadBits, long sequence) {
+            this.threadBits = threadBits;
+            this.sequence = sequence;
+        }
+    }
+}
\ No newline at end of file
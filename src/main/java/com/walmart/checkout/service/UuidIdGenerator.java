@@ -0,0 +1,12 @@
+package com.walmart.checkout.service;
+
+import java.util.UUID;
+
+// UUID v4 aleatorio: pasa por el SecureRandom compartido de UUID.randomUUID
+public final class UuidIdGenerator implements IdGenerator {
+    
+    @Override
+    public String nextId() {
+        return UUID.randomUUID().toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,176 @@
+package com.walmart.checkout.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.walmart.checkout.model.CartItemRequest;
+import com.walmart.checkout.model.PaymentMethod;
+import com.walmart.checkout.model.ShoppingCartRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CheckoutControllerTest {
+
+    private static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+    private final ObjectMapper smile = new ObjectMapper(new SmileFactory());
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testCheckoutRoundTripsCbor() throws Exception {
+        // Cuando
+        MvcResult result = perform(post("/api/v1/checkout/process")
+                .contentType(MediaType.APPLICATION_CBOR)
+                .accept(MediaType.APPLICATION_CBOR)
+                .content(cbor.writeValueAsBytes(cart())));
+
+        // Entonces
+        assertEquals(200, result.getResponse().getStatus());
+        assertTrue(MediaType.APPLICATION_CBOR.isCompatibleWith(contentType(result)));
+        JsonNode body = cbor.readTree(result.getResponse().getContentAsByteArray());
+        assertFalse(body.get("transactionId").asText().isEmpty());
+        assertEquals("p-001", body.get("cart").get("items").get(0).get("product").get("id").asText());
+    }
+
+    @Test
+    void testCheckoutDefaultsToJson() throws Exception {
+        MvcResult result = perform(post("/api/v1/checkout/process")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json.writeValueAsBytes(cart())));
+
+        assertEquals(200, result.getResponse().getStatus());
+        assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(contentType(result)));
+        assertFalse(json.readTree(result.getResponse().getContentAsByteArray()).get("transactionId").asText().isEmpty());
+    }
+
+    @Test
+    void testCompactViewUsesTheNegotiatedFormat() throws Exception {
+        // Cuando
+        MvcResult result = perform(post("/api/v1/checkout/process")
+                .param("view", "compact")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(APPLICATION_SMILE)
+                .content(json.writeValueAsBytes(cart())));
+
+        // Entonces
+        assertEquals(200, result.getResponse().getStatus());
+        assertTrue(APPLICATION_SMILE.isCompatibleWith(contentType(result)));
+        JsonNode body = smile.readTree(result.getResponse().getContentAsByteArray());
+        assertEquals("p-001", body.get("items").get(0).get("sku").asText());
+        assertEquals("DEBIT", body.get("paymentMethod").asText());
+    }
+
+    @Test
+    void testCompactViewInAnUnsupportedFormatIsNotAcceptable() throws Exception {
+        MvcResult result = perform(post("/api/v1/checkout/process")
+                .param("view", "compact")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Accept", "application/cbor;q=0, text/csv")
+                .content(json.writeValueAsBytes(cart())));
+
+        assertEquals(406, result.getResponse().getStatus());
+    }
+
+    @Test
+    void testQuoteRoundTripsSmile() throws Exception {
+        // Cuando
+        MvcResult result = perform(post("/api/v1/checkout/quote")
+                .contentType(APPLICATION_SMILE)
+                .accept(APPLICATION_SMILE)
+                .content(smile.writeValueAsBytes(cart())));
+
+        // Entonces
+        assertEquals(200, result.getResponse().getStatus());
+        assertTrue(APPLICATION_SMILE.isCompatibleWith(contentType(result)));
+        JsonNode body = smile.readTree(result.getResponse().getContentAsByteArray());
+        assertEquals("DEBIT", body.get("paymentMethod").asText());
+        assertTrue(body.get("finalTotal").isNumber());
+    }
+
+    @Test
+    void testPromotionsAreNegotiated() throws Exception {
+        // Cuando
+        MvcResult asCbor = perform(get("/api/v1/promotions/active").accept(MediaType.APPLICATION_CBOR));
+        MvcResult asJson = perform(get("/api/v1/promotions/active"));
+
+        // Entonces: el mismo contenido en ambos formatos
+        assertTrue(MediaType.APPLICATION_CBOR.isCompatibleWith(contentType(asCbor)));
+        assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(contentType(asJson)));
+        JsonNode fromCbor = cbor.readTree(asCbor.getResponse().getContentAsByteArray());
+        JsonNode fromJson = json.readTree(asJson.getResponse().getContentAsByteArray());
+        assertTrue(fromCbor.isArray() && fromCbor.size() > 0);
+        assertEquals(fromJson.size(), fromCbor.size());
+        for (int i = 0; i < fromJson.size(); i++) {
+            assertEquals(fromJson.get(i).get("promotionId"), fromCbor.get(i).get("promotionId"));
+            assertEquals(fromJson.get(i).get("type"), fromCbor.get(i).get("type"));
+            // CBOR conserva los BigDecimal como decimales: se comparan por valor
+            assertEquals(0, fromJson.get(i).path("fixedDiscountAmount").decimalValue()
+                    .compareTo(fromCbor.get(i).path("fixedDiscountAmount").decimalValue()));
+        }
+    }
+
+    @Test
+    void testCatalogGzipHonorsAcceptEncodingQualities() throws Exception {
+        // Cuando / Entonces: gzip solo si la codificación se acepta con calidad mayor a 0
+        assertEquals("gzip", contentEncoding("gzip, deflate"));
+        assertEquals("gzip", contentEncoding("x-gzip"));
+        assertEquals("gzip", contentEncoding("br, *;q=0.5"));
+        assertNull(contentEncoding("gzip;q=0, deflate"));
+        assertNull(contentEncoding("GZIP; q=0.000"));
+        assertNull(contentEncoding("*;q=1, gzip;q=0"));
+        assertNull(contentEncoding("identity"));
+    }
+
+    @Test
+    void testCatalogFormatSkipsRefusedTypes() throws Exception {
+        // Cuando
+        MvcResult cborRefused = perform(get("/api/v1/checkout/products").header("Accept", "application/cbor;q=0, */*"));
+        MvcResult jsonRefused = perform(get("/api/v1/checkout/products").header("Accept", "*/*, application/json;q=0"));
+        MvcResult nothingLeft = perform(get("/api/v1/checkout/products").header("Accept", "application/cbor;q=0, text/csv"));
+
+        // Entonces: un tipo con q=0 no se elige aunque lo cubra un comodín
+        assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(contentType(cborRefused)));
+        assertTrue(MediaType.APPLICATION_CBOR.isCompatibleWith(contentType(jsonRefused)));
+        assertEquals(406, nothingLeft.getResponse().getStatus());
+    }
+
+    private MvcResult perform(RequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        // Los checkouts responden de forma asíncrona
+        return result.getRequest().isAsyncStarted() ? mockMvc.perform(asyncDispatch(result)).andReturn() : result;
+    }
+
+    private String contentEncoding(String acceptEncoding) throws Exception {
+        MvcResult result = perform(get("/api/v1/checkout/products").header("Accept-Encoding", acceptEncoding));
+        assertEquals(200, result.getResponse().getStatus());
+        return result.getResponse().getHeader("Content-Encoding");
+    }
+
+    private static MediaType contentType(MvcResult result) {
+        return MediaType.parseMediaType(result.getResponse().getContentType());
+    }
+
+    private static ShoppingCartRequest cart() {
+        return new ShoppingCartRequest(null, Collections.singletonList(new CartItemRequest("p-001", 2)), null, PaymentMethod.DEBIT);
+    }
+}
@@ -0,0 +1,42 @@
+package com.walmart.checkout.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void testPercentageMatchesBigDecimalHalfUp() {
+        long[] amounts = {0, 1, 5, 15, 25, 35, 99, 809991, 1169991, 3269991, -15, -809991};
+        long[] basisPoints = {0, 1, 50, 300, 500, 700, 1000, 2000, 3333, 10000};
+
+        for (long amount : amounts) {
+            for (long bp : basisPoints) {
+                BigDecimal expected = BigDecimal.valueOf(amount)
+                        .multiply(BigDecimal.valueOf(bp))
+                        .divide(BigDecimal.valueOf(Money.FULL_BASIS_POINTS), 0, RoundingMode.HALF_UP);
+
+                assertEquals(expected.longValueExact(), Money.percentage(amount, bp), amount + " x " + bp + "pb");
+            }
+        }
+    }
+
+    @Test
+    void testConversionsFromBigDecimal() {
+        assertEquals(809991, Money.of(new BigDecimal("809991")));
+        assertEquals(101, Money.of(new BigDecimal("100.50")));
+        assertEquals(90001, Money.ofCeiling(new BigDecimal("90000.01")));
+        assertEquals(2000, Money.basisPoints(new BigDecimal("20")));
+        assertEquals(1000, Money.basisPoints(10.0));
+    }
+
+    @Test
+    void testOverflowIsDetected() {
+        assertThrows(ArithmeticException.class, () -> Money.multiply(Long.MAX_VALUE / 2, 3));
+        assertThrows(ArithmeticException.class, () -> Money.add(Long.MAX_VALUE, 1));
+    }
+}
@@ -0,0 +1,188 @@
+package com.walmart.checkout.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.walmart.checkout.model.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+class BatchCheckoutServiceTest {
+
+    private static final String CART = "{\"cartId\":\"%s\",\"items\":[{\"sku\":\"p-001\",\"quantity\":1}],\"paymentMethod\":\"CASH\"}";
+
+    @Mock
+    private CheckoutService checkoutService;
+
+    @InjectMocks
+    private BatchCheckoutService batchCheckoutService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(batchCheckoutService, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(batchCheckoutService, "validator",
+                Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(batchCheckoutService, "idGenerator", new UlidIdGenerator(0));
+        ReflectionTestUtils.setField(batchCheckoutService, "parallelism", 256);
+
+        when(checkoutService.convertToShoppingCart(any(ShoppingCartRequest.class)))
+                .thenAnswer(invocation -> ShoppingCart.builder()
+                        .cartId(invocation.<ShoppingCartRequest>getArgument(0).getCartId())
+                        .items(Collections.emptyList())
+                        .build());
+        when(checkoutService.processCheckoutAsync(any(ShoppingCart.class)))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(result(invocation.getArgument(0))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchCheckoutService.shutdown();
+    }
+
+    @Test
+    void testInvalidLinesProduceErrorRecordsWithoutStoppingTheBatch() throws IOException {
+        // Dado
+        String input = String.format(CART, "cart-1") + "\n"
+                + "{not json\n"
+                + "{\"items\":[],\"paymentMethod\":\"CASH\"}\n"
+                + String.format(CART, "cart-4") + "\n";
+
+        // Cuando
+        List<JsonNode> records = process(input);
+
+        // Entonces
+        assertEquals(4, records.size());
+        JsonNode invalidJson = byLine(records, 2);
+        assertEquals("ERROR", invalidJson.get("status").asText());
+        assertTrue(invalidJson.get("error").asText().startsWith("Invalid JSON"), invalidJson.toString());
+        assertEquals(List.of("line", "status", "error"), fieldNames(invalidJson));
+
+        JsonNode invalidCart = byLine(records, 3);
+        assertEquals("ERROR", invalidCart.get("status").asText());
+        assertEquals("Validation failed: items Cart must contain at least one item", invalidCart.get("error").asText());
+
+        assertEquals("OK", byLine(records, 1).get("status").asText());
+        assertEquals("OK", byLine(records, 4).get("status").asText());
+        assertEquals("cart-4", byLine(records, 4).get("result").get("transactionId").asText());
+    }
+
+    @Test
+    void testRecordsKeepInputLineNumbersAndFollowCompletionOrder() throws IOException {
+        // Dado: el primer carrito tarda más que el segundo
+        when(checkoutService.processCheckoutAsync(any(ShoppingCart.class))).thenAnswer(invocation -> {
+            ShoppingCart cart = invocation.getArgument(0);
+            return "slow".equals(cart.getCartId())
+                    ? CompletableFuture.supplyAsync(() -> result(cart), CompletableFuture.delayedExecutor(200, TimeUnit.MILLISECONDS))
+                    : CompletableFuture.completedFuture(result(cart));
+        });
+        String input = String.format(CART, "slow") + "\n"
+                + "\n"
+                + "   \n"
+                + String.format(CART, "fast") + "\n";
+
+        // Cuando
+        List<JsonNode> records = process(input);
+
+        // Entonces: las líneas en blanco se saltean pero cuentan para la numeración
+        assertEquals(2, records.size());
+        assertEquals(4, records.get(0).get("line").asLong());
+        assertEquals("fast", records.get(0).get("cartId").asText());
+        assertEquals(1, records.get(1).get("line").asLong());
+        assertEquals("slow", records.get(1).get("cartId").asText());
+    }
+
+    @Test
+    void testInFlightCartsAreBoundedByParallelism() throws IOException {
+        // Dado
+        ReflectionTestUtils.setField(batchCheckoutService, "parallelism", 2);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(checkoutService.processCheckoutAsync(any(ShoppingCart.class))).thenAnswer(invocation -> {
+            ShoppingCart cart = invocation.getArgument(0);
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return CompletableFuture.supplyAsync(() -> {
+                inFlight.decrementAndGet();
+                return result(cart);
+            }, CompletableFuture.delayedExecutor(20, TimeUnit.MILLISECONDS));
+        });
+        StringBuilder input = new StringBuilder();
+        for (int i = 1; i <= 10; i++) {
+            input.append(String.format(CART, "cart-" + i)).append('\n');
+        }
+
+        // Cuando
+        List<JsonNode> records = process(input.toString());
+
+        // Entonces
+        assertEquals(10, records.size());
+        assertTrue(maxInFlight.get() <= 2, "max in flight: " + maxInFlight.get());
+        for (int line = 1; line <= 10; line++) {
+            assertEquals("OK", byLine(records, line).get("status").asText());
+        }
+    }
+
+    @Test
+    void testParallelismBelowOneIsRejected() {
+        ReflectionTestUtils.setField(batchCheckoutService, "parallelism", 0);
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> batchCheckoutService.validateParallelism());
+        assertTrue(error.getMessage().contains("checkout.batch.parallelism"));
+    }
+
+    private List<JsonNode> process(String input) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        batchCheckoutService.processBatch(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+
+        List<JsonNode> records = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isEmpty()) {
+                records.add(objectMapper.readTree(line));
+            }
+        }
+        return records;
+    }
+
+    private static JsonNode byLine(List<JsonNode> records, long line) {
+        return records.stream()
+                .filter(record -> record.get("line").asLong() == line)
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No record for line " + line));
+    }
+
+    private static List<String> fieldNames(JsonNode record) {
+        List<String> names = new ArrayList<>();
+        record.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    private static CheckoutResult result(ShoppingCart cart) {
+        return CheckoutResult.builder()
+                .transactionId(cart.getCartId())
+                .paymentStatus("CONFIRMED")
+                .build();
+    }
+}
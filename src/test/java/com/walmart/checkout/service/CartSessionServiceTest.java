@@ -0,0 +1,207 @@
+package com.walmart.checkout.service;
+
+import com.walmart.checkout.model.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class CartSessionServiceTest {
+
+    private CartSessionService cartSessionService;
+    private DiscountService discountService;
+    private PromotionService promotionService;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        ProductService productService = new ProductService();
+        productService.loadProducts(Arrays.asList(
+                product("TV-1", "40000", "Electrónicos"),
+                product("SHIRT-1", "10000", "Ropa"),
+                product("SHOE-1", "30000", "Calzado")));
+
+        promotionService = new PromotionService();
+        promotionService.loadPromotions(Arrays.asList(
+                Promotion.builder()
+                        .promotionId("PROMO-TV")
+                        .type(Promotion.PromotionType.PERCENTAGE_DISCOUNT)
+                        .discountPercentage(new BigDecimal("10"))
+                        .applicableCategories(Arrays.asList("Electrónicos"))
+                        .active(true)
+                        .build(),
+                Promotion.builder()
+                        .promotionId("PROMO-MIN")
+                        .type(Promotion.PromotionType.MINIMUM_PURCHASE)
+                        .fixedDiscountAmount(new BigDecimal("5000"))
+                        .minimumPurchase(new BigDecimal("100000"))
+                        .active(true)
+                        .build()));
+
+        discountService = spy(new DiscountService());
+        ReflectionTestUtils.setField(discountService, "promotionService", promotionService);
+
+        cartSessionService = new CartSessionService();
+        ReflectionTestUtils.setField(cartSessionService, "discountService", discountService);
+        ReflectionTestUtils.setField(cartSessionService, "productService", productService);
+        ReflectionTestUtils.setField(cartSessionService, "promotionService", promotionService);
+        ReflectionTestUtils.setField(cartSessionService, "idGenerator", new UlidIdGenerator(0));
+        registry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(cartSessionService, "checkoutMetrics", new CheckoutMetrics(registry));
+    }
+
+    @Test
+    void testEditRepricesOnlyTheChangedLine() {
+        // Dado
+        ShoppingCart created = cartSessionService.create(PaymentMethod.CREDIT_CARD, Arrays.asList(
+                new CartItemRequest("TV-1", 1), new CartItemRequest("SHIRT-1", 2), new CartItemRequest("SHOE-1", 1)));
+        clearInvocations(discountService);
+
+        // Cuando
+        ShoppingCart updated = cartSessionService.updateItem(created.getCartId(), "TV-1", 2).orElseThrow();
+
+        // Entonces
+        verify(discountService, times(1)).calculateProductDiscounts(any(CartItem.class));
+        assertEquals(3, updated.getItems().size());
+        assertEquals(new BigDecimal("130000"), updated.getSubtotal());
+        // 10% de 80000 en Electrónicos más 5000 por compra mínima
+        assertEquals(new BigDecimal("13000"), updated.getTotalDiscounts());
+        assertEquals(new BigDecimal("117000"), updated.getFinalTotal());
+        assertEquals(new BigDecimal("72000"), updated.getItems().get(0).getItemTotal());
+    }
+
+    @Test
+    void testCartLevelDiscountsFollowSubtotalAndPaymentMethod() {
+        // Dado
+        String cartId = cartSessionService.create(PaymentMethod.CREDIT_CARD, Arrays.asList(
+                new CartItemRequest("SHOE-1", 3), new CartItemRequest("SHIRT-1", 1))).getCartId();
+
+        // Cuando
+        ShoppingCart belowMinimum = cartSessionService.removeItem(cartId, "SHIRT-1").orElseThrow();
+        ShoppingCart withCash = cartSessionService.changePaymentMethod(cartId, PaymentMethod.CASH).orElseThrow();
+        ShoppingCart readded = cartSessionService.addItem(cartId, "SHIRT-1", 1).orElseThrow();
+
+        // Entonces
+        assertEquals(new BigDecimal("90000"), belowMinimum.getSubtotal());
+        assertEquals(new BigDecimal("0"), belowMinimum.getTotalDiscounts());
+        assertEquals(new BigDecimal("4500"), withCash.getTotalDiscounts());
+        assertEquals(new BigDecimal("100000"), readded.getSubtotal());
+        assertEquals(new BigDecimal("10000"), readded.getTotalDiscounts());
+        assertEquals("SHIRT-1", readded.getItems().get(1).getProduct().getId());
+    }
+
+    @Test
+    void testPromotionChangeRepricesAllLines() {
+        // Dado
+        String cartId = cartSessionService.create(PaymentMethod.CREDIT_CARD, Arrays.asList(
+                new CartItemRequest("TV-1", 1), new CartItemRequest("SHIRT-1", 1))).getCartId();
+        clearInvocations(discountService);
+
+        // Cuando
+        promotionService.loadPromotions(Collections.emptyList());
+        ShoppingCart cart = cartSessionService.get(cartId).orElseThrow();
+
+        // Entonces
+        verify(discountService, times(2)).calculateProductDiscounts(any(CartItem.class));
+        assertEquals(new BigDecimal("0"), cart.getTotalDiscounts());
+        assertTrue(cart.getAppliedDiscounts().isEmpty());
+    }
+
+    @Test
+    void testFailedRepriceLeavesTheSessionStale() {
+        // Dado: el segundo recálculo de línea falla
+        String cartId = cartSessionService.create(PaymentMethod.CREDIT_CARD, Arrays.asList(
+                new CartItemRequest("TV-1", 1), new CartItemRequest("SHIRT-1", 1))).getCartId();
+        doCallRealMethod().doThrow(new ArithmeticException("long overflow")).doCallRealMethod()
+                .when(discountService).calculateProductDiscounts(any(CartItem.class));
+        promotionService.loadPromotions(Collections.emptyList());
+
+        // Cuando
+        assertThrows(ArithmeticException.class, () -> cartSessionService.get(cartId));
+        ShoppingCart cart = cartSessionService.get(cartId).orElseThrow();
+
+        // Entonces: la siguiente operación recalcula todo el carrito
+        assertEquals(2, cart.getItems().size());
+        assertEquals(new BigDecimal("50000"), cart.getSubtotal());
+        assertEquals(new BigDecimal("0"), cart.getTotalDiscounts());
+    }
+
+    @Test
+    void testExclusivePromotionsPickBestCombination() {
+        // Dado: la promoción de la TV excluye la de compra mínima y otra de la misma campaña
+        promotionService.loadPromotions(Arrays.asList(
+                Promotion.builder()
+                        .promotionId("TV-20")
+                        .type(Promotion.PromotionType.PERCENTAGE_DISCOUNT)
+                        .discountPercentage(new BigDecimal("20"))
+                        .applicableProductIds(Arrays.asList("TV-1"))
+                        .exclusivityGroups(Arrays.asList("BLACK_FRIDAY", "TOTAL"))
+                        .active(true)
+                        .build(),
+                Promotion.builder()
+                        .promotionId("SHOE-5000")
+                        .type(Promotion.PromotionType.FIXED_AMOUNT_DISCOUNT)
+                        .fixedDiscountAmount(new BigDecimal("5000"))
+                        .applicableProductIds(Arrays.asList("SHOE-1"))
+                        .exclusivityGroups(Arrays.asList("BLACK_FRIDAY"))
+                        .active(true)
+                        .build(),
+                Promotion.builder()
+                        .promotionId("MIN-100K")
+                        .type(Promotion.PromotionType.MINIMUM_PURCHASE)
+                        .fixedDiscountAmount(new BigDecimal("6000"))
+                        .minimumPurchase(new BigDecimal("100000"))
+                        .exclusivityGroups(Arrays.asList("TOTAL"))
+                        .active(true)
+                        .build()));
+        // Sin apuro: la primera búsqueda de la JVM no debe caer en la voraz
+        ReflectionTestUtils.setField(discountService, "optimizerBudget", Duration.ofSeconds(5));
+
+        // Cuando
+        ShoppingCart cart = cartSessionService.create(PaymentMethod.CREDIT_CARD, Arrays.asList(
+                new CartItemRequest("TV-1", 1), new CartItemRequest("SHOE-1", 3)));
+
+        // Entonces: 5000 + 6000 supera a los 8000 de la TV sola
+        assertEquals(new BigDecimal("130000"), cart.getSubtotal());
+        assertEquals(new BigDecimal("11000"), cart.getTotalDiscounts());
+        assertEquals(new BigDecimal("0"), cart.getItems().get(0).getItemDiscount());
+        assertEquals(Arrays.asList("SHOE-5000", "MIN-100K"),
+                Arrays.asList(cart.getAppliedDiscounts().get(0).getDiscountId(), cart.getAppliedDiscounts().get(1).getDiscountId()));
+        assertEquals(1.0, registry.get("checkout.promotions.selections").tag("result", "optimal").counter().count());
+    }
+
+    @Test
+    void testUnknownCartAndSku() {
+        String cartId = cartSessionService.create(PaymentMethod.CASH, null).getCartId();
+
+        assertFalse(cartSessionService.get("missing").isPresent());
+        assertThrows(IllegalArgumentException.class, () -> cartSessionService.addItem(cartId, "NOPE", 1));
+        assertThrows(IllegalArgumentException.class, () -> cartSessionService.updateItem(cartId, "TV-1", -1));
+        assertTrue(cartSessionService.get(cartId).orElseThrow().getItems().isEmpty());
+        assertTrue(cartSessionService.delete(cartId));
+        assertFalse(cartSessionService.get(cartId).isPresent());
+    }
+
+    private static Product product(String id, String price, String category) {
+        return Product.builder()
+                .id(id)
+                .name(id)
+                .price(new BigDecimal(price))
+                .category(category)
+                .eligibleForPromotions(true)
+                .build();
+    }
+}
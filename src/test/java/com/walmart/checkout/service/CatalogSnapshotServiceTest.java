@@ -0,0 +1,91 @@
+package com.walmart.checkout.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.walmart.checkout.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotServiceTest {
+
+    private ProductService productService;
+    private CatalogSnapshotService catalogSnapshotService;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        productService = new ProductService();
+        objectMapper = new ObjectMapper();
+        catalogSnapshotService = new CatalogSnapshotService();
+        ReflectionTestUtils.setField(catalogSnapshotService, "productService", productService);
+        ReflectionTestUtils.setField(catalogSnapshotService, "objectMapper", objectMapper);
+    }
+
+    @Test
+    void testSnapshotIsReusedUntilCatalogChanges() {
+        // Dado
+        CatalogSnapshot first = catalogSnapshotService.getSnapshot(CatalogSnapshotService.CatalogView.PRODUCTS);
+        CatalogSnapshot second = catalogSnapshotService.getSnapshot(CatalogSnapshotService.CatalogView.PRODUCTS);
+
+        // Cuando
+        productService.loadProducts(Arrays.asList(Product.builder()
+                .id("p-100")
+                .name("Televisor")
+                .price(new BigDecimal("299990"))
+                .category("Electrónicos")
+                .build()));
+        CatalogSnapshot reloaded = catalogSnapshotService.getSnapshot(CatalogSnapshotService.CatalogView.PRODUCTS);
+
+        // Entonces
+        assertSame(first, second);
+        assertNotSame(first, reloaded);
+        assertNotEquals(first.getEtag(), reloaded.getEtag());
+        assertTrue(new String(reloaded.getBody()).contains("p-100"));
+    }
+
+    @Test
+    void testSnapshotMatchesJacksonOutputAndGzipRoundTrips() throws IOException {
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot(CatalogSnapshotService.CatalogView.PRODUCTS_GROUPED);
+
+        byte[] expected = objectMapper.writeValueAsBytes(productService.getProductsGroupedByCategory());
+        assertArrayEquals(expected, snapshot.getBody());
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(snapshot.getGzipBody()))) {
+            assertArrayEquals(expected, gzip.readAllBytes());
+        }
+        assertTrue(snapshot.getEtag().startsWith("\"") && snapshot.getEtag().endsWith("\""));
+        assertNotEquals(snapshot.getEtag(), snapshot.getGzipEtag());
+    }
+
+    @Test
+    void testBinarySnapshotDecodesToTheSameCatalogAsJson() throws IOException {
+        // Dado
+        MappingJackson2CborHttpMessageConverter cborConverter = new MappingJackson2CborHttpMessageConverter();
+        ReflectionTestUtils.setField(catalogSnapshotService, "cborConverter", cborConverter);
+
+        // Cuando
+        CatalogSnapshot json = catalogSnapshotService.getSnapshot(CatalogSnapshotService.CatalogView.PRODUCTS);
+        CatalogSnapshot cbor = catalogSnapshotService.getSnapshot(CatalogSnapshotService.CatalogView.PRODUCTS,
+                CatalogSnapshotService.CatalogFormat.CBOR);
+
+        // Entonces
+        assertTrue(catalogSnapshotService.supports(CatalogSnapshotService.CatalogFormat.CBOR));
+        assertFalse(catalogSnapshotService.supports(CatalogSnapshotService.CatalogFormat.SMILE));
+        TypeReference<Map<String, Product>> products = new TypeReference<Map<String, Product>>() {};
+        assertEquals(objectMapper.readValue(json.getBody(), products), cborConverter.getObjectMapper().readValue(cbor.getBody(), products));
+        assertTrue(cbor.getBody().length < json.getBody().length);
+        assertNotEquals(json.getEtag(), cbor.getEtag());
+        assertSame(cbor, catalogSnapshotService.getSnapshot(CatalogSnapshotService.CatalogView.PRODUCTS,
+                CatalogSnapshotService.CatalogFormat.CBOR));
+    }
+}
@@ -0,0 +1,105 @@
+package com.walmart.checkout.service;
+
+import com.walmart.checkout.model.CartItemRequest;
+import com.walmart.checkout.model.CheckoutResult;
+import com.walmart.checkout.model.PaymentMethod;
+import com.walmart.checkout.model.ShoppingCartRequest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheckoutIdempotencyServiceTest {
+
+    private final CheckoutIdempotencyService idempotencyService = new CheckoutIdempotencyService(100, Duration.ofMinutes(1));
+
+    @Test
+    void testConcurrentDuplicatesShareTheInFlightCheckout() {
+        // Dado
+        AtomicInteger executions = new AtomicInteger();
+        CompletableFuture<CheckoutResult> payment = new CompletableFuture<>();
+
+        // Cuando
+        CompletableFuture<CheckoutResult> first = idempotencyService.execute("key:abc", cart("c-1", "p-001", 1), () -> {
+            executions.incrementAndGet();
+            return payment;
+        });
+        CompletableFuture<CheckoutResult> retry = idempotencyService.execute("key:abc", cart("c-1", "p-001", 1), () -> {
+            executions.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+        payment.complete(CheckoutResult.builder().transactionId("tx-1").paymentStatus("CONFIRMED").build());
+
+        // Entonces
+        assertEquals(1, executions.get());
+        assertSame(first, retry);
+        assertEquals("tx-1", retry.join().getTransactionId());
+    }
+
+    @Test
+    void testFailedPaymentIsNotRemembered() {
+        // Dado
+        AtomicInteger executions = new AtomicInteger();
+
+        // Cuando
+        idempotencyService.execute("cart:c-1", cart("c-1", "p-001", 1), () -> {
+            executions.incrementAndGet();
+            return CompletableFuture.completedFuture(CheckoutResult.builder().paymentStatus("FAILED").build());
+        });
+        CheckoutResult retried = idempotencyService.execute("cart:c-1", cart("c-1", "p-001", 1), () -> {
+            executions.incrementAndGet();
+            return CompletableFuture.completedFuture(CheckoutResult.builder().paymentStatus("CONFIRMED").build());
+        }).join();
+
+        // Entonces
+        assertEquals(2, executions.get());
+        assertEquals("CONFIRMED", retried.getPaymentStatus());
+    }
+
+    @Test
+    void testHeaderTakesPrecedenceOverCartId() {
+        assertEquals("key:retry-1", CheckoutIdempotencyService.idempotencyKey("retry-1", "cart-1"));
+        assertEquals("cart:cart-1", CheckoutIdempotencyService.idempotencyKey(null, "cart-1"));
+        assertNull(CheckoutIdempotencyService.idempotencyKey(" ", null));
+    }
+
+    @Test
+    void testRetryWithADifferentCartIsRejected() {
+        // Dado
+        AtomicInteger executions = new AtomicInteger();
+        idempotencyService.execute("cart:c-1", cart("c-1", "p-001", 1), () -> {
+            executions.incrementAndGet();
+            return CompletableFuture.completedFuture(CheckoutResult.builder().paymentStatus("CONFIRMED").build());
+        });
+
+        // Cuando / Entonces: otra cantidad bajo el mismo cartId no recibe el recibo original
+        assertThrows(CheckoutIdempotencyService.IdempotencyConflictException.class,
+                () -> idempotencyService.execute("cart:c-1", cart("c-1", "p-001", 2), () -> {
+                    executions.incrementAndGet();
+                    return new CompletableFuture<>();
+                }));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void testFingerprintIgnoresLineOrder() {
+        ShoppingCartRequest first = new ShoppingCartRequest("c-1", Arrays.asList(
+                new CartItemRequest("p-001", 1), new CartItemRequest("p-010", 2)), null, PaymentMethod.DEBIT);
+        ShoppingCartRequest reordered = new ShoppingCartRequest("c-1", Arrays.asList(
+                new CartItemRequest("p-010", 2), new CartItemRequest("p-001", 1)), null, PaymentMethod.DEBIT);
+        ShoppingCartRequest otherMethod = new ShoppingCartRequest("c-1", Arrays.asList(
+                new CartItemRequest("p-001", 1), new CartItemRequest("p-010", 2)), null, PaymentMethod.CASH);
+
+        assertEquals(CheckoutIdempotencyService.fingerprint(first), CheckoutIdempotencyService.fingerprint(reordered));
+        assertNotEquals(CheckoutIdempotencyService.fingerprint(first), CheckoutIdempotencyService.fingerprint(otherMethod));
+    }
+
+    private static ShoppingCartRequest cart(String cartId, String sku, int quantity) {
+        return new ShoppingCartRequest(cartId, Collections.singletonList(new CartItemRequest(sku, quantity)), null, PaymentMethod.DEBIT);
+    }
+}
@@ -0,0 +1,344 @@
+package com.walmart.checkout.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.walmart.checkout.model.CheckoutResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheckoutJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testConcurrentAppendsAreDurableAndReplayInOrder() throws Exception {
+        // Dado
+        CheckoutJournal journal = journal(CheckoutJournal.FsyncPolicy.BATCH, "64MB");
+        List<CompletableFuture<Void>> appends = new ArrayList<>();
+
+        // Cuando
+        for (int i = 0; i < 500; i++) {
+            appends.add(journal.append(result("tx-" + i)));
+        }
+        CompletableFuture.allOf(appends.toArray(new CompletableFuture[0])).join();
+        journal.shutdown();
+
+        // Entonces
+        List<String> transactionIds = replay();
+        assertEquals(500, transactionIds.size());
+        assertEquals("tx-0", transactionIds.get(0));
+        assertEquals("tx-499", transactionIds.get(499));
+    }
+
+    @Test
+    void testSegmentsRollAtConfiguredSize() throws Exception {
+        // Dado
+        CheckoutJournal journal = journal(CheckoutJournal.FsyncPolicy.PERIODIC, "1KB");
+
+        // Cuando
+        for (int i = 0; i < 100; i++) {
+            journal.append(result("tx-" + i)).join();
+        }
+        journal.shutdown();
+
+        // Entonces
+        try (Stream<Path> files = Files.list(tempDir)) {
+            List<Path> segments = files.collect(Collectors.toList());
+            assertTrue(segments.size() > 1);
+            for (Path segment : segments) {
+                assertTrue(Files.size(segment) <= 1024);
+            }
+        }
+        assertEquals(100, replay().size());
+    }
+
+    @Test
+    void testTornTailIsSkippedAndRestartOpensNewSegment() throws Exception {
+        // Dado
+        CheckoutJournal journal = journal(CheckoutJournal.FsyncPolicy.BATCH, "64MB");
+        journal.append(result("tx-1")).join();
+        journal.append(result("tx-2")).join();
+        journal.shutdown();
+        Path segment;
+        try (Stream<Path> files = Files.list(tempDir)) {
+            segment = files.findFirst().get();
+        }
+        // Simular una caída a mitad de escritura: encabezado de un registro sin su contenido
+        Files.write(segment, new byte[]{0, 0, 1, 0, 1, 2}, StandardOpenOption.APPEND);
+
+        // Cuando
+        CheckoutJournal restarted = journal(CheckoutJournal.FsyncPolicy.BATCH, "64MB");
+        restarted.append(result("tx-3")).join();
+        restarted.shutdown();
+
+        // Entonces
+        assertEquals(2, restarted.getRecoveredRecordCount());
+        assertEquals(List.of("tx-1", "tx-2", "tx-3"), replay());
+    }
+
+    @Test
+    void testRecordsAfterTornWriteGoToNewSegmentAndReplay() throws Exception {
+        // Dado: la segunda escritura del primer segmento se corta a la mitad
+        AtomicInteger opened = new AtomicInteger();
+        CheckoutJournal journal = new CheckoutJournal(true, tempDir.toString(), CheckoutJournal.FsyncPolicy.BATCH,
+                Duration.ofMillis(10), DataSize.ofMegabytes(64), objectMapper, new SimpleMeterRegistry(),
+                file -> {
+                    FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                    return opened.getAndIncrement() == 0 ? new FailingChannel(channel, 2, false) : channel;
+                });
+        journal.append(result("tx-1")).join();
+
+        // Cuando
+        CompletionException torn = assertThrows(CompletionException.class, () -> journal.append(result("tx-2")).join());
+        journal.append(result("tx-3")).join();
+        journal.append(result("tx-4")).join();
+        journal.shutdown();
+
+        // Entonces: el registro cortado se pierde, los confirmados después no
+        assertInstanceOf(IOException.class, torn.getCause());
+        assertEquals(2, opened.get());
+        assertEquals(List.of("tx-1", "tx-3", "tx-4"), replay());
+    }
+
+    @Test
+    void testRecordsForcedBeforeAFailedRollStayDurable() throws Exception {
+        // Dado: caben dos registros por segmento, el primer fsync espera y abrir el segundo segmento falla
+        int recordSize = 8 + objectMapper.writeValueAsBytes(result("tx-0")).length;
+        CountDownLatch forcing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger opened = new AtomicInteger();
+        CheckoutJournal journal = new CheckoutJournal(true, tempDir.toString(), CheckoutJournal.FsyncPolicy.BATCH,
+                Duration.ofMillis(10), DataSize.ofBytes(2L * recordSize), objectMapper, new SimpleMeterRegistry(),
+                file -> {
+                    int opening = opened.getAndIncrement();
+                    if (opening == 1) {
+                        throw new IOException("Simulated open failure");
+                    }
+                    FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                    if (opening > 0) {
+                        return channel;
+                    }
+                    FailingChannel gated = new FailingChannel(channel, Integer.MAX_VALUE, false);
+                    gated.holdFirstForce(forcing, release);
+                    return gated;
+                });
+        CompletableFuture<Void> first = journal.append(result("tx-0"));
+        assertTrue(forcing.await(5, TimeUnit.SECONDS));
+
+        // Cuando: tx-1 completa el segmento y tx-2 obliga a abrir otro en el mismo lote
+        CompletableFuture<Void> second = journal.append(result("tx-1"));
+        CompletableFuture<Void> third = journal.append(result("tx-2"));
+        CompletableFuture<Void> fourth = journal.append(result("tx-3"));
+        release.countDown();
+
+        // Entonces: solo fallan los registros que no llegaron a escribirse
+        first.orTimeout(5, TimeUnit.SECONDS).join();
+        second.orTimeout(5, TimeUnit.SECONDS).join();
+        assertThrows(CompletionException.class, () -> third.orTimeout(5, TimeUnit.SECONDS).join());
+        assertThrows(CompletionException.class, () -> fourth.orTimeout(5, TimeUnit.SECONDS).join());
+        journal.append(result("tx-4")).join();
+        journal.shutdown();
+        assertEquals(List.of("tx-0", "tx-1", "tx-4"), replay());
+    }
+
+    @Test
+    void testWriterFailureFailsPendingRecordsAndRejectsAppends() throws Exception {
+        // Dado: el fsync lanza una excepción no verificada y termina el hilo escritor
+        CheckoutJournal journal = new CheckoutJournal(true, tempDir.toString(), CheckoutJournal.FsyncPolicy.BATCH,
+                Duration.ofMillis(10), DataSize.ofMegabytes(64), objectMapper, new SimpleMeterRegistry(),
+                file -> new FailingChannel(FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE),
+                        Integer.MAX_VALUE, true));
+
+        // Cuando
+        CompletableFuture<Void> first = journal.append(result("tx-1"));
+
+        // Entonces: ni el registro en curso ni los siguientes quedan esperando
+        CompletionException stopped = assertThrows(CompletionException.class, () -> first.orTimeout(5, TimeUnit.SECONDS).join());
+        assertInstanceOf(IllegalStateException.class, stopped.getCause());
+        CompletionException rejected = assertThrows(CompletionException.class,
+                () -> journal.append(result("tx-2")).orTimeout(5, TimeUnit.SECONDS).join());
+        assertInstanceOf(IllegalStateException.class, rejected.getCause());
+    }
+
+    private CheckoutJournal journal(CheckoutJournal.FsyncPolicy fsyncPolicy, String segmentSize) {
+        return new CheckoutJournal(true, tempDir.toString(), fsyncPolicy, Duration.ofMillis(10),
+                DataSize.parse(segmentSize), objectMapper, new SimpleMeterRegistry());
+    }
+
+    private CheckoutResult result(String transactionId) {
+        return CheckoutResult.builder()
+                .transactionId(transactionId)
+                .paymentStatus("CONFIRMED")
+                .build();
+    }
+
+    private List<String> replay() throws IOException {
+        List<String> transactionIds = new ArrayList<>();
+        CheckoutJournal.scan(tempDir, record -> {
+            try {
+                String json = StandardCharsets.UTF_8.decode(record).toString();
+                transactionIds.add(objectMapper.readValue(json, CheckoutResult.class).getTransactionId());
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+        });
+        return transactionIds;
+    }
+
+    // Canal que corta la escritura número failingWrite a la mitad, o que falla en force()
+    private static final class FailingChannel extends FileChannel {
+
+        private final FileChannel delegate;
+        private final int failingWrite;
+        private final boolean failForce;
+        private int writes;
+        private CountDownLatch forcing;
+        private CountDownLatch release;
+
+        private FailingChannel(FileChannel delegate, int failingWrite, boolean failForce) {
+            this.delegate = delegate;
+            this.failingWrite = failingWrite;
+            this.failForce = failForce;
+        }
+
+        @Override
+        public long write(ByteBuffer[] sources, int offset, int length) throws IOException {
+            if (++writes == failingWrite) {
+                ByteBuffer half = sources[offset].duplicate();
+                half.limit(half.position() + half.remaining() / 2);
+                delegate.write(half);
+                throw new IOException("Simulated disk failure");
+            }
+            return delegate.write(sources, offset, length);
+        }
+
+        // El primer fsync avisa por forcing y espera a release
+        private void holdFirstForce(CountDownLatch forcing, CountDownLatch release) {
+            this.forcing = forcing;
+            this.release = release;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            if (forcing != null) {
+                forcing.countDown();
+                forcing = null;
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failForce) {
+                throw new UncheckedIOException(new IOException("Simulated fsync failure"));
+            }
+            delegate.force(metaData);
+        }
+
+        @Override
+        public int write(ByteBuffer source) throws IOException {
+            return (int) write(new ByteBuffer[]{source}, 0, 1);
+        }
+
+        @Override
+        public int read(ByteBuffer destination) throws IOException {
+            return delegate.read(destination);
+        }
+
+        @Override
+        public long read(ByteBuffer[] destinations, int offset, int length) throws IOException {
+            return delegate.read(destinations, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel source, long position, long count) throws IOException {
+            return delegate.transferFrom(source, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer destination, long position) throws IOException {
+            return delegate.read(destination, position);
+        }
+
+        @Override
+        public int write(ByteBuffer source, long position) throws IOException {
+            return delegate.write(source, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.walmart.checkout.service;
+
+import com.walmart.checkout.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CheckoutQuoteServiceTest {
+
+    @Mock
+    private CheckoutService checkoutService;
+
+    @Mock
+    private PromotionService promotionService;
+
+    @Mock
+    private ProductService productService;
+
+    @InjectMocks
+    private CheckoutQuoteService checkoutQuoteService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        when(promotionService.getPromotionVersion()).thenReturn(1L);
+        when(productService.getCatalogVersion()).thenReturn(1L);
+        when(checkoutService.convertToShoppingCart(any(ShoppingCartRequest.class)))
+                .thenAnswer(invocation -> ShoppingCart.builder().items(Collections.emptyList()).build());
+        when(checkoutService.quote(any(ShoppingCart.class)))
+                .thenAnswer(invocation -> CheckoutQuote.builder().build());
+    }
+
+    @Test
+    void testReorderedCartIsServedFromCache() {
+        // Dado
+        ShoppingCartRequest first = request(PaymentMethod.DEBIT, new CartItemRequest("p-001", 1), new CartItemRequest("p-010", 2));
+        ShoppingCartRequest reordered = request(PaymentMethod.DEBIT, new CartItemRequest("p-010", 2), new CartItemRequest("p-001", 1));
+
+        // Cuando
+        CheckoutQuote firstQuote = checkoutQuoteService.quote(first);
+        CheckoutQuote secondQuote = checkoutQuoteService.quote(reordered);
+
+        // Entonces
+        assertSame(firstQuote, secondQuote);
+        verify(checkoutService, times(1)).quote(any(ShoppingCart.class));
+    }
+
+    @Test
+    void testPaymentMethodAndQuantityChangeTheFingerprint() {
+        checkoutQuoteService.quote(request(PaymentMethod.DEBIT, new CartItemRequest("p-001", 1)));
+        checkoutQuoteService.quote(request(PaymentMethod.CASH, new CartItemRequest("p-001", 1)));
+        checkoutQuoteService.quote(request(PaymentMethod.DEBIT, new CartItemRequest("p-001", 2)));
+
+        verify(checkoutService, times(3)).quote(any(ShoppingCart.class));
+    }
+
+    @Test
+    void testPromotionChangeInvalidatesCachedQuotes() {
+        // Dado
+        ShoppingCartRequest cart = request(PaymentMethod.DEBIT, new CartItemRequest("p-001", 1));
+        CheckoutQuote before = checkoutQuoteService.quote(cart);
+
+        // Cuando
+        when(promotionService.getPromotionVersion()).thenReturn(2L);
+        CheckoutQuote after = checkoutQuoteService.quote(cart);
+
+        // Entonces
+        assertNotSame(before, after);
+        assertEquals(2L, after.getPromotionVersion());
+        assertEquals(1, checkoutQuoteService.getCachedQuoteCount());
+    }
+
+    private ShoppingCartRequest request(PaymentMethod paymentMethod, CartItemRequest... items) {
+        return new ShoppingCartRequest("cart-1", Arrays.asList(items), null, paymentMethod);
+    }
+}
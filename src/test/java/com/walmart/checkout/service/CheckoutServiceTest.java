@@ -1,18 +1,30 @@
 package com.walmart.checkout.service;
 
 import com.walmart.checkout.model.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 
 class CheckoutServiceTest {
@@ -23,6 +35,12 @@ class CheckoutServiceTest {
     @Mock
     private PaymentService paymentService;
 
+    @Mock
+    private CheckoutMetrics checkoutMetrics;
+
+    @Mock
+    private CheckoutJournal checkoutJournal;
+
     @InjectMocks
     private CheckoutService checkoutService;
 
@@ -31,6 +49,7 @@ class CheckoutServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(checkoutService, "idGenerator", new UlidIdGenerator(0));
 
         Product product1 = Product.builder()
                 .id("PROD001")
@@ -68,22 +87,22 @@ class CheckoutServiceTest {
         // Dado
         when(discountService.calculateProductDiscounts(any(CartItem.class)))
                 .thenReturn(Arrays.asList());
-        when(discountService.calculateMinimumPurchaseDiscount(any(BigDecimal.class)))
+        when(discountService.calculateMinimumPurchaseDiscount(anyLong()))
                 .thenReturn(null);
-        when(discountService.calculatePaymentMethodDiscount(any(BigDecimal.class), eq(PaymentMethod.DEBIT)))
+        when(discountService.calculatePaymentMethodDiscount(anyLong(), eq(PaymentMethod.DEBIT)))
                 .thenReturn(AppliedDiscount.builder()
                         .discountAmount(new BigDecimal("25.00"))
                         .build());
-       when(paymentService.processPayment(any(BigDecimal.class), eq(PaymentMethod.DEBIT)))
+       when(paymentService.processPayment(anyLong(), eq(PaymentMethod.DEBIT)))
                 .thenReturn("CONFIRMED");
 
         // Cuando
         CheckoutResult result = checkoutService.processCheckout(testCart);
 
         // Entonces
-        assertEquals(new BigDecimal("250.00"), result.getSubtotal()); // (100*2) + (50*1)
-        assertEquals(new BigDecimal("25.00"), result.getTotalDiscounts());
-        assertEquals(new BigDecimal("225.00"), result.getFinalTotal());
+        assertEquals(new BigDecimal("250"), result.getSubtotal()); // (100*2) + (50*1)
+        assertEquals(new BigDecimal("25"), result.getTotalDiscounts());
+        assertEquals(new BigDecimal("225"), result.getFinalTotal());
         assertEquals("CONFIRMED", result.getPaymentStatus());
         assertNotNull(result.getTransactionId());
     }
@@ -98,20 +117,198 @@ class CheckoutServiceTest {
 
         when(discountService.calculateProductDiscounts(any(CartItem.class)))
                 .thenReturn(Arrays.asList(productDiscount));
-        when(discountService.calculateMinimumPurchaseDiscount(any(BigDecimal.class)))
+        when(discountService.calculateMinimumPurchaseDiscount(anyLong()))
                 .thenReturn(null);
-        when(discountService.calculatePaymentMethodDiscount(any(BigDecimal.class), any(PaymentMethod.class)))
+        when(discountService.calculatePaymentMethodDiscount(anyLong(), any(PaymentMethod.class)))
                 .thenReturn(null);
-        when(paymentService.processPayment(any(BigDecimal.class), any(PaymentMethod.class)))
+        when(paymentService.processPayment(anyLong(), any(PaymentMethod.class)))
                 .thenReturn("CONFIRMED");
 
         // Cuando
         CheckoutResult result = checkoutService.processCheckout(testCart);
 
         // Entonces
-        assertEquals(new BigDecimal("250.00"), result.getSubtotal());
+        assertEquals(new BigDecimal("250"), result.getSubtotal());
         assertTrue(result.getTotalDiscounts().compareTo(BigDecimal.ZERO) > 0);
         assertNotNull(result.getProductDiscounts());
         assertFalse(result.getProductDiscounts().isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSummaryIsRenderedOnlyWhenRequested() {
+        // Dado
+        when(discountService.calculateProductDiscounts(any(CartItem.class)))
+                .thenReturn(Arrays.asList());
+        when(paymentService.processPayment(anyLong(), any(PaymentMethod.class)))
+                .thenReturn("CONFIRMED");
+
+        // Cuando
+        CheckoutResult withoutSummary = checkoutService.processCheckout(testCart);
+        CheckoutResult withSummary = checkoutService.processCheckout(testCart, true);
+
+        // Entonces
+        assertNull(withoutSummary.getSummary());
+        assertEquals("Checkout Summary:\nSubtotal: $250 CLP\nFinal Total: $250 CLP", withSummary.getSummary());
+    }
+
+    @Test
+    void testParallelPricingMatchesSerialPricing() {
+        // Dado
+        when(discountService.calculateProductDiscounts(any(CartItem.class)))
+                .thenAnswer(invocation -> {
+                    CartItem item = invocation.getArgument(0);
+                    return Arrays.asList(AppliedDiscount.builder()
+                            .discountId("LINE-" + item.getQuantity())
+                            .amount(item.getQuantity())
+                            .build());
+                });
+        when(paymentService.processPayment(anyLong(), any(PaymentMethod.class)))
+                .thenReturn("CONFIRMED");
+
+        // Cuando
+        ReflectionTestUtils.setField(checkoutService, "parallelPricingThreshold", Integer.MAX_VALUE);
+        CheckoutResult serial = checkoutService.processCheckout(largeCart(5000));
+        // Pool con varios hilos aunque la máquina de pruebas tenga un solo núcleo
+        checkoutService.shutdown();
+        ReflectionTestUtils.setField(checkoutService, "pricingPool", new ForkJoinPool(4));
+        ReflectionTestUtils.setField(checkoutService, "parallelPricingThreshold", 1);
+        CheckoutResult parallel = checkoutService.processCheckout(largeCart(5000));
+
+        // Entonces
+        assertEquals(serial.getSubtotal(), parallel.getSubtotal());
+        assertEquals(serial.getTotalDiscounts(), parallel.getTotalDiscounts());
+        assertEquals(serial.getFinalTotal(), parallel.getFinalTotal());
+        assertEquals(serial.getProductDiscounts(), parallel.getProductDiscounts());
+        assertEquals(serial.getCart().getItems(), parallel.getCart().getItems());
+        checkoutService.shutdown();
+    }
+
+    @Test
+    void testAsyncCheckoutBuildsResultOffThePaymentThread() throws Exception {
+        // Dado: el pago lo completa el único hilo del procesador
+        CompletableFuture<String> payment = new CompletableFuture<>();
+        when(paymentService.processPaymentAsync(anyLong(), any(PaymentMethod.class))).thenReturn(payment);
+        AtomicReference<String> resultThread = new AtomicReference<>();
+        doAnswer(invocation -> {
+            resultThread.set(Thread.currentThread().getName());
+            return null;
+        }).when(checkoutMetrics).recordCheckout(any(PaymentMethod.class), anyString(), anyList());
+
+        // Cuando
+        CompletableFuture<CheckoutResult> result = checkoutService.processCheckoutAsync(testCart);
+        Thread processor = new Thread(() -> payment.complete("CONFIRMED"), "payment-processor");
+        processor.start();
+        processor.join();
+
+        // Entonces
+        assertEquals("CONFIRMED", result.join().getPaymentStatus());
+        assertTrue(resultThread.get().startsWith("checkout-pricing-"), resultThread.get());
+        checkoutService.shutdown();
+    }
+
+    @Test
+    void testExclusivePromotionsRepriceRejectedLinesAndPickMinimumPurchase() {
+        // Dado: descuentos reales; la promoción de la TV excluye a las otras dos
+        PromotionService promotionService = new PromotionService();
+        promotionService.loadPromotions(Arrays.asList(
+                Promotion.builder()
+                        .promotionId("TV-20")
+                        .type(Promotion.PromotionType.PERCENTAGE_DISCOUNT)
+                        .discountPercentage(new BigDecimal("20"))
+                        .applicableProductIds(Arrays.asList("TV-1"))
+                        .exclusivityGroups(Arrays.asList("BLACK_FRIDAY", "TOTAL"))
+                        .active(true)
+                        .build(),
+                Promotion.builder()
+                        .promotionId("SHOE-5000")
+                        .type(Promotion.PromotionType.FIXED_AMOUNT_DISCOUNT)
+                        .fixedDiscountAmount(new BigDecimal("5000"))
+                        .applicableProductIds(Arrays.asList("SHOE-1"))
+                        .exclusivityGroups(Arrays.asList("BLACK_FRIDAY"))
+                        .active(true)
+                        .build(),
+                Promotion.builder()
+                        .promotionId("MIN-100K")
+                        .type(Promotion.PromotionType.MINIMUM_PURCHASE)
+                        .fixedDiscountAmount(new BigDecimal("6000"))
+                        .minimumPurchase(new BigDecimal("100000"))
+                        .exclusivityGroups(Arrays.asList("TOTAL"))
+                        .active(true)
+                        .build()));
+        DiscountService realDiscountService = new DiscountService();
+        ReflectionTestUtils.setField(realDiscountService, "promotionService", promotionService);
+        // Sin apuro: la primera búsqueda de la JVM no debe caer en la voraz
+        ReflectionTestUtils.setField(realDiscountService, "optimizerBudget", Duration.ofSeconds(5));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(checkoutService, "discountService", realDiscountService);
+        ReflectionTestUtils.setField(checkoutService, "checkoutMetrics", new CheckoutMetrics(registry));
+        when(paymentService.processPayment(anyLong(), any(PaymentMethod.class))).thenReturn("CONFIRMED");
+        ShoppingCart cart = ShoppingCart.builder()
+                .items(Arrays.asList(
+                        CartItem.builder().product(promotedProduct("TV-1", "40000", "Electrónicos")).quantity(1).build(),
+                        CartItem.builder().product(promotedProduct("SHOE-1", "30000", "Calzado")).quantity(3).build()))
+                .paymentMethod(PaymentMethod.CREDIT_CARD)
+                .build();
+
+        // Cuando
+        CheckoutResult result = checkoutService.processCheckout(cart);
+
+        // Entonces: 5000 + 6000 supera a los 8000 de la TV sola
+        CartItem tv = result.getCart().getItems().get(0);
+        CartItem shoes = result.getCart().getItems().get(1);
+        assertEquals(0, BigDecimal.ZERO.compareTo(tv.getItemDiscount()));
+        assertEquals(0, new BigDecimal("40000").compareTo(tv.getItemTotal()));
+        assertEquals(0, new BigDecimal("85000").compareTo(shoes.getItemTotal()));
+        assertEquals(1, result.getPromotionDiscounts().size());
+        assertEquals("MIN-100K", result.getPromotionDiscounts().get(0).getDiscountId());
+        assertEquals(0, new BigDecimal("11000").compareTo(result.getTotalDiscounts()));
+        assertEquals(0, new BigDecimal("119000").compareTo(result.getFinalTotal()));
+        assertEquals(1.0, registry.get("checkout.promotions.selections").tag("result", "optimal").counter().count());
+        assertEquals(0.0, registry.get("checkout.promotions.selections").tag("result", "budget_exceeded").counter().count());
+    }
+
+    @Test
+    void testWithSummaryRendersTheStoredAmountsWithoutTouchingTheOriginal() {
+        // Dado: el checkout original no pidió el resumen
+        when(paymentService.processPayment(anyLong(), any(PaymentMethod.class))).thenReturn("CONFIRMED");
+        CheckoutResult original = checkoutService.processCheckout(testCart);
+        String expected = checkoutService.processCheckout(testCart, true).getSummary();
+
+        // Cuando
+        CheckoutResult withSummary = checkoutService.withSummary(original, true);
+
+        // Entonces
+        assertNull(original.getSummary());
+        assertEquals(expected, withSummary.getSummary());
+        assertEquals(original.getTransactionId(), withSummary.getTransactionId());
+        assertSame(original, checkoutService.withSummary(original, false));
+        assertNull(checkoutService.withSummary(withSummary, false).getSummary());
+    }
+
+    private static Product promotedProduct(String id, String price, String category) {
+        return Product.builder()
+                .id(id)
+                .name(id)
+                .price(new BigDecimal(price))
+                .category(category)
+                .eligibleForPromotions(true)
+                .build();
+    }
+
+    private ShoppingCart largeCart(int lines) {
+        List<CartItem> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            items.add(CartItem.builder()
+                    .product(Product.builder()
+                            .id("SKU-" + i)
+                            .price(BigDecimal.valueOf(100 + i % 37))
+                            .build())
+                    .quantity(1 + i % 5)
+                    .build());
+        }
+        return ShoppingCart.builder()
+                .items(items)
+                .paymentMethod(PaymentMethod.CASH)
+                .build();
+    }
+}
@@ -0,0 +1,116 @@
+package com.walmart.checkout.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.walmart.checkout.model.AppliedDiscount;
+import com.walmart.checkout.model.CartItem;
+import com.walmart.checkout.model.CheckoutResult;
+import com.walmart.checkout.model.PaymentMethod;
+import com.walmart.checkout.model.Product;
+import com.walmart.checkout.model.ShoppingCart;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactCheckoutWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CompactCheckoutWriter compactCheckoutWriter = new CompactCheckoutWriter(objectMapper);
+
+    @Test
+    void testCompactViewReferencesProductsBySkuAndListsDiscountsOnce() throws Exception {
+        // Dado
+        EnumSet<CompactCheckoutWriter.Field> fields = CompactCheckoutWriter.selectFields("compact", null);
+
+        // Cuando
+        JsonNode json = objectMapper.readTree(compactCheckoutWriter.write(checkoutResult(), fields));
+
+        // Entonces
+        assertEquals("TXN-1", json.get("transactionId").asText());
+        assertEquals("CART-1", json.get("cartId").asText());
+        assertEquals("DEBIT", json.get("paymentMethod").asText());
+        assertEquals("2024-01-31T10:15:30", json.get("processedAt").asText());
+        assertEquals("ELEC001", json.get("items").get(0).get("sku").asText());
+        assertEquals(2, json.get("items").get(0).get("quantity").asInt());
+        assertNull(json.get("items").get(0).get("product"));
+        assertEquals(1, json.get("discounts").size());
+        assertEquals("PROMO-1", json.get("discounts").get(0).get("id").asText());
+        assertEquals(1000, json.get("discounts").get(0).get("amount").asLong());
+        assertEquals(9000, json.get("finalTotal").asLong());
+        assertNull(json.get("summary"));
+        assertNull(json.get("cart"));
+        assertNull(json.get("promotionDiscounts"));
+    }
+
+    @Test
+    void testFieldsSelectOnlyTheRequestedProperties() throws Exception {
+        // Dado
+        EnumSet<CompactCheckoutWriter.Field> fields = CompactCheckoutWriter.selectFields(null, "transactionId, finalTotal");
+
+        // Cuando
+        JsonNode json = objectMapper.readTree(compactCheckoutWriter.write(checkoutResult(), fields));
+
+        // Entonces
+        assertEquals(2, json.size());
+        assertEquals("TXN-1", json.get("transactionId").asText());
+        assertEquals(9000, json.get("finalTotal").asLong());
+    }
+
+    @Test
+    void testViewSelection() {
+        assertNull(CompactCheckoutWriter.selectFields(null, null));
+        assertNull(CompactCheckoutWriter.selectFields("full", ""));
+        assertEquals(EnumSet.allOf(CompactCheckoutWriter.Field.class), CompactCheckoutWriter.selectFields("COMPACT", null));
+        assertThrows(IllegalArgumentException.class, () -> CompactCheckoutWriter.selectFields("tiny", null));
+        assertThrows(IllegalArgumentException.class, () -> CompactCheckoutWriter.selectFields(null, "transactionId,cart"));
+    }
+
+    private CheckoutResult checkoutResult() {
+        Product laptop = Product.builder()
+                .id("ELEC001")
+                .name("Laptop")
+                .description("Laptop de 15 pulgadas con 16 GB de RAM")
+                .category("Electronics")
+                .price(new BigDecimal("5000"))
+                .eligibleForPromotions(true)
+                .build();
+        AppliedDiscount promotion = AppliedDiscount.builder()
+                .discountId("PROMO-1")
+                .discountName("Electronics Sale")
+                .discountType("PROMOTION")
+                .amount(1000)
+                .applicableItem("ELEC001")
+                .build();
+        CartItem item = CartItem.builder()
+                .product(laptop)
+                .quantity(2)
+                .itemSubtotal(new BigDecimal("10000"))
+                .itemDiscount(new BigDecimal("1000"))
+                .itemTotal(new BigDecimal("9000"))
+                .build();
+        ShoppingCart cart = ShoppingCart.builder()
+                .cartId("CART-1")
+                .items(Collections.singletonList(item))
+                .paymentMethod(PaymentMethod.DEBIT)
+                .appliedDiscounts(Arrays.asList(promotion))
+                .build();
+
+        return CheckoutResult.builder()
+                .transactionId("TXN-1")
+                .cart(cart)
+                .promotionDiscounts(Arrays.asList(promotion))
+                .subtotal(new BigDecimal("10000"))
+                .totalDiscounts(new BigDecimal("1000"))
+                .finalTotal(new BigDecimal("9000"))
+                .paymentMethod(PaymentMethod.DEBIT)
+                .paymentStatus("CONFIRMED")
+                .processedAt(LocalDateTime.of(2024, 1, 31, 10, 15, 30))
+                .build();
+    }
+}
@@ -29,19 +29,19 @@ class DiscountServiceTest {
 
     @Test
     void testCalculatePaymentMethodDiscount() {
-        BigDecimal subtotal = new BigDecimal("100.00");
+        long subtotal = 100;
         
         AppliedDiscount result = discountService.calculatePaymentMethodDiscount(subtotal, PaymentMethod.DEBIT);
         
         assertNotNull(result);
-        assertEquals(new BigDecimal("10.00"), result.getDiscountAmount());
+        assertEquals(new BigDecimal("10"), result.getDiscountAmount());
         assertEquals("PAYMENT_METHOD", result.getDiscountType());
         assertTrue(result.getDiscountName().contains("Debit Card"));
     }
 
     @Test
     void testCalculatePaymentMethodDiscountNoDiscount() {
-        BigDecimal subtotal = new BigDecimal("100.00");
+        long subtotal = 100;
         
         AppliedDiscount result = discountService.calculatePaymentMethodDiscount(subtotal, PaymentMethod.CREDIT_CARD);
         
@@ -71,8 +71,8 @@ class DiscountServiceTest {
                 .discountPercentage(new BigDecimal("20"))
                 .build();
 
-        when(promotionService.getApplicablePromotions("PROD001", "Electrónicos"))
-                .thenReturn(Arrays.asList(promotion));
+        when(promotionService.getApplicableEvaluators("PROD001", "Electrónicos"))
+                .thenReturn(new PromotionEvaluator[] {PromotionEvaluator.compile(promotion)});
 
         // Cuando
         List<AppliedDiscount> discounts = discountService.calculateProductDiscounts(cartItem);
@@ -80,7 +80,7 @@ class DiscountServiceTest {
         // Entonces
         assertEquals(1, discounts.size());
         AppliedDiscount discount = discounts.get(0);
-        assertEquals(new BigDecimal("20.00"), discount.getDiscountAmount());
+        assertEquals(new BigDecimal("20"), discount.getDiscountAmount());
         assertEquals("PROMOTION", discount.getDiscountType());
         assertEquals("20% Descuento Electrónicos", discount.getDiscountName());
     }
@@ -88,7 +88,7 @@ class DiscountServiceTest {
     @Test
     void testCalculateMinimumPurchaseDiscount() {
         // Dado
-        BigDecimal subtotal = new BigDecimal("135000");
+        long subtotal = 135000;
 
         Promotion promotion = Promotion.builder()
                 .promotionId("PROMO003")
@@ -99,8 +99,8 @@ class DiscountServiceTest {
                 .active(true)
                 .build();
 
-        when(promotionService.getActivePromotions())
-                .thenReturn(Arrays.asList(promotion));
+        when(promotionService.getMinimumPurchaseTiers())
+                .thenReturn(MinimumPurchaseTiers.build(Arrays.asList(promotion)));
 
         // Cuando
         AppliedDiscount discount = discountService.calculateMinimumPurchaseDiscount(subtotal);
@@ -114,7 +114,7 @@ class DiscountServiceTest {
     @Test
     void testCalculateMinimumPurchaseDiscountBelowThreshold() {
         // Dado
-        BigDecimal subtotal = new BigDecimal("45000");
+        long subtotal = 45000;
 
         Promotion promotion = Promotion.builder()
                 .promotionId("PROMO003")
@@ -125,8 +125,8 @@ class DiscountServiceTest {
                 .active(true)
                 .build();
 
-        when(promotionService.getActivePromotions())
-                .thenReturn(Arrays.asList(promotion));
+        when(promotionService.getMinimumPurchaseTiers())
+                .thenReturn(MinimumPurchaseTiers.build(Arrays.asList(promotion)));
 
         // Cuando
         AppliedDiscount discount = discountService.calculateMinimumPurchaseDiscount(subtotal);
@@ -0,0 +1,121 @@
+package com.walmart.checkout.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpiringCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void testPutIfAbsentKeepsFirstValueUntilExpired() {
+        // Dado
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, Duration.ofSeconds(5), clock::get);
+
+        // Cuando
+        assertNull(cache.putIfAbsent("cart-1", "first"));
+        String duplicate = cache.putIfAbsent("cart-1", "second");
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        // Entonces
+        assertEquals("first", duplicate);
+        assertNull(cache.get("cart-1"));
+        assertNull(cache.putIfAbsent("cart-1", "third"));
+        assertEquals("third", cache.get("cart-1"));
+    }
+
+    @Test
+    void testOldestEntriesAreEvictedWhenFull() {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(3, Duration.ofMinutes(1), clock::get);
+
+        for (int i = 0; i < 5; i++) {
+            cache.putIfAbsent(i, i);
+        }
+
+        assertEquals(3, cache.size());
+        assertNull(cache.get(0));
+        assertNull(cache.get(1));
+        assertEquals(4, cache.get(4));
+    }
+
+    @Test
+    void testRemoveOnlyMatchesCurrentValue() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, Duration.ofMinutes(1), clock::get);
+        cache.putIfAbsent("key", "value");
+
+        assertFalse(cache.remove("key", new String("value")));
+        assertTrue(cache.remove("key", cache.get("key")));
+        assertNull(cache.get("key"));
+    }
+
+    @Test
+    void testTouchExtendsTtlAndMovesEntryToTheEnd() {
+        // Dado
+        ExpiringCache<String, String> cache = new ExpiringCache<>(2, Duration.ofSeconds(10), clock::get);
+        cache.putIfAbsent("cart-1", "one");
+        cache.putIfAbsent("cart-2", "two");
+
+        // Cuando
+        clock.addAndGet(Duration.ofSeconds(6).toNanos());
+        assertTrue(cache.touch("cart-1", "one"));
+        assertFalse(cache.touch("cart-2", "other"));
+        cache.putIfAbsent("cart-3", "three");
+        clock.addAndGet(Duration.ofSeconds(6).toNanos());
+
+        // Entonces: cart-2 salió por tamaño y cart-1 sigue vigente pasado su TTL original
+        assertNull(cache.get("cart-2"));
+        assertEquals("one", cache.get("cart-1"));
+        assertEquals("three", cache.get("cart-3"));
+    }
+
+    @Test
+    void testEveryTouchRenewsTheFullTtlWithoutGrowingTheQueue() {
+        // Dado
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, Duration.ofSeconds(10), clock::get);
+        cache.putIfAbsent("cart-1", "one");
+
+        // Cuando: una clave muy usada se toca cada 10 ms, siempre en la primera mitad de su TTL
+        for (int i = 0; i < 10_000; i++) {
+            clock.addAndGet(Duration.ofMillis(10).toNanos());
+            assertTrue(cache.touch("cart-1", "one"));
+        }
+        clock.addAndGet(Duration.ofSeconds(9).toNanos());
+
+        // Entonces: vence 10 s después del último toque y la cola no guarda cada renovación
+        assertEquals("one", cache.get("cart-1"));
+        assertTrue(cache.queuedEntries() <= 128, "queued: " + cache.queuedEntries());
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertNull(cache.get("cart-1"));
+    }
+
+    @Test
+    void testClearDuringInsertsKeepsTheSizeBound() throws Exception {
+        // Dado
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(100, Duration.ofMinutes(1), clock::get);
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 200_000; i++) {
+                cache.putIfAbsent(i, i);
+            }
+        });
+
+        // Cuando: se limpia mientras otro hilo inserta
+        writer.start();
+        while (writer.isAlive()) {
+            cache.clear();
+        }
+        writer.join();
+        for (int i = -1; i >= -200; i--) {
+            cache.putIfAbsent(i, i);
+        }
+
+        // Entonces: ninguna entrada quedó fuera de la cola de expulsión
+        assertEquals(100, cache.size());
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.queuedEntries());
+    }
+}
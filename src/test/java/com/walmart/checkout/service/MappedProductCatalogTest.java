@@ -0,0 +1,107 @@
+package com.walmart.checkout.service;
+
+import com.walmart.checkout.model.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedProductCatalogTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testLookupsDecodeTheSameProductsThatWereWritten() throws IOException {
+        // Dado
+        List<Product> products = products(5000);
+        products.add(Product.builder()
+                .id("p-ñandú")
+                .name("Peluche ñandú")
+                .price(new BigDecimal("12990.50"))
+                .category(null)
+                .description(null)
+                .eligibleForPromotions(false)
+                .build());
+        Path file = tempDir.resolve("catalog.bin");
+
+        // Cuando
+        MappedProductCatalog.write(products, file);
+        MappedProductCatalog catalog = MappedProductCatalog.open(file);
+
+        // Entonces
+        for (Product product : products) {
+            assertEquals(product, catalog.findById(product.getId()));
+        }
+        assertNull(catalog.findById("sku-9999999"));
+        assertNull(catalog.findById(null));
+        assertEquals(products.size(), catalog.asMap().size());
+        assertTrue(catalog.asMap().containsKey("p-ñandú"));
+    }
+
+    @Test
+    void testMapViewAndGroupingMatchInMemoryCatalog() throws IOException {
+        // Dado
+        List<Product> products = products(300);
+        Path file = tempDir.resolve("catalog.bin");
+        MappedProductCatalog.write(products, file);
+
+        // Cuando
+        MappedProductCatalog mapped = MappedProductCatalog.open(file);
+        InMemoryProductCatalog inMemory = new InMemoryProductCatalog(products);
+
+        // Entonces
+        assertEquals(inMemory.asMap(), mapped.asMap());
+        Map<String, List<Product>> grouped = mapped.groupedByCategory();
+        assertEquals(inMemory.groupedByCategory().keySet(), grouped.keySet());
+        assertEquals(100, grouped.get("cat-1").size());
+        assertSame(grouped, mapped.groupedByCategory());
+    }
+
+    @Test
+    void testProductServiceLoadsCatalogFile() throws IOException {
+        // Dado
+        Path file = tempDir.resolve("catalog.bin");
+        MappedProductCatalog.write(products(10), file);
+
+        // Cuando
+        ProductService productService = new ProductService(file.toString());
+
+        // Entonces
+        assertEquals("Producto 7", productService.findById("sku-0000007").get().getName());
+        assertFalse(productService.findById("p-001").isPresent());
+        assertEquals(10, productService.getAllProducts().size());
+    }
+
+    @Test
+    void testInvalidFileIsRejected() throws IOException {
+        Path file = tempDir.resolve("catalog.bin");
+        Files.write(file, "not a catalog".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IOException.class, () -> MappedProductCatalog.open(file));
+    }
+
+    private List<Product> products(int count) {
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(Product.builder()
+                    .id(String.format("sku-%07d", i))
+                    .name("Producto " + i)
+                    .price(BigDecimal.valueOf(1_000 + i))
+                    .category("cat-" + (i % 3))
+                    .description("Producto de prueba " + i)
+                    .eligibleForPromotions(true)
+                    .build());
+        }
+        return products;
+    }
+}
@@ -0,0 +1,106 @@
+package com.walmart.checkout.service;
+
+import com.walmart.checkout.model.PaymentMethod;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentBatcherTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RecordingProcessor processor = new RecordingProcessor();
+    private PaymentBatcher paymentBatcher;
+
+    @AfterEach
+    void tearDown() {
+        paymentBatcher.shutdown();
+    }
+
+    @Test
+    void testFullBatchIsSentWithoutWaitingAndResultsFanOutInOrder() {
+        // Dado
+        paymentBatcher = new PaymentBatcher(processor, 3, Duration.ofHours(1), registry);
+
+        // Cuando
+        CompletableFuture<String> first = paymentBatcher.submit(1000, PaymentMethod.DEBIT);
+        CompletableFuture<String> second = paymentBatcher.submit(2000, PaymentMethod.CASH);
+        CompletableFuture<String> third = paymentBatcher.submit(3000, PaymentMethod.CREDIT_CARD);
+        processor.complete(0, Arrays.asList("CONFIRMED", "FAILED", "CONFIRMED"));
+
+        // Entonces
+        assertEquals(1, processor.batches.size());
+        assertEquals(3, processor.batches.get(0).size());
+        assertEquals(2000, processor.batches.get(0).get(1).getAmount());
+        assertEquals("CONFIRMED", first.join());
+        assertEquals("FAILED", second.join());
+        assertEquals("CONFIRMED", third.join());
+        assertEquals(1.0, registry.get("checkout.payment.batch.fill").summary().max());
+        assertEquals(1.0, registry.get("checkout.payment.batches").tag("trigger", "size").counter().count());
+    }
+
+    @Test
+    void testPartialBatchIsSentAfterLinger() {
+        // Dado
+        paymentBatcher = new PaymentBatcher(processor, 4, Duration.ofMillis(20), registry);
+
+        // Cuando
+        CompletableFuture<String> payment = paymentBatcher.submit(1000, PaymentMethod.DEBIT);
+        processor.awaitBatches(1);
+        processor.complete(0, Arrays.asList("CONFIRMED"));
+
+        // Entonces
+        assertEquals("CONFIRMED", payment.join());
+        assertEquals(0.25, registry.get("checkout.payment.batch.fill").summary().max());
+        assertEquals(1.0, registry.get("checkout.payment.batches").tag("trigger", "linger").counter().count());
+    }
+
+    @Test
+    void testProcessorErrorReachesEveryPaymentInTheBatch() {
+        // Dado
+        paymentBatcher = new PaymentBatcher(processor, 2, Duration.ofHours(1), registry);
+
+        // Cuando
+        CompletableFuture<String> first = paymentBatcher.submit(1000, PaymentMethod.DEBIT);
+        CompletableFuture<String> second = paymentBatcher.submit(2000, PaymentMethod.DEBIT);
+        processor.pending.get(0).completeExceptionally(new IllegalStateException("timeout"));
+
+        // Entonces
+        assertTrue(first.isCompletedExceptionally());
+        assertTrue(second.isCompletedExceptionally());
+    }
+
+    private static final class RecordingProcessor implements PaymentProcessor {
+
+        private final List<List<Payment>> batches = new CopyOnWriteArrayList<>();
+        private final List<CompletableFuture<List<String>>> pending = new CopyOnWriteArrayList<>();
+
+        @Override
+        public CompletableFuture<List<String>> authorize(List<Payment> payments) {
+            CompletableFuture<List<String>> result = new CompletableFuture<>();
+            batches.add(new ArrayList<>(payments));
+            pending.add(result);
+            return result;
+        }
+
+        private void complete(int batch, List<String> statuses) {
+            pending.get(batch).complete(statuses);
+        }
+
+        private void awaitBatches(int count) {
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (batches.size() < count && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            assertEquals(count, batches.size());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.walmart.checkout.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentCircuitBreakerTest {
+
+    private static final long FAST = Duration.ofMillis(100).toNanos();
+    private static final long SLOW = Duration.ofSeconds(2).toNanos();
+
+    private final AtomicLong clock = new AtomicLong();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PaymentCircuitBreaker circuitBreaker = new PaymentCircuitBreaker(
+            4, 50, Duration.ofSeconds(1), Duration.ofSeconds(10), 2, registry, clock::get);
+
+    @Test
+    void testOpensWhenFailuresOrSlowCallsReachThreshold() {
+        // Dado
+        record(true, FAST);
+        record(false, FAST);
+        record(true, FAST);
+        assertEquals(PaymentCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        // Cuando: una llamada lenta completa 2 de 4 llamadas malas
+        record(true, SLOW);
+
+        // Entonces
+        assertEquals(PaymentCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.allowsCalls());
+        assertFalse(circuitBreaker.tryAcquire());
+        assertEquals(2.0, registry.get("checkout.payment.circuit.rejected").counter().count());
+        assertEquals(1.0, registry.get("checkout.payment.circuit.state").gauge().value());
+    }
+
+    @Test
+    void testHalfOpenTrialCallsCloseTheCircuit() {
+        // Dado
+        openCircuit();
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        // Cuando
+        assertTrue(circuitBreaker.tryAcquire());
+        assertTrue(circuitBreaker.tryAcquire());
+        // Las llamadas de prueba ya están tomadas
+        assertFalse(circuitBreaker.tryAcquire());
+        circuitBreaker.record(true, FAST);
+        circuitBreaker.record(true, FAST);
+
+        // Entonces
+        assertEquals(PaymentCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(1.0, registry.get("checkout.payment.circuit.transitions").tag("state", "half_open").counter().count());
+        assertEquals(1.0, registry.get("checkout.payment.circuit.transitions").tag("state", "closed").counter().count());
+    }
+
+    @Test
+    void testFailedTrialCallReopensTheCircuit() {
+        // Dado
+        openCircuit();
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        // Cuando
+        assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.record(false, FAST);
+
+        // Entonces
+        assertEquals(PaymentCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+        assertEquals(2.0, registry.get("checkout.payment.circuit.transitions").tag("state", "open").counter().count());
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 4; i++) {
+            record(false, FAST);
+        }
+        assertEquals(PaymentCircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    private void record(boolean success, long elapsedNanos) {
+        assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.record(success, elapsedNanos);
+    }
+}
@@ -0,0 +1,156 @@
+package com.walmart.checkout.service;
+
+import com.walmart.checkout.model.PaymentMethod;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger processorCalls = new AtomicInteger();
+    private CompletableFuture<List<String>> processorAnswer = new CompletableFuture<>();
+
+    private final PaymentBatcher paymentBatcher = new PaymentBatcher(payments -> {
+        processorCalls.incrementAndGet();
+        return processorAnswer;
+    }, 1, Duration.ZERO, registry);
+
+    private final PaymentCircuitBreaker circuitBreaker = new PaymentCircuitBreaker(
+            2, 50, Duration.ofSeconds(1), Duration.ofMinutes(1), 1, registry);
+
+    @AfterEach
+    void tearDown() {
+        paymentBatcher.shutdown();
+    }
+
+    @Test
+    void testAsyncPaymentReturnsBeforeTheProcessorAnswers() {
+        // Dado
+        PaymentService paymentService = new PaymentService(2, 2, Duration.ofSeconds(5), paymentBatcher, circuitBreaker);
+
+        // Cuando
+        CompletableFuture<String> status = paymentService.processPaymentAsync(1000, PaymentMethod.DEBIT);
+
+        // Entonces: el llamador no espera; el pago ocupa un cupo hasta la respuesta
+        assertFalse(status.isDone());
+        assertEquals(1, processorCalls.get());
+        assertEquals(1, paymentService.getAvailablePaymentSlots());
+        processorAnswer.complete(Collections.singletonList("CONFIRMED"));
+        assertEquals("CONFIRMED", status.join());
+        assertEquals(2, paymentService.getAvailablePaymentSlots());
+    }
+
+    @Test
+    void testPaymentsOverTheLimitWaitForAFreeSlot() {
+        // Dado: un cupo en vuelo y un lugar en cola
+        PaymentService paymentService = new PaymentService(1, 1, Duration.ofSeconds(5), paymentBatcher, circuitBreaker);
+        CompletableFuture<String> first = paymentService.processPaymentAsync(1000, PaymentMethod.DEBIT);
+
+        // Cuando
+        CompletableFuture<String> second = paymentService.processPaymentAsync(2000, PaymentMethod.CASH);
+
+        // Entonces: el segundo se envía recién cuando el primero libera su cupo
+        assertEquals(1, processorCalls.get());
+        assertFalse(second.isDone());
+        processorAnswer.complete(Collections.singletonList("CONFIRMED"));
+        assertEquals("CONFIRMED", first.join());
+        assertEquals("CONFIRMED", second.join());
+        assertEquals(2, processorCalls.get());
+        assertEquals(1, paymentService.getAvailablePaymentSlots());
+    }
+
+    @Test
+    void testSentPaymentWithoutAnswerReturnsPending() {
+        // Dado
+        PaymentService paymentService = new PaymentService(4, 4, Duration.ofMillis(50), paymentBatcher, circuitBreaker);
+
+        // Cuando
+        String status = paymentService.processPayment(1000, PaymentMethod.DEBIT);
+
+        // Entonces
+        assertEquals(PaymentService.PENDING, status);
+        assertEquals(1, processorCalls.get());
+        assertEquals(4, paymentService.getAvailablePaymentSlots());
+    }
+
+    @Test
+    void testOpenCircuitFailsFastWithoutCallingProcessor() {
+        // Dado
+        PaymentService paymentService = new PaymentService(4, 4, Duration.ofSeconds(5), paymentBatcher, circuitBreaker);
+        processorAnswer.completeExceptionally(new IllegalStateException("processor down"));
+        paymentService.processPayment(1000, PaymentMethod.DEBIT);
+        paymentService.processPayment(1000, PaymentMethod.DEBIT);
+
+        // Cuando
+        CompletableFuture<String> status = paymentService.processPaymentAsync(1000, PaymentMethod.DEBIT);
+
+        // Entonces
+        assertEquals(PaymentCircuitBreaker.State.OPEN, paymentService.getCircuitState());
+        assertTrue(status.isDone());
+        assertEquals("FAILED", status.join());
+        assertEquals(2, processorCalls.get());
+    }
+
+    @Test
+    void testFullBulkheadRejectsWithoutQueueing() {
+        // Dado: un cupo en vuelo y sin cola de espera
+        PaymentService paymentService = new PaymentService(1, 0, Duration.ofSeconds(5), paymentBatcher, circuitBreaker);
+        CompletableFuture<String> first = paymentService.processPaymentAsync(1000, PaymentMethod.DEBIT);
+
+        // Cuando
+        CompletableFuture<String> second = paymentService.processPaymentAsync(2000, PaymentMethod.DEBIT);
+        processorAnswer.complete(Collections.singletonList("CONFIRMED"));
+
+        // Entonces
+        assertEquals("FAILED", second.join());
+        assertEquals("CONFIRMED", first.join());
+        assertEquals(1, processorCalls.get());
+    }
+
+    @Test
+    void testConcurrentPaymentsNeverOverfillTheQueue() throws Exception {
+        // Dado: un cupo en vuelo, dos lugares en cola y el procesador sin responder
+        PaymentService paymentService = new PaymentService(1, 2, Duration.ofSeconds(5), paymentBatcher, circuitBreaker);
+        List<CompletableFuture<String>> statuses = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 50; i++) {
+                    statuses.add(paymentService.processPaymentAsync(1000, PaymentMethod.CASH));
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        // Cuando
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Entonces: solo el pago en vuelo y los dos en cola siguen esperando
+        assertEquals(3, statuses.stream().filter(status -> !status.isDone()).count());
+        processorAnswer.complete(Collections.singletonList("CONFIRMED"));
+        assertEquals(3, statuses.stream().filter(status -> "CONFIRMED".equals(status.join())).count());
+        // Los cupos se devolvieron al terminar
+        assertEquals("CONFIRMED", paymentService.processPaymentAsync(1000, PaymentMethod.CASH).join());
+    }
+}
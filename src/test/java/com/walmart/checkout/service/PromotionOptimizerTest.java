@@ -0,0 +1,94 @@
+package com.walmart.checkout.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PromotionOptimizerTest {
+
+    @Test
+    void testSearchBeatsGreedyChoice() {
+        // Dado: la de mayor descuento ocupa los dos grupos que las otras usan por separado
+        long[] values = {10, 6, 6};
+        long[][] groups = {{0b11}, {0b01}, {0b10}};
+
+        // Cuando
+        PromotionOptimizer optimizer = new PromotionOptimizer(values, groups, TimeUnit.SECONDS.toNanos(1), System::nanoTime);
+        boolean[] selected = optimizer.optimize();
+
+        // Entonces
+        assertArrayEquals(new boolean[]{false, true, true}, selected);
+        assertTrue(optimizer.isOptimal());
+    }
+
+    @Test
+    void testDominatedAndTiedCandidatesKeepFirstDefined() {
+        long[] values = {5, 5, 4, 0};
+        long[][] groups = {{0b01}, {0b01}, {0b11}, {0b10}};
+
+        boolean[] selected = new PromotionOptimizer(values, groups, TimeUnit.SECONDS.toNanos(1), System::nanoTime).optimize();
+
+        assertArrayEquals(new boolean[]{true, false, false, false}, selected);
+    }
+
+    @Test
+    void testZeroBudgetFallsBackToGreedy() {
+        long[] values = {10, 6, 6};
+        long[][] groups = {{0b11}, {0b01}, {0b10}};
+
+        PromotionOptimizer optimizer = new PromotionOptimizer(values, groups, 0, System::nanoTime);
+
+        assertArrayEquals(new boolean[]{true, false, false}, optimizer.optimize());
+        assertFalse(optimizer.isOptimal());
+    }
+
+    @Test
+    void testExpiredBudgetReturnsValidCombinationAtLeastAsGoodAsGreedy() {
+        // Dado: muchas promociones solapadas y un reloj que avanza 1 ms por lectura
+        Random random = new Random(7);
+        int count = 200;
+        long[] values = new long[count];
+        long[][] groups = new long[count][2];
+        for (int i = 0; i < count; i++) {
+            values[i] = 1 + random.nextInt(10_000);
+            for (int g = 0; g < 3; g++) {
+                int group = random.nextInt(100);
+                groups[i][group >>> 6] |= 1L << group;
+            }
+        }
+        AtomicLong clock = new AtomicLong();
+        long budget = TimeUnit.MILLISECONDS.toNanos(5);
+
+        // Cuando
+        PromotionOptimizer optimizer = new PromotionOptimizer(values, groups, budget,
+                () -> clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1)));
+        boolean[] selected = optimizer.optimize();
+        boolean[] greedy = new PromotionOptimizer(values, groups, 0, System::nanoTime).optimize();
+
+        // Entonces
+        assertFalse(optimizer.isOptimal());
+        long[] used = new long[2];
+        for (int i = 0; i < count; i++) {
+            if (selected[i]) {
+                assertEquals(0, (used[0] & groups[i][0]) | (used[1] & groups[i][1]));
+                used[0] |= groups[i][0];
+                used[1] |= groups[i][1];
+            }
+        }
+        assertTrue(total(values, selected) >= total(values, greedy));
+    }
+
+    private static long total(long[] values, boolean[] selected) {
+        long total = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (selected[i]) {
+                total += values[i];
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,382 @@
+package com.walmart.checkout.service;
+
+import com.walmart.checkout.model.Promotion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PromotionServiceTest {
+
+    private PromotionService promotionService;
+
+    private Promotion categoryPromotion;
+    private Promotion productPromotion;
+    private Promotion globalPromotion;
+    private Promotion inactivePromotion;
+
+    @BeforeEach
+    void setUp() {
+        promotionService = new PromotionService();
+
+        categoryPromotion = Promotion.builder()
+                .promotionId("PROMO-CAT")
+                .type(Promotion.PromotionType.PERCENTAGE_DISCOUNT)
+                .discountPercentage(new BigDecimal("10"))
+                .applicableCategories(Arrays.asList("Electrónicos"))
+                .active(true)
+                .build();
+
+        productPromotion = Promotion.builder()
+                .promotionId("PROMO-PROD")
+                .type(Promotion.PromotionType.FIXED_AMOUNT_DISCOUNT)
+                .fixedDiscountAmount(new BigDecimal("1000"))
+                .applicableProductIds(Arrays.asList("p-001"))
+                .applicableCategories(Arrays.asList("Electrónicos"))
+                .active(true)
+                .build();
+
+        globalPromotion = Promotion.builder()
+                .promotionId("PROMO-ALL")
+                .type(Promotion.PromotionType.MINIMUM_PURCHASE)
+                .fixedDiscountAmount(new BigDecimal("9000"))
+                .minimumPurchase(new BigDecimal("90000"))
+                .active(true)
+                .build();
+
+        inactivePromotion = Promotion.builder()
+                .promotionId("PROMO-OFF")
+                .type(Promotion.PromotionType.PERCENTAGE_DISCOUNT)
+                .discountPercentage(new BigDecimal("50"))
+                .applicableCategories(Arrays.asList("Electrónicos"))
+                .active(false)
+                .build();
+
+        promotionService.loadPromotions(Arrays.asList(
+                categoryPromotion, productPromotion, globalPromotion, inactivePromotion));
+    }
+
+    @Test
+    void testApplicablePromotionsKeepOriginalOrderWithoutDuplicates() {
+        List<Promotion> promotions = promotionService.getApplicablePromotions("p-001", "Electrónicos");
+
+        assertEquals(Arrays.asList(categoryPromotion, productPromotion, globalPromotion), promotions);
+    }
+
+    @Test
+    void testApplicablePromotionsForUnknownProductReturnGlobalOnly() {
+        List<Promotion> promotions = promotionService.getApplicablePromotions("p-999", "Calzado");
+
+        assertEquals(Arrays.asList(globalPromotion), promotions);
+    }
+
+    @Test
+    void testApplicablePromotionsAreSharedBetweenLookups() {
+        List<Promotion> first = promotionService.getApplicablePromotions("p-001", "Electrónicos");
+        List<Promotion> second = promotionService.getApplicablePromotions("p-001", "Electrónicos");
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void testActivePromotionsExcludeInactive() {
+        List<Promotion> promotions = promotionService.getActivePromotions();
+
+        assertEquals(3, promotions.size());
+        assertFalse(promotions.contains(inactivePromotion));
+    }
+
+    @Test
+    void testMinimumPurchaseTiersPickBestReachedThreshold() {
+        // Dado
+        Promotion smallTier = minimumPurchase("MIN-50", "50000", "3000");
+        Promotion bigTier = minimumPurchase("MIN-200", "200000", "25000");
+        Promotion worseHigherTier = minimumPurchase("MIN-300", "300000", "10000");
+        Promotion tiedTier = minimumPurchase("MIN-150", "150000.50", "25000");
+
+        promotionService.loadPromotions(Arrays.asList(
+                categoryPromotion, globalPromotion, smallTier, bigTier, worseHigherTier, tiedTier));
+
+        // Cuando
+        MinimumPurchaseTiers tiers = promotionService.getMinimumPurchaseTiers();
+
+        // Entonces
+        assertNull(tiers.bestFor(49999));
+        assertSame(smallTier, tiers.bestFor(50000));
+        assertSame(globalPromotion, tiers.bestFor(90000));
+        assertSame(globalPromotion, tiers.bestFor(150000));
+        assertSame(tiedTier, tiers.bestFor(150001));
+        // Con descuentos empatados gana la promoción definida primero
+        assertSame(bigTier, tiers.bestFor(200000));
+        assertSame(bigTier, tiers.bestFor(500000));
+    }
+
+    @Test
+    void testEvaluatorsSkipCartLevelPromotionsAndKeepOrder() {
+        PromotionEvaluator[] evaluators = promotionService.getApplicableEvaluators("p-001", "Electrónicos");
+
+        // La promoción de compra mínima se evalúa a nivel de carrito, no por línea
+        assertEquals(2, evaluators.length);
+        assertSame(categoryPromotion, evaluators[0].getPromotion());
+        assertSame(productPromotion, evaluators[1].getPromotion());
+        assertEquals(0, promotionService.getApplicableEvaluators("p-999", "Calzado").length);
+    }
+
+    @Test
+    void testCompiledEvaluatorsMatchPromotionRules() {
+        // Dado
+        Promotion buyTwoGetOne = Promotion.builder()
+                .promotionId("PROMO-2X1")
+                .type(Promotion.PromotionType.BUY_X_GET_Y_FREE)
+                .requiredQuantity(2)
+                .freeQuantity(1)
+                .active(true)
+                .build();
+
+        // Cuando
+        PromotionEvaluator percentage = PromotionEvaluator.compile(categoryPromotion);
+        PromotionEvaluator fixed = PromotionEvaluator.compile(productPromotion);
+        PromotionEvaluator buyXGetY = PromotionEvaluator.compile(buyTwoGetOne);
+
+        // Entonces
+        assertEquals(2000, percentage.discount(10000, 2, 20000));
+        assertEquals(1000, fixed.discount(10000, 2, 20000));
+        assertEquals(0, buyXGetY.discount(22491, 1, 22491));
+        assertEquals(44982, buyXGetY.discount(22491, 5, 112455));
+        assertNull(PromotionEvaluator.compile(globalPromotion));
+    }
+
+    @Test
+    void testInvalidPromotionFailsAtLoad() {
+        Promotion broken = Promotion.builder()
+                .promotionId("PROMO-BROKEN")
+                .type(Promotion.PromotionType.PERCENTAGE_DISCOUNT)
+                .active(true)
+                .build();
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> promotionService.loadPromotions(Arrays.asList(categoryPromotion, broken)));
+        assertTrue(error.getMessage().contains("PROMO-BROKEN"));
+        assertTrue(error.getMessage().contains("discountPercentage"), error.getMessage());
+        // El índice anterior sigue publicado
+        assertEquals(3, promotionService.getActivePromotions().size());
+    }
+
+    @Test
+    void testMissingFieldsAreNamedPerPromotionType() {
+        // Dado
+        Promotion withoutThreshold = Promotion.builder()
+                .promotionId("PROMO-MIN")
+                .type(Promotion.PromotionType.MINIMUM_PURCHASE)
+                .fixedDiscountAmount(new BigDecimal("5000"))
+                .active(true)
+                .build();
+        Promotion withoutFreeQuantity = Promotion.builder()
+                .promotionId("PROMO-2X1")
+                .type(Promotion.PromotionType.BUY_X_GET_Y_FREE)
+                .requiredQuantity(2)
+                .active(true)
+                .build();
+        Promotion tooPrecise = Promotion.builder()
+                .promotionId("PROMO-PCT")
+                .type(Promotion.PromotionType.PERCENTAGE_DISCOUNT)
+                .discountPercentage(new BigDecimal("12.345"))
+                .active(true)
+                .build();
+
+        // Cuando / Entonces
+        assertEquals("Promotion PROMO-MIN requires minimumPurchase", assertThrows(IllegalArgumentException.class,
+                () -> PromotionEvaluator.compile(withoutThreshold)).getMessage());
+        assertEquals("Promotion PROMO-2X1 requires freeQuantity", assertThrows(IllegalArgumentException.class,
+                () -> PromotionEvaluator.compile(withoutFreeQuantity)).getMessage());
+        assertTrue(assertThrows(IllegalArgumentException.class,
+                () -> PromotionEvaluator.compile(tooPrecise)).getMessage().contains("discountPercentage"));
+    }
+
+    @Test
+    void testScheduledPromotionIsSwitchedInAtItsStart() {
+        // Dado
+        Instant now = Instant.parse("2024-11-29T02:00:00Z");
+        MutableClock clock = new MutableClock(now, ZoneId.of("America/Santiago"));
+        PromotionService scheduled = new PromotionService(clock);
+        Promotion flashSale = Promotion.builder()
+                .promotionId("FLASH")
+                .type(Promotion.PromotionType.PERCENTAGE_DISCOUNT)
+                .discountPercentage(new BigDecimal("30"))
+                .applicableCategories(Arrays.asList("Electrónicos"))
+                .active(true)
+                .startsAt(now.plus(Duration.ofHours(1)))
+                .endsAt(now.plus(Duration.ofHours(3)))
+                .build();
+        scheduled.loadPromotions(Arrays.asList(categoryPromotion, flashSale));
+        long versionBefore = scheduled.getPromotionVersion();
+
+        // Cuando / Entonces
+        assertEquals(Arrays.asList(categoryPromotion), scheduled.getActivePromotions());
+        assertEquals(flashSale.getStartsAt(), scheduled.getNextChangeAt());
+
+        clock.set(flashSale.getStartsAt().minusMillis(1));
+        scheduled.switchIfDue();
+        assertEquals(Arrays.asList(categoryPromotion), scheduled.getActivePromotions());
+
+        clock.set(flashSale.getStartsAt());
+        scheduled.switchIfDue();
+        assertEquals(Arrays.asList(categoryPromotion, flashSale), scheduled.getActivePromotions());
+        assertEquals(Arrays.asList(categoryPromotion, flashSale),
+                scheduled.getApplicablePromotions("p-001", "Electrónicos"));
+        assertNotEquals(versionBefore, scheduled.getPromotionVersion());
+        assertEquals(flashSale.getEndsAt(), scheduled.getNextChangeAt());
+
+        clock.set(flashSale.getEndsAt());
+        scheduled.switchIfDue();
+        assertEquals(Arrays.asList(categoryPromotion), scheduled.getActivePromotions());
+        assertNull(scheduled.getNextChangeAt());
+        scheduled.shutdown();
+    }
+
+    @Test
+    void testDailyWindowCrossesMidnightAndSkipsBoundariesBeforeStart() {
+        // Dado
+        ZoneId zone = ZoneId.of("America/Santiago");
+        Instant now = ZonedDateTime.of(2024, 12, 1, 12, 0, 0, 0, zone).toInstant();
+        Instant startsAt = ZonedDateTime.of(2024, 12, 3, 0, 0, 0, 0, zone).toInstant();
+        MutableClock clock = new MutableClock(now, zone);
+        PromotionService scheduled = new PromotionService(clock);
+        Promotion nightOwl = Promotion.builder()
+                .promotionId("NIGHT")
+                .type(Promotion.PromotionType.FIXED_AMOUNT_DISCOUNT)
+                .fixedDiscountAmount(new BigDecimal("1000"))
+                .active(true)
+                .startsAt(startsAt)
+                .dailyStartTime(LocalTime.of(22, 0))
+                .dailyEndTime(LocalTime.of(2, 0))
+                .build();
+
+        // Cuando
+        scheduled.loadPromotions(Collections.singletonList(nightOwl));
+
+        // Entonces: los horarios de los días previos a la vigencia no cambian nada
+        assertTrue(scheduled.getActivePromotions().isEmpty());
+        assertEquals(startsAt, scheduled.getNextChangeAt());
+
+        clock.set(startsAt);
+        scheduled.switchIfDue();
+        assertEquals(Arrays.asList(nightOwl), scheduled.getActivePromotions());
+        assertEquals(ZonedDateTime.of(2024, 12, 3, 2, 0, 0, 0, zone).toInstant(), scheduled.getNextChangeAt());
+
+        clock.set(scheduled.getNextChangeAt());
+        scheduled.switchIfDue();
+        assertTrue(scheduled.getActivePromotions().isEmpty());
+        assertEquals(ZonedDateTime.of(2024, 12, 3, 22, 0, 0, 0, zone).toInstant(), scheduled.getNextChangeAt());
+        scheduled.shutdown();
+    }
+
+    @Test
+    void testRecheckBeyondTheBoundaryLimitKeepsTheVersion() {
+        // Dado: un horario diario que recién empieza a regir en tres años
+        ZoneId zone = ZoneId.of("America/Santiago");
+        Instant now = ZonedDateTime.of(2024, 12, 1, 12, 0, 0, 0, zone).toInstant();
+        Instant startsAt = ZonedDateTime.of(2027, 12, 1, 0, 0, 0, 0, zone).toInstant();
+        MutableClock clock = new MutableClock(now, zone);
+        PromotionService scheduled = new PromotionService(clock);
+        Promotion lunch = Promotion.builder()
+                .promotionId("LUNCH")
+                .type(Promotion.PromotionType.FIXED_AMOUNT_DISCOUNT)
+                .fixedDiscountAmount(new BigDecimal("1000"))
+                .active(true)
+                .startsAt(startsAt)
+                .dailyStartTime(LocalTime.of(12, 0))
+                .dailyEndTime(LocalTime.of(14, 0))
+                .build();
+        scheduled.loadPromotions(Collections.singletonList(lunch));
+        long versionBefore = scheduled.getPromotionVersion();
+        Instant recheckAt = scheduled.getNextChangeAt();
+
+        // Cuando
+        clock.set(recheckAt);
+        scheduled.switchIfDue();
+
+        // Entonces: la revisión no publica un índice nuevo y sigue buscando el cambio real
+        assertTrue(recheckAt.isBefore(startsAt));
+        assertEquals(versionBefore, scheduled.getPromotionVersion());
+        assertTrue(scheduled.getActivePromotions().isEmpty());
+        assertTrue(scheduled.getNextChangeAt().isAfter(recheckAt));
+        scheduled.shutdown();
+    }
+
+    @Test
+    void testInvalidScheduleFailsAtLoad() {
+        Promotion backwards = Promotion.builder()
+                .promotionId("PROMO-BACKWARDS")
+                .type(Promotion.PromotionType.PERCENTAGE_DISCOUNT)
+                .discountPercentage(new BigDecimal("10"))
+                .active(true)
+                .startsAt(Instant.parse("2024-12-02T00:00:00Z"))
+                .endsAt(Instant.parse("2024-12-01T00:00:00Z"))
+                .build();
+        Promotion futureBroken = Promotion.builder()
+                .promotionId("PROMO-LATER")
+                .type(Promotion.PromotionType.PERCENTAGE_DISCOUNT)
+                .active(true)
+                .startsAt(Instant.now().plus(Duration.ofDays(30)))
+                .build();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> promotionService.loadPromotions(Arrays.asList(categoryPromotion, backwards)));
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> promotionService.loadPromotions(Arrays.asList(categoryPromotion, futureBroken)));
+        assertTrue(error.getMessage().contains("PROMO-LATER"));
+        assertEquals(3, promotionService.getActivePromotions().size());
+    }
+
+    private Promotion minimumPurchase(String promotionId, String minimumPurchase, String discount) {
+        return Promotion.builder()
+                .promotionId(promotionId)
+                .type(Promotion.PromotionType.MINIMUM_PURCHASE)
+                .fixedDiscountAmount(new BigDecimal(discount))
+                .minimumPurchase(new BigDecimal(minimumPurchase))
+                .active(true)
+                .build();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private final ZoneId zone;
+        private volatile Instant instant;
+
+        private MutableClock(Instant instant, ZoneId zone) {
+            this.instant = instant;
+            this.zone = zone;
+        }
+
+        private void set(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return new MutableClock(instant, zone);
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.walmart.checkout.service;
+
+import com.walmart.checkout.model.AppliedDiscount;
+import org.junit.jupiter.api.Test;
+
+import java.text.NumberFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReceiptSummaryFormatterTest {
+
+    @Test
+    void testAmountsUseChileanGrouping() {
+        NumberFormat chilean = NumberFormat.getIntegerInstance(new Locale("es", "CL"));
+        long[] amounts = {0, 7, 999, 1000, 9000, 161998, 3269991, 1234567890123L, Long.MAX_VALUE};
+
+        for (long amount : amounts) {
+            String expected = "$" + chilean.format(amount) + " CLP";
+
+            assertEquals(expected, ReceiptSummaryFormatter.appendClp(new StringBuilder(), amount).toString());
+        }
+        assertEquals("-$161.998 CLP", ReceiptSummaryFormatter.appendClp(new StringBuilder(), -161998).toString());
+        assertEquals("-$9.223.372.036.854.775.808 CLP", ReceiptSummaryFormatter.appendClp(new StringBuilder(), Long.MIN_VALUE).toString());
+    }
+
+    @Test
+    void testFormatSummaryWithDiscounts() {
+        // Dado
+        AppliedDiscount electronics = AppliedDiscount.builder()
+                .discountName("Electronics Sale")
+                .amount(161998)
+                .build();
+        AppliedDiscount debit = AppliedDiscount.builder()
+                .discountName("Debit Discount")
+                .amount(326999)
+                .build();
+
+        // Cuando
+        String summary = ReceiptSummaryFormatter.format(3269991, Arrays.asList(electronics, debit), 488997, 2780994);
+
+        // Entonces
+        assertEquals("Checkout Summary:\n"
+                + "Subtotal: $3.269.991 CLP\n"
+                + "Discounts Applied:\n"
+                + "  - Electronics Sale: -$161.998 CLP\n"
+                + "  - Debit Discount: -$326.999 CLP\n"
+                + "Total Discounts: -$488.997 CLP\n"
+                + "Final Total: $2.780.994 CLP", summary);
+    }
+
+    @Test
+    void testFormatSummaryWithoutDiscounts() {
+        String summary = ReceiptSummaryFormatter.format(250, Collections.emptyList(), 0, 250);
+
+        assertEquals("Checkout Summary:\nSubtotal: $250 CLP\nFinal Total: $250 CLP", summary);
+    }
+}
@@ -0,0 +1,184 @@
+package com.walmart.checkout.service;
+
+import com.walmart.checkout.config.PaymentSimulatorProperties;
+import com.walmart.checkout.model.PaymentMethod;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulatedPaymentProcessorTest {
+
+    @Test
+    void testLatencyDistributions() {
+        PaymentSimulatorProperties.Latency latency = PaymentSimulatorProperties.Latency.standard();
+        latency.setMedian(Duration.ofMillis(100));
+        SplittableRandom random = new SplittableRandom(1);
+
+        assertEquals(Duration.ofMillis(100).toNanos(), SimulatedPaymentProcessor.sampleLatencyNanos(latency, random));
+
+        latency.setType(PaymentSimulatorProperties.Latency.Type.LOG_NORMAL);
+        latency.setSigma(0.5);
+        long[] samples = samples(latency, random, 10_001);
+        assertEquals(100, samples[5_000] / 1_000_000.0, 5);
+
+        latency.setType(PaymentSimulatorProperties.Latency.Type.BIMODAL);
+        latency.setSigma(0.1);
+        latency.setTailProbability(0.1);
+        latency.setTailMedian(Duration.ofSeconds(2));
+        latency.setMax(Duration.ofSeconds(3));
+        samples = samples(latency, random, 10_000);
+        long slow = Arrays.stream(samples).filter(nanos -> nanos > Duration.ofSeconds(1).toNanos()).count();
+        assertEquals(1_000, slow, 100);
+        assertTrue(samples[samples.length - 1] <= Duration.ofSeconds(3).toNanos());
+    }
+
+    @Test
+    void testSameSeedGivesSameAnswers() {
+        // Dado
+        PaymentSimulatorProperties properties = new PaymentSimulatorProperties();
+        properties.setSeed(42L);
+        properties.getDefaults().setFailureRate(0.5);
+        properties.getDefaults().getLatency().setMedian(Duration.ofMillis(1));
+        List<PaymentProcessor.Payment> payments = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            payments.add(new PaymentProcessor.Payment(1000, PaymentMethod.values()[i % PaymentMethod.values().length]));
+        }
+        SimulatedPaymentProcessor first = new SimulatedPaymentProcessor(properties);
+        SimulatedPaymentProcessor second = new SimulatedPaymentProcessor(properties);
+
+        // Cuando
+        List<String> firstStatuses = first.authorize(payments).join();
+        List<String> secondStatuses = second.authorize(payments).join();
+
+        // Entonces
+        assertEquals(firstStatuses, secondStatuses);
+        assertTrue(firstStatuses.contains("CONFIRMED") && firstStatuses.contains("FAILED"));
+        first.shutdown();
+        second.shutdown();
+    }
+
+    @Test
+    void testGatewayTimeoutLeavesOnlyItsTripPending() {
+        // Dado: el gateway de débito nunca responde y el de efectivo aprueba todo
+        PaymentSimulatorProperties properties = new PaymentSimulatorProperties();
+        properties.getDefaults().setFailureRate(0.0);
+        properties.getDefaults().getLatency().setMedian(Duration.ofMillis(1));
+        PaymentSimulatorProperties.Profile debit = new PaymentSimulatorProperties.Profile();
+        debit.setTimeoutRate(1.0);
+        debit.setTimeoutDuration(Duration.ofMillis(10));
+        properties.getMethods().put(PaymentMethod.DEBIT, debit);
+        SimulatedPaymentProcessor processor = new SimulatedPaymentProcessor(properties);
+
+        // Cuando
+        List<String> statuses = processor.authorize(Arrays.asList(
+                new PaymentProcessor.Payment(1000, PaymentMethod.DEBIT),
+                new PaymentProcessor.Payment(2000, PaymentMethod.CASH),
+                new PaymentProcessor.Payment(3000, PaymentMethod.DEBIT))).join();
+
+        // Entonces: el lote termina y solo el viaje sin respuesta queda en duda
+        assertEquals(Arrays.asList(PaymentService.PENDING, "CONFIRMED", PaymentService.PENDING), statuses);
+        processor.shutdown();
+    }
+
+    @Test
+    void testConcurrencyLimitQueuesTrips() {
+        // Dado
+        PaymentSimulatorProperties properties = new PaymentSimulatorProperties();
+        properties.getDefaults().setMaxConcurrentRequests(1);
+        properties.getDefaults().getLatency().setMedian(Duration.ofMillis(50));
+        SimulatedPaymentProcessor processor = new SimulatedPaymentProcessor(properties);
+        List<PaymentProcessor.Payment> payment = Arrays.asList(new PaymentProcessor.Payment(1000, PaymentMethod.CASH));
+
+        // Cuando
+        long start = System.nanoTime();
+        CompletableFuture<List<String>> first = processor.authorize(payment);
+        CompletableFuture<List<String>> second = processor.authorize(payment);
+        second.join();
+
+        // Entonces
+        assertTrue(first.isDone());
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(95).toNanos());
+        processor.shutdown();
+    }
+
+    @Test
+    void testProfilesBindPerPaymentMethod() {
+        Map<String, String> source = new HashMap<>();
+        source.put("checkout.payment.simulator.seed", "7");
+        source.put("checkout.payment.simulator.defaults.failure-rate", "0.01");
+        source.put("checkout.payment.simulator.defaults.latency.sigma", "0.4");
+        source.put("checkout.payment.simulator.defaults.max-concurrent-requests", "3");
+        source.put("checkout.payment.simulator.methods.credit-card.latency.type", "log-normal");
+        source.put("checkout.payment.simulator.methods.credit-card.latency.median", "250ms");
+        source.put("checkout.payment.simulator.methods.credit-card.timeout-rate", "0.02");
+
+        PaymentSimulatorProperties properties = new Binder(new MapConfigurationPropertySource(source))
+                .bind("checkout.payment.simulator", PaymentSimulatorProperties.class).get();
+
+        assertEquals(7L, properties.getSeed());
+        assertEquals(0.01, properties.profile(PaymentMethod.DEBIT).getFailureRate());
+        PaymentSimulatorProperties.Latency creditLatency = properties.profile(PaymentMethod.CREDIT_CARD).getLatency();
+        assertEquals(PaymentSimulatorProperties.Latency.Type.LOG_NORMAL, creditLatency.getType());
+        assertEquals(Duration.ofMillis(250), creditLatency.getMedian());
+        // Lo que el método no define se hereda de defaults, no de los valores de fábrica
+        PaymentSimulatorProperties.Profile credit = properties.profile(PaymentMethod.CREDIT_CARD);
+        assertEquals(0.02, credit.getTimeoutRate());
+        assertEquals(0.01, credit.getFailureRate());
+        assertEquals(3, credit.getMaxConcurrentRequests());
+        assertEquals(0.4, creditLatency.getSigma());
+        assertEquals(Duration.ofSeconds(30), credit.getTimeoutDuration());
+        assertEquals(Duration.ofSeconds(1), creditLatency.getTailMedian());
+    }
+
+    @Test
+    void testDocumentedExamplesBind() throws IOException {
+        // Dado: las claves de application.properties (incluido el ejemplo comentado) y las del README
+        Map<String, String> source = new HashMap<>();
+        List<String> lines = new ArrayList<>(Files.readAllLines(Paths.get("src/main/resources/application.properties")));
+        lines.addAll(Files.readAllLines(Paths.get("README.md")));
+        for (String line : lines) {
+            String property = line.startsWith("# ") ? line.substring(2) : line;
+            if (property.startsWith("checkout.payment.simulator.") && property.contains("=")) {
+                source.put(property.substring(0, property.indexOf('=')), property.substring(property.indexOf('=') + 1));
+            }
+        }
+
+        // Cuando
+        PaymentSimulatorProperties properties = new Binder(new MapConfigurationPropertySource(source))
+                .bind("checkout.payment.simulator", PaymentSimulatorProperties.class).get();
+
+        // Entonces: cada método documentado corresponde a un PaymentMethod
+        long documentedMethods = source.keySet().stream()
+                .filter(key -> key.startsWith("checkout.payment.simulator.methods."))
+                .map(key -> key.split("\\.")[4])
+                .distinct()
+                .count();
+        assertEquals(documentedMethods, properties.getMethods().size());
+        assertEquals(PaymentSimulatorProperties.Latency.Type.BIMODAL,
+                properties.profile(PaymentMethod.CREDIT_CARD).getLatency().getType());
+        assertEquals(0.01, properties.profile(PaymentMethod.DEBIT).getTimeoutRate());
+    }
+
+    private static long[] samples(PaymentSimulatorProperties.Latency latency, SplittableRandom random, int count) {
+        long[] samples = new long[count];
+        for (int i = 0; i < count; i++) {
+            samples[i] = SimulatedPaymentProcessor.sampleLatencyNanos(latency, random);
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+}
@@ -0,0 +1,78 @@
+package com.walmart.checkout.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UlidIdGeneratorTest {
+
+    @Test
+    void testIdsSortInCreationOrderEvenIfTheClockGoesBack() {
+        // Dado
+        AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+        UlidIdGenerator generator = new UlidIdGenerator(7, clock::get);
+
+        // Cuando
+        String first = generator.nextId();
+        String sameMillisecond = generator.nextId();
+        clock.addAndGet(5);
+        String later = generator.nextId();
+        clock.addAndGet(-1000);
+        String afterClockStep = generator.nextId();
+
+        // Entonces
+        assertEquals(26, first.length());
+        assertTrue(first.matches("[0-9A-HJKMNP-TV-Z]{26}"));
+        assertTrue(first.compareTo(sameMillisecond) < 0);
+        assertTrue(sameMillisecond.compareTo(later) < 0);
+        assertTrue(later.compareTo(afterClockStep) < 0);
+    }
+
+    @Test
+    void testTimestampIsEncodedInTheFirstTenCharacters() {
+        // 1.469.918.176.385 ms es 01ARYZ6S41 en el ejemplo de la especificación de ULID
+        UlidIdGenerator generator = new UlidIdGenerator(0, () -> 1_469_918_176_385L);
+
+        assertEquals("01ARYZ6S41", generator.nextId().substring(0, 10));
+    }
+
+    @Test
+    void testIdsAreUniqueAcrossThreads() throws Exception {
+        // Dado
+        UlidIdGenerator generator = new UlidIdGenerator(1);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Cuando
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            tasks.add(executor.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    ids.add(generator.nextId());
+                }
+            }));
+        }
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+        executor.shutdown();
+
+        // Entonces
+        assertEquals(160_000, ids.size());
+    }
+
+    @Test
+    void testNodeIdMustFitSixteenBits() {
+        assertThrows(IllegalArgumentException.class, () -> new UlidIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new UlidIdGenerator(65536));
+    }
+}